@@ -0,0 +1,137 @@
+package nl.tudelft.jpacman.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.ManualTickEngine;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+/**
+ * Creates the maps and levels the benchmarks run on. Levels are stepped
+ * manually and seeded, so every run measures the same game.
+ */
+public final class BenchmarkLevels {
+
+    /**
+     * The seed for the randomness of the ghosts.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * The distance between two pillars of wall inside a map.
+     */
+    private static final int PILLAR_SPACING = 4;
+
+    /**
+     * The sprites for the units, shared by all levels.
+     */
+    private static final PacManSprites SPRITES = new PacManSprites();
+
+    private BenchmarkLevels() {
+    }
+
+    /**
+     * Creates a square map surrounded by wall, with a pillar of wall every
+     * few squares and a pellet on every other square. The player starts in
+     * the top left corner and a ghost waits in each of the other corners.
+     *
+     * @param size
+     *            The width and height of the map, at least 5.
+     * @return The rows of the map.
+     */
+    public static List<String> map(int size) {
+        assert size >= PILLAR_SPACING + 1;
+        List<String> rows = new ArrayList<>(size);
+        for (int y = 0; y < size; y++) {
+            StringBuilder row = new StringBuilder(size);
+            for (int x = 0; x < size; x++) {
+                row.append(cell(x, y, size));
+            }
+            rows.add(row.toString());
+        }
+        return rows;
+    }
+
+    /**
+     * Determines what a square of a map created by {@link #map(int)} holds.
+     *
+     * @param x
+     *            The x coordinate of the square.
+     * @param y
+     *            The y coordinate of the square.
+     * @param size
+     *            The width and height of the map.
+     * @return The character of the square in the map.
+     */
+    private static char cell(int x, int y, int size) {
+        int last = size - 2;
+        if (x == 0 || y == 0 || x == size - 1 || y == size - 1
+            || x % PILLAR_SPACING == 0 && y % PILLAR_SPACING == 0) {
+            return '#';
+        }
+        if (x == 1 && y == 1) {
+            return 'P';
+        }
+        if ((x == 1 || x == last) && (y == 1 || y == last)) {
+            return 'G';
+        }
+        return '.';
+    }
+
+    /**
+     * @return A parser creating manually stepped, seeded levels.
+     */
+    public static MapParser parser() {
+        LevelFactory levelFactory = new LevelFactory(SPRITES, new GhostFactory(SPRITES),
+            new ManualTickEngine(), new Random(SEED));
+        return new MapParser(levelFactory, new BoardFactory(SPRITES));
+    }
+
+    /**
+     * @return A new player.
+     */
+    public static Player player() {
+        return new PlayerFactory(SPRITES).createPacMan();
+    }
+
+    /**
+     * Creates a started level of a map created by {@link #map(int)}, with a
+     * player on it.
+     *
+     * @param size
+     *            The width and height of the map.
+     * @return The new level.
+     */
+    public static Level level(int size) {
+        return level(size, false);
+    }
+
+    /**
+     * Creates a started level of a map created by {@link #map(int)}, with a
+     * player on it.
+     *
+     * @param size
+     *            The width and height of the map.
+     * @param compact
+     *            Whether to put the level on a compact board.
+     * @return The new level.
+     */
+    public static Level level(int size, boolean compact) {
+        MapParser parser = parser();
+        if (compact) {
+            parser.withCompactBoards();
+        }
+        Level level = parser.parseMap(map(size));
+        level.registerPlayer(player());
+        level.start();
+        return level;
+    }
+}
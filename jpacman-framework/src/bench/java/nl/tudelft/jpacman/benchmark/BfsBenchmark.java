@@ -0,0 +1,216 @@
+package nl.tudelft.jpacman.benchmark;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.Player;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a full breadth first search over the accessible squares of a
+ * board, visiting the neighbours of each square one direction at a time, in
+ * bulk, or by index only.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BfsBenchmark {
+
+    /**
+     * The directions to search in.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The map to search: the default board, or the width and height of a
+     * generated one.
+     */
+    @Param({"board.txt", "128", "512"})
+    private String map;
+
+    /**
+     * Whether the level is on a compact board.
+     */
+    @Param({"false", "true"})
+    private boolean compact;
+
+    /**
+     * The board to search.
+     */
+    private Board board;
+
+    /**
+     * The square the searches start from.
+     */
+    private Square start;
+
+    /**
+     * The unit travelling the board.
+     */
+    private Unit traveller;
+
+    /**
+     * The stamp each square was last visited with.
+     */
+    private int[] visited;
+
+    /**
+     * The stamp of the current search.
+     */
+    private int stamp;
+
+    /**
+     * The squares to visit.
+     */
+    private Square[] squareQueue;
+
+    /**
+     * The indices of the squares to visit.
+     */
+    private int[] indexQueue;
+
+    /**
+     * The neighbours of the square being visited.
+     */
+    private final Square[] neighbours = new Square[Square.NEIGHBOUR_COUNT];
+
+    /**
+     * The indices of the neighbours of the square being visited.
+     */
+    private final int[] neighbourIndices = new int[Square.NEIGHBOUR_COUNT];
+
+    /**
+     * Creates the level and the search space.
+     *
+     * @throws IOException
+     *             If the default board could not be read.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        Level level;
+        if ("board.txt".equals(map)) {
+            MapParser parser = BenchmarkLevels.parser();
+            if (compact) {
+                parser.withCompactBoards();
+            }
+            level = parser.parseMap("/board.txt");
+            level.registerPlayer(BenchmarkLevels.player());
+        } else {
+            level = BenchmarkLevels.level(Integer.parseInt(map), compact);
+        }
+        board = level.getBoard();
+        traveller = board.getUnits().squaresOf(Player.class).get(0)
+            .getOccupant(0);
+        start = traveller.getSquare();
+        int size = board.getWidth() * board.getHeight();
+        visited = new int[size];
+        squareQueue = new Square[size];
+        indexQueue = new int[size];
+    }
+
+    /**
+     * Starts a new search.
+     */
+    private void nextStamp() {
+        stamp++;
+        if (stamp == 0) {
+            Arrays.fill(visited, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * Searches asking each square for its neighbour in each direction.
+     *
+     * @return The number of squares visited.
+     */
+    @Benchmark
+    public int perDirection() {
+        nextStamp();
+        int head = 0;
+        int tail = 0;
+        visited[start.getIndex()] = stamp;
+        squareQueue[tail++] = start;
+        while (head < tail) {
+            Square square = squareQueue[head++];
+            for (Direction direction : DIRECTIONS) {
+                Square next = square.getSquareAt(direction);
+                if (visited[next.getIndex()] != stamp && next.isAccessibleTo(traveller)) {
+                    visited[next.getIndex()] = stamp;
+                    squareQueue[tail++] = next;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Searches asking each square for all its neighbours at once.
+     *
+     * @return The number of squares visited.
+     */
+    @Benchmark
+    public int bulk() {
+        nextStamp();
+        int head = 0;
+        int tail = 0;
+        visited[start.getIndex()] = stamp;
+        squareQueue[tail++] = start;
+        while (head < tail) {
+            squareQueue[head++].getNeighbours(neighbours);
+            for (Square next : neighbours) {
+                if (visited[next.getIndex()] != stamp && next.isAccessibleTo(traveller)) {
+                    visited[next.getIndex()] = stamp;
+                    squareQueue[tail++] = next;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Searches by the indices of squares, asking the board for neighbours
+     * and accessibility.
+     *
+     * @return The number of squares visited.
+     */
+    @Benchmark
+    public int byIndex() {
+        nextStamp();
+        int head = 0;
+        int tail = 0;
+        visited[start.getIndex()] = stamp;
+        indexQueue[tail++] = start.getIndex();
+        while (head < tail) {
+            board.getNeighbourIndices(indexQueue[head++], neighbourIndices);
+            for (int next : neighbourIndices) {
+                if (visited[next] != stamp && board.isAccessibleAt(next, traveller)) {
+                    visited[next] = stamp;
+                    indexQueue[tail++] = next;
+                }
+            }
+        }
+        return tail;
+    }
+}
@@ -0,0 +1,109 @@
+package nl.tudelft.jpacman.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.level.CollisionInteractionMap;
+import nl.tudelft.jpacman.level.Pellet;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.Navigation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures dispatching collisions to their handlers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+
+    /**
+     * The width and height of the board the units are taken from.
+     */
+    private static final int SIZE = 8;
+
+    /**
+     * The collisions between players, ghosts and pellets.
+     */
+    private CollisionInteractionMap collisions;
+
+    /**
+     * A player, which is never killed.
+     */
+    private Player player;
+
+    /**
+     * A ghost.
+     */
+    private Ghost ghost;
+
+    /**
+     * A pellet that is not on the board, so it can be eaten over and over.
+     */
+    private Pellet pellet;
+
+    /**
+     * Creates the units and registers the handlers.
+     */
+    @Setup
+    public void setUp() {
+        player = BenchmarkLevels.player();
+        ghost = Navigation.findUnit(Ghost.class,
+            BenchmarkLevels.level(SIZE).getBoard().squareAt(SIZE - 2, 1));
+        pellet = new Pellet(1, player.getSprite());
+
+        collisions = new CollisionInteractionMap();
+        collisions.onCollision(Player.class, Ghost.class, (p, g) -> p.setAlive(true));
+        collisions.onCollision(Player.class, Pellet.class, (p, food) -> {
+            food.leaveSquare();
+            p.addPoints(food.getValue());
+        });
+    }
+
+    /**
+     * Collides a player with a pellet, which has a handler.
+     *
+     * @return The player.
+     */
+    @Benchmark
+    public Player playerEatsPellet() {
+        collisions.collide(player, pellet);
+        return player;
+    }
+
+    /**
+     * Collides a ghost with a player, which has a handler for the inverse
+     * pair.
+     *
+     * @return The player.
+     */
+    @Benchmark
+    public Player ghostMeetsPlayer() {
+        collisions.collide(ghost, player);
+        return player;
+    }
+
+    /**
+     * Collides a ghost with a pellet, for which no handler exists.
+     *
+     * @return The ghost.
+     */
+    @Benchmark
+    public Ghost ghostPassesPellet() {
+        collisions.collide(ghost, pellet);
+        return ghost;
+    }
+}
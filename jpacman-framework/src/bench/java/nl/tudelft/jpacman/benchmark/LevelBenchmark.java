@@ -0,0 +1,115 @@
+package nl.tudelft.jpacman.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.Navigation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing levels and moving units on them, for boards of
+ * increasing size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelBenchmark {
+
+    /**
+     * The width and height of the board.
+     */
+    @Param({"32", "128", "512"})
+    private int size;
+
+    /**
+     * Whether the level is on a compact board.
+     */
+    @Param({"false", "true"})
+    private boolean compact;
+
+    /**
+     * The rows of the map.
+     */
+    private List<String> map;
+
+    /**
+     * The parser of the map.
+     */
+    private MapParser parser;
+
+    /**
+     * The level to move on.
+     */
+    private Level level;
+
+    /**
+     * The ghost in the top right corner, which moves back and forth over
+     * pellets.
+     */
+    private Ghost ghost;
+
+    /**
+     * Creates the map and the level.
+     */
+    @Setup
+    public void setUp() {
+        map = BenchmarkLevels.map(size);
+        parser = BenchmarkLevels.parser();
+        if (compact) {
+            parser.withCompactBoards();
+        }
+        level = BenchmarkLevels.level(size, compact);
+        ghost = Navigation.findUnit(Ghost.class, level.getBoard().squareAt(size - 2, 1));
+    }
+
+    /**
+     * Parses the map into a new level.
+     *
+     * @return The new level.
+     */
+    @Benchmark
+    public Level parseMap() {
+        return parser.parseMap(map);
+    }
+
+    /**
+     * Moves a ghost onto a square with a pellet and back again, colliding
+     * with the pellet both ways.
+     *
+     * @return The ghost.
+     */
+    @Benchmark
+    public Ghost moveWithCollisions() {
+        level.move(ghost, Direction.WEST);
+        level.move(ghost, Direction.EAST);
+        return ghost;
+    }
+
+    /**
+     * Counts the pellets left on the board.
+     *
+     * @return The number of pellets left.
+     */
+    @Benchmark
+    public int remainingPellets() {
+        return level.remainingPellets();
+    }
+}
@@ -0,0 +1,113 @@
+package nl.tudelft.jpacman.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.Pellet;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.Navigation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures finding paths and units on boards of increasing size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NavigationBenchmark {
+
+    /**
+     * The width and height of the board.
+     */
+    @Param({"32", "128", "512"})
+    private int size;
+
+    /**
+     * The square in the top left corner, where the player starts.
+     */
+    private Square corner;
+
+    /**
+     * The square in the opposite corner.
+     */
+    private Square opposite;
+
+    /**
+     * A ghost travelling the board.
+     */
+    private Ghost traveller;
+
+    /**
+     * Creates the level.
+     */
+    @Setup
+    public void setUp() {
+        Level level = BenchmarkLevels.level(size);
+        Board board = level.getBoard();
+        corner = board.squareAt(1, 1);
+        opposite = board.squareAt(size - 2, size - 2);
+        traveller = Navigation.findUnit(Ghost.class, opposite);
+    }
+
+    /**
+     * Searches the path across the board without a traveller, which always
+     * takes a breadth-first search.
+     *
+     * @return The path found.
+     */
+    @Benchmark
+    public List<Direction> shortestPath() {
+        return Navigation.shortestPath(opposite, corner, null);
+    }
+
+    /**
+     * Searches the path across the board for a ghost, which may use the
+     * precomputed path table of the board.
+     *
+     * @return The path found.
+     */
+    @Benchmark
+    public List<Direction> shortestPathForGhost() {
+        return Navigation.shortestPath(opposite, corner, traveller);
+    }
+
+    /**
+     * Searches the pellet nearest to the player.
+     *
+     * @return The pellet found.
+     */
+    @Benchmark
+    public Unit findNearestPellet() {
+        return Navigation.findNearest(Pellet.class, corner);
+    }
+
+    /**
+     * Searches the ghost nearest to the player, which lies across the
+     * board.
+     *
+     * @return The ghost found.
+     */
+    @Benchmark
+    public Unit findNearestGhost() {
+        return Navigation.findNearest(Ghost.class, corner);
+    }
+}
@@ -0,0 +1,119 @@
+package nl.tudelft.jpacman.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.MapGenerator;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.Pellet;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.Navigation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing and searching generated maze maps up to production
+ * scale. Run with <code>-prof gc</code> to see the memory parsing takes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ScaleBenchmark {
+
+    /**
+     * The seed of the maps.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * The width and height of the map.
+     */
+    @Param({"100", "1000", "4000"})
+    private int size;
+
+    /**
+     * Whether to parse the map onto a compact board.
+     */
+    @Param({"false", "true"})
+    private boolean compact;
+
+    /**
+     * The map, as generated.
+     */
+    private char[][] map;
+
+    /**
+     * The square the player starts on.
+     */
+    private Square start;
+
+    /**
+     * The square of one of the ghosts.
+     */
+    private Square ghost;
+
+    /**
+     * Generates the map and parses it once for the searches.
+     */
+    @Setup
+    public void setUp() {
+        map = new MapGenerator(size, size).withSeed(SEED).generate();
+        Level level = parse();
+        Player player = BenchmarkLevels.player();
+        level.registerPlayer(player);
+        start = player.getSquare();
+        ghost = level.getBoard().getUnits().squaresOf(Ghost.class).get(0);
+    }
+
+    /**
+     * Parses the map into a level.
+     *
+     * @return The new level.
+     */
+    @Benchmark
+    public Level parse() {
+        MapParser parser = BenchmarkLevels.parser();
+        if (compact) {
+            parser.withCompactBoards();
+        }
+        return parser.parseMap(map);
+    }
+
+    /**
+     * Searches the path from a ghost to the player.
+     *
+     * @return The path found.
+     */
+    @Benchmark
+    public List<Direction> shortestPath() {
+        return Navigation.shortestPath(ghost, start, null);
+    }
+
+    /**
+     * Searches the pellet nearest to the player.
+     *
+     * @return The pellet found.
+     */
+    @Benchmark
+    public Unit findNearestPellet() {
+        return Navigation.findNearest(Pellet.class, start);
+    }
+}
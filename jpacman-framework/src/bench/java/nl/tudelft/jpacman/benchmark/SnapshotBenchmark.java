@@ -0,0 +1,121 @@
+package nl.tudelft.jpacman.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelSnapshot;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.Player;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures capturing and restoring snapshots of levels up to production
+ * scale. Run with <code>-prof gc</code> to check that neither allocates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SnapshotBenchmark {
+
+    /**
+     * The number of ticks played before restoring.
+     */
+    private static final int TICKS = 16;
+
+    /**
+     * The width and height of the map.
+     */
+    @Param({"100", "1000", "4000"})
+    private int size;
+
+    /**
+     * Whether to put the level on a compact board.
+     */
+    @Param({"false", "true"})
+    private boolean compact;
+
+    /**
+     * The started level.
+     */
+    private Level level;
+
+    /**
+     * The player of the level.
+     */
+    private Player player;
+
+    /**
+     * The snapshot of the level as it started.
+     */
+    private LevelSnapshot snapshot;
+
+    /**
+     * Creates the level and takes its snapshot.
+     */
+    @Setup
+    public void setUp() {
+        MapParser parser = BenchmarkLevels.parser();
+        if (compact) {
+            parser.withCompactBoards();
+        }
+        level = parser.parseMap(BenchmarkLevels.map(size));
+        player = BenchmarkLevels.player();
+        level.registerPlayer(player);
+        level.start();
+        snapshot = new LevelSnapshot(level);
+    }
+
+    /**
+     * Captures the level into the snapshot.
+     *
+     * @return The snapshot.
+     */
+    @Benchmark
+    public LevelSnapshot capture() {
+        snapshot.capture(level);
+        return snapshot;
+    }
+
+    /**
+     * Restores the level while it is still in the state of the snapshot, which
+     * only compares it with the snapshot.
+     *
+     * @return The level.
+     */
+    @Benchmark
+    public Level restoreUnchanged() {
+        snapshot.restore(level);
+        return level;
+    }
+
+    /**
+     * Plays a few ticks, with the player walking and eating pellets, and
+     * restores the level to the snapshot.
+     *
+     * @return The level.
+     */
+    @Benchmark
+    public Level playAndRestore() {
+        for (int tick = 0; tick < TICKS; tick++) {
+            level.move(player, Direction.EAST);
+            level.step();
+        }
+        snapshot.restore(level);
+        return level;
+    }
+}
@@ -0,0 +1,137 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.benchmark.BenchmarkLevels;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.game.GameFactory;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.Navigation;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures drawing the board offscreen, on an image instead of the screen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderingBenchmark {
+
+    /**
+     * The width and height of the board.
+     */
+    @Param({"16", "32", "64"})
+    private int size;
+
+    /**
+     * The game to draw.
+     */
+    private Game game;
+
+    /**
+     * The panel drawing frames.
+     */
+    private BoardPanel panel;
+
+    /**
+     * The width of the board in pixels.
+     */
+    private int pixels;
+
+    /**
+     * The image the frames are drawn on.
+     */
+    private BufferedImage image;
+
+    /**
+     * The graphics context of the image.
+     */
+    private Graphics graphics;
+
+    /**
+     * The ghost in the top right corner, which moves back and forth.
+     */
+    private Ghost ghost;
+
+    /**
+     * Creates the game, the panel and the image.
+     */
+    @Setup
+    public void setUp() {
+        Level level = BenchmarkLevels.parser().parseMap(BenchmarkLevels.map(size));
+        game = new GameFactory(new PlayerFactory(new PacManSprites()))
+            .createSinglePlayerGame(level);
+        level.start();
+        ghost = Navigation.findUnit(Ghost.class, level.getBoard().squareAt(size - 2, 1));
+
+        pixels = size * BoardPanel.SQUARE_SIZE;
+        image = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+        panel = new BoardPanel(game);
+        panel.setSize(pixels, pixels);
+        panel.paint(graphics);
+    }
+
+    /**
+     * Releases the graphics context.
+     */
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    /**
+     * Resizes the panel and draws a frame, which draws the whole board from
+     * scratch. The panel is resized by a single pixel, alternately shrinking
+     * and growing it.
+     *
+     * @return The image drawn on.
+     */
+    @Benchmark
+    public BufferedImage fullFrame() {
+        int width = pixels;
+        if (panel.getWidth() == pixels) {
+            width--;
+        }
+        panel.setSize(width, pixels);
+        panel.paint(graphics);
+        return image;
+    }
+
+    /**
+     * Moves a ghost and draws the next frame, which only redraws what
+     * changed.
+     *
+     * @return The image drawn on.
+     */
+    @Benchmark
+    public BufferedImage nextFrame() {
+        Level level = game.getLevel();
+        level.move(ghost, Direction.WEST);
+        panel.paint(graphics);
+        level.move(ghost, Direction.EAST);
+        panel.paint(graphics);
+        return image;
+    }
+}
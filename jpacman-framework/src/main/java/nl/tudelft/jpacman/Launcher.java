@@ -3,6 +3,8 @@ package nl.tudelft.jpacman;
 import java.awt.event.KeyEvent;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import nl.tudelft.jpacman.board.BoardFactory;
 import nl.tudelft.jpacman.board.Direction;
@@ -10,6 +12,7 @@ import nl.tudelft.jpacman.game.Game;
 import nl.tudelft.jpacman.game.GameFactory;
 import nl.tudelft.jpacman.level.Level;
 import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.LevelTemplate;
 import nl.tudelft.jpacman.level.MapParser;
 import nl.tudelft.jpacman.level.Player;
 import nl.tudelft.jpacman.level.PlayerFactory;
@@ -32,6 +35,23 @@ public class Launcher {
     public static final String DEFAULT_MAP = "/board.txt";
     private String levelMap = DEFAULT_MAP;
 
+    /**
+     * The maps played so far, by name, so each map is only read once however
+     * often its level is restarted. Parsers only read the maps.
+     */
+    private final Map<String, char[][]> maps = new ConcurrentHashMap<>();
+
+    /**
+     * The templates of the maps played on compact boards so far, by name.
+     */
+    private final Map<String, LevelTemplate> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Whether levels are created on compact boards straight from their
+     * templates.
+     */
+    private boolean compactLevels;
+
     private PacManUI pacManUI;
     private Game game;
 
@@ -76,19 +96,68 @@ public class Launcher {
         return game;
     }
 
+    /**
+     * Lets {@link #makeLevel()} create levels on compact boards straight
+     * from the template of the map, which takes time and memory in the
+     * number of units rather than in the size of the map. Maps holding
+     * characters that only the map parser reads are still parsed by it.
+     *
+     * @return This launcher.
+     */
+    public Launcher withCompactLevels() {
+        compactLevels = true;
+        return this;
+    }
+
     /**
      * Creates a new level. By default this method will use the map parser to
-     * parse the default board stored in the <code>board.txt</code> resource.
+     * build the default board stored in the <code>board.txt</code> resource,
+     * which is only read once. With {@link #withCompactLevels()} the level is
+     * created on a compact board from the template of the map instead, if
+     * the template can hold the map.
      *
      * @return A new level.
      */
     public Level makeLevel() {
-        try {
-            return getMapParser().parseMap(getLevelMap());
-        } catch (IOException e) {
-            throw new PacmanConfigurationException(
-                    "Unable to create level, name = " + getLevelMap(), e);
+        char[][] map = getLevelChars();
+        if (compactLevels && LevelTemplate.canHold(map)) {
+            return getLevelTemplate().createLevel(getLevelFactory());
         }
+        return getMapParser().parseMap(map);
+    }
+
+    /**
+     * Returns the level map, which is read the first time it is asked for.
+     *
+     * @return The map from {@link #getLevelMap()}, with map[x][y]
+     *         representing the square at position x,y.
+     */
+    protected char[][] getLevelChars() {
+        return maps.computeIfAbsent(getLevelMap(), name -> {
+            try {
+                return MapParser.readMap(name);
+            } catch (IOException e) {
+                throw new PacmanConfigurationException(
+                        "Unable to create level, name = " + name, e);
+            }
+        });
+    }
+
+    /**
+     * Returns the template of the level map, which the map parser creates
+     * the first time it is asked for.
+     *
+     * @return The template of the map from {@link #getLevelMap()}.
+     */
+    protected LevelTemplate getLevelTemplate() {
+        return templates.computeIfAbsent(getLevelMap(), name -> {
+            try {
+                return getMapParser().parseTemplate(name);
+            } catch (IOException e) {
+                throw new PacmanConfigurationException(
+                        "Unable to create level, name = " + name, e);
+            }
+        });
     }
 
     /**
@@ -183,7 +252,7 @@ public class Launcher {
     }
 
     /**
-     * Disposes of the UI. For more information see
+     * Disposes of the UI and the level of the game. For more information see
      * {@link javax.swing.JFrame#dispose()}.
      *
      * Precondition: The game was launched first.
@@ -191,6 +260,7 @@ public class Launcher {
     public void dispose() {
         assert pacManUI != null;
         pacManUI.dispose();
+        game.getLevel().dispose();
     }
 
     /**
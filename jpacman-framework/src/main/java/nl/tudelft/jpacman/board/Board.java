@@ -1,5 +1,12 @@
 package nl.tudelft.jpacman.board;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import nl.tudelft.jpacman.sprite.Sprite;
 
 /**
  * A top-down view of a matrix of {@link Square}s.
@@ -9,10 +16,67 @@ package nl.tudelft.jpacman.board;
 public class Board {
 
     /**
-     * The grid of squares with board[x][y] being the square at column x, row y.
+     * The number of flow fields kept around per board.
+     */
+    private static final int FLOW_FIELDS_KEPT = 4;
+
+    /**
+     * The grid of squares with board[x][y] being the square at column x, row y,
+     * or <code>null</code> for boards that store their squares otherwise.
      */
     private final Square[][] board;
 
+    /**
+     * The squares of the grid by their index, or <code>null</code> for boards
+     * that store their squares otherwise.
+     */
+    private final Square[] squares;
+
+    /**
+     * The number of columns.
+     */
+    private final int width;
+
+    /**
+     * The number of rows.
+     */
+    private final int height;
+
+    /**
+     * The objects observing units entering and leaving squares of this board.
+     */
+    private final List<OccupantObserver> observers = new CopyOnWriteArrayList<>();
+
+    /**
+     * The positions of the units on this board, by their type.
+     */
+    private final UnitIndex units = new UnitIndex(this);
+
+    /**
+     * The most recently used flow fields by their target and the class of
+     * their traveller, least recent first.
+     */
+    private final Map<FieldKey, FlowField> flowFields =
+        new LinkedHashMap<FieldKey, FlowField>(FLOW_FIELDS_KEPT * 2, 1f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<FieldKey, FlowField> eldest) {
+                return size() > FLOW_FIELDS_KEPT;
+            }
+        };
+
+    /**
+     * The table of shortest paths on this board, once it has been asked for.
+     * Remains <code>null</code> if this board does not allow for a table.
+     */
+    private PathTable pathTable;
+
+    /**
+     * Whether the table of shortest paths has been asked for.
+     */
+    private boolean pathTableRequested;
+
     /**
      * Creates a new board.
      *
@@ -24,14 +88,42 @@ public class Board {
     Board(Square[][] grid) {
         assert grid != null;
         this.board = grid;
+        this.width = grid.length;
+        this.height = grid[0].length;
+        this.squares = new Square[width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                squares[y * width + x] = grid[x][y];
+            }
+        }
         assert invariant() : "Initial grid cannot contain null squares";
     }
 
+    /**
+     * Creates a new board for a subclass that stores its squares itself, and
+     * therefore has to override {@link #squareAt(int, int)}.
+     *
+     * @param width
+     *            The number of columns.
+     * @param height
+     *            The number of rows.
+     */
+    Board(int width, int height) {
+        assert width > 0 && height > 0;
+        this.board = null;
+        this.squares = null;
+        this.width = width;
+        this.height = height;
+    }
+
     /**
      * Whatever happens, the squares on the board can't be null.
      * @return false if any square on the board is null.
      */
     protected final boolean invariant() {
+        if (board == null) {
+            return true;
+        }
         for (Square[] row : board) {
             for (Square square : row) {
                 if (square == null) {
@@ -48,7 +140,7 @@ public class Board {
      * @return The width of this board.
      */
     public int getWidth() {
-        return board.length;
+        return width;
     }
 
     /**
@@ -57,7 +149,7 @@ public class Board {
      * @return The height of this board.
      */
     public int getHeight() {
-        return board[0].length;
+        return height;
     }
 
     /**
@@ -79,6 +171,107 @@ public class Board {
         return result;
     }
 
+    /**
+     * Returns the square with the given index, see {@link Square#getIndex()}.
+     *
+     * @param index
+     *            The index of the square, from 0 up to (but excluding) the
+     *            width times the height of this board.
+     * @return The square with the given index (never null).
+     */
+    public Square squareAtIndex(int index) {
+        return squares[index];
+    }
+
+    /**
+     * Returns the square with the given index if it exists as an object.
+     * Boards that create their squares on demand return <code>null</code> for
+     * squares that were never asked for, which therefore hold no units.
+     *
+     * @param index
+     *            The index of the square.
+     * @return The square with the given index, or <code>null</code> if it has
+     *         not been created and holds no units.
+     */
+    public Square findSquare(int index) {
+        return squares[index];
+    }
+
+    /**
+     * Returns the sprite of the square with the given index, without
+     * creating the square on boards that create squares on demand.
+     *
+     * @param index
+     *            The index of the square.
+     * @return The sprite of the square.
+     */
+    public Sprite getSpriteAt(int index) {
+        return squares[index].getSprite();
+    }
+
+    /**
+     * Looks up the indices of the squares adjacent to a square, in the order
+     * of {@link Direction#values()}, so that the neighbour in direction
+     * <code>d</code> ends up at <code>d.ordinal()</code>. Searches going by
+     * index can visit all neighbours of a square with a single call.
+     *
+     * @param index
+     *            The index of the square.
+     * @param into
+     *            The array to store the indices in, of at least
+     *            {@link Square#NEIGHBOUR_COUNT} elements.
+     */
+    public void getNeighbourIndices(int index, int[] into) {
+        squares[index].getNeighbourIndices(into);
+    }
+
+    /**
+     * Determines whether a unit is allowed to occupy the square with the
+     * given index.
+     *
+     * @param index
+     *            The index of the square.
+     * @param unit
+     *            The unit to grant or deny access.
+     * @return <code>true</code> iff the unit is allowed to occupy the square.
+     */
+    public boolean isAccessibleAt(int index, Unit unit) {
+        return squares[index].isAccessibleTo(unit);
+    }
+
+    /**
+     * Determines whether the square with the given index is accessible to
+     * all units alike, see {@link Square#isUniformlyAccessible()}.
+     *
+     * @param index
+     *            The index of the square.
+     * @return <code>true</code> iff the square treats all units alike.
+     */
+    boolean isUniformlyAccessibleAt(int index) {
+        return squares[index].isUniformlyAccessible();
+    }
+
+    /**
+     * Determines whether all neighbours of a square are on this board and
+     * have the square as their neighbour in the opposite direction.
+     *
+     * @param index
+     *            The index of the square.
+     * @return <code>true</code> iff the square is linked both ways to
+     *         neighbours on this board.
+     */
+    boolean linksBack(int index) {
+        Square square = squares[index];
+        for (Direction direction : Direction.values()) {
+            Square neighbour = square.getSquareAt(direction);
+            if (neighbour.getBoard() != this
+                || neighbour.getSquareAt(direction.opposite()) != square) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Determines whether the given <code>x,y</code> position is on this board.
      *
@@ -91,4 +284,199 @@ public class Board {
     public boolean withinBorders(int x, int y) {
         return x >= 0 && x < getWidth() && y >= 0 && y < getHeight();
     }
+
+    /**
+     * Returns the flow field leading to a square of this board. The last few
+     * fields asked for are kept, so every traveller heading for the same
+     * square in between two moves of its target shares a single search.
+     * Fields are kept by their target and the class of the traveller they
+     * were computed for, so travellers of one class must have the same access
+     * to squares. Fields are computed outside the lock on the kept fields;
+     * should two travellers compute the same field at once, the first one
+     * kept is returned to both.
+     *
+     * @param target
+     *            The square to lead to.
+     * @param traveller
+     *            The unit that wants to travel to the target.
+     * @return The flow field leading to the target.
+     */
+    public FlowField flowFieldTowards(Square target, Unit traveller) {
+        FieldKey key = new FieldKey(target, traveller);
+        FlowField field;
+        synchronized (flowFields) {
+            field = flowFields.get(key);
+        }
+        if (field != null) {
+            return field;
+        }
+        FlowField computed = new FlowField(this, target, traveller);
+        synchronized (flowFields) {
+            field = flowFields.putIfAbsent(key, computed);
+        }
+        if (field != null) {
+            return field;
+        }
+        return computed;
+    }
+
+    /**
+     * Returns the table of all shortest paths on this board. The table is
+     * computed (or borrowed from a board with the same layout) the first time
+     * it is asked for.
+     *
+     * @param traveller
+     *            Any unit, to ask the squares about their accessibility.
+     * @return The table of shortest paths, or <code>null</code> if this board
+     *         does not allow for one or it would be too large.
+     * @see PathTable
+     */
+    public synchronized PathTable getPathTable(Unit traveller) {
+        if (!pathTableRequested) {
+            pathTable = PathTable.forBoard(this, traveller);
+            pathTableRequested = true;
+        }
+        return pathTable;
+    }
+
+    /**
+     * Returns the index of the units on this board by their type, which is
+     * kept up to date as units move.
+     *
+     * @return The index of the units on this board.
+     */
+    public UnitIndex getUnits() {
+        return units;
+    }
+
+    /**
+     * Adds an observer that will be notified whenever a unit enters or leaves
+     * a square of this board.
+     *
+     * @param observer
+     *            The observer to be notified.
+     */
+    public void addOccupantObserver(OccupantObserver observer) {
+        assert observer != null;
+        observers.add(observer);
+    }
+
+    /**
+     * Removes an observer if it was listed.
+     *
+     * @param observer
+     *            The observer to be removed.
+     */
+    public void removeOccupantObserver(OccupantObserver observer) {
+        observers.remove(observer);
+    }
+
+    /**
+     * Notifies the observers that a unit entered a square, after adding it to
+     * the index of units.
+     *
+     * @param square
+     *            The square on this board that was entered.
+     * @param unit
+     *            The unit that entered it.
+     */
+    void occupantAdded(Square square, Unit unit) {
+        units.add(square, unit);
+        for (OccupantObserver observer : observers) {
+            observer.occupantAdded(square, unit);
+        }
+    }
+
+    /**
+     * Notifies the observers that a unit left a square, after removing it
+     * from the index of units.
+     *
+     * @param square
+     *            The square on this board that was left.
+     * @param unit
+     *            The unit that left it.
+     */
+    void occupantRemoved(Square square, Unit unit) {
+        units.remove(square, unit);
+        for (OccupantObserver observer : observers) {
+            observer.occupantRemoved(square, unit);
+        }
+    }
+
+    /**
+     * The key of a kept flow field: its target and the class of the traveller
+     * it was computed for.
+     */
+    private static final class FieldKey {
+
+        /**
+         * The square the field leads to.
+         */
+        private final Square target;
+
+        /**
+         * The class of the traveller, or <code>null</code> for fields
+         * computed without one.
+         */
+        private final Class<?> travellerType;
+
+        /**
+         * Creates a new key.
+         *
+         * @param target
+         *            The square the field leads to.
+         * @param traveller
+         *            The traveller the field is computed for, or
+         *            <code>null</code>.
+         */
+        FieldKey(Square target, Unit traveller) {
+            this.target = target;
+            if (traveller == null) {
+                this.travellerType = null;
+            } else {
+                this.travellerType = traveller.getClass();
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof FieldKey)) {
+                return false;
+            }
+            FieldKey that = (FieldKey) other;
+            return target == that.target && travellerType == that.travellerType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(target), travellerType);
+        }
+    }
+
+    /**
+     * An observer that is notified when units enter or leave the squares of a
+     * board. Notifications are delivered on the thread that moved the unit.
+     */
+    public interface OccupantObserver {
+
+        /**
+         * A unit has been added to a square.
+         *
+         * @param square
+         *            The square that was entered.
+         * @param unit
+         *            The unit that entered the square.
+         */
+        void occupantAdded(Square square, Unit unit);
+
+        /**
+         * A unit has been removed from a square.
+         *
+         * @param square
+         *            The square that was left.
+         * @param unit
+         *            The unit that left the square.
+         */
+        void occupantRemoved(Square square, Unit unit);
+    }
 }
@@ -11,6 +11,17 @@ import nl.tudelft.jpacman.sprite.Sprite;
  */
 public class BoardFactory {
 
+    /**
+     * The kind of square in a compact board that can be occupied by any unit.
+     */
+    public static final byte GROUND = 0;
+
+    /**
+     * The kind of square in a compact board that cannot be occupied by any
+     * unit.
+     */
+    public static final byte WALL = 1;
+
     /**
      * The sprite store providing the sprites for the background.
      */
@@ -51,12 +62,63 @@ public class BoardFactory {
                     Square neighbour = grid[dirX][dirY];
                     square.link(neighbour, dir);
                 }
+                square.attach(board, y * width + x);
             }
         }
 
         return board;
     }
 
+    /**
+     * Creates a new compact board, which stores the kinds and neighbours of
+     * its squares in arrays and only creates square objects when asked for
+     * them. Like the squares of other boards, the squares at the edges are
+     * connected to those at the opposite edge.
+     *
+     * @param width
+     *            The number of columns.
+     * @param height
+     *            The number of rows.
+     * @param kinds
+     *            The kind of each square, either {@link #GROUND} or
+     *            {@link #WALL}, with the square at column x, row y at index
+     *            <code>y * width + x</code>.
+     * @return A new compact board.
+     */
+    public Board createCompactBoard(int width, int height, byte[] kinds) {
+        assert kinds.length == width * height;
+        Direction[] directions = Direction.values();
+        int[] neighbours = new int[kinds.length * directions.length];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int base = (y * width + x) * directions.length;
+                for (Direction dir : directions) {
+                    int dirX = (width + x + dir.getDeltaX()) % width;
+                    int dirY = (height + y + dir.getDeltaY()) % height;
+                    neighbours[base + dir.ordinal()] = dirY * width + dirX;
+                }
+            }
+        }
+        Square[] prototypes = {createGround(), createWall()};
+        return new CompactBoard(width, height, kinds.clone(), prototypes, neighbours);
+    }
+
+    /**
+     * Creates a new compact board with the same squares as another, but none
+     * of its units. The boards share the arrays describing their squares,
+     * which never change, so copying takes no time in the size of the board.
+     * Each board creates its own square objects, holding its own units, as
+     * they are asked for.
+     *
+     * @param layout
+     *            A board created by {@link #createCompactBoard(int, int, byte[])}.
+     * @return A new compact board without units.
+     */
+    public Board copyCompactBoard(Board layout) {
+        assert layout instanceof CompactBoard;
+        return ((CompactBoard) layout).emptyCopy();
+    }
+
     /**
      * Creates a new square that can be occupied by any unit.
      *
@@ -102,6 +164,11 @@ public class BoardFactory {
             return false;
         }
 
+        @Override
+        public boolean isUniformlyAccessible() {
+            return true;
+        }
+
         @Override
         public Sprite getSprite() {
             return background;
@@ -135,6 +202,11 @@ public class BoardFactory {
             return true;
         }
 
+        @Override
+        public boolean isUniformlyAccessible() {
+            return true;
+        }
+
         @Override
         public Sprite getSprite() {
             return background;
@@ -0,0 +1,211 @@
+package nl.tudelft.jpacman.board;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import nl.tudelft.jpacman.sprite.Sprite;
+
+/**
+ * A board that stores its squares as arrays rather than as a grid of
+ * objects: the kind of each square in a byte, and the indices of its
+ * neighbours in an int array, four per square. The {@link Square} objects
+ * the rest of the game works with are lightweight views, created the first
+ * time a square is asked for and kept from then on, so each square has a
+ * single view. Only squares that are asked for, such as those holding a
+ * unit, have a view and with it room for occupants. Drawing the board and
+ * building its path table go by index, so they create no views.
+ *
+ * <p>
+ * Each kind of square is described by a prototype: a square that is not on
+ * any board, which answers for all squares of its kind. The behaviour of a
+ * kind must therefore not depend on the position of a square.
+ * </p>
+ */
+final class CompactBoard extends Board {
+
+    /**
+     * The neighbours of views, which look them up in the board instead.
+     */
+    private static final Square[] NO_NEIGHBOURS = new Square[0];
+
+    /**
+     * The kind of each square, as an index into {@link #prototypes}.
+     */
+    private final byte[] kinds;
+
+    /**
+     * The square describing each kind of square.
+     */
+    private final Square[] prototypes;
+
+    /**
+     * The indices of the neighbours of each square, with the neighbour of
+     * square <code>i</code> in direction <code>d</code> at
+     * <code>i * 4 + d.ordinal()</code>.
+     */
+    private final int[] neighbours;
+
+    /**
+     * The views of the squares asked for so far, by index.
+     */
+    private final AtomicReferenceArray<Square> views;
+
+    /**
+     * Creates a new compact board.
+     *
+     * @param width
+     *            The number of columns.
+     * @param height
+     *            The number of rows.
+     * @param kinds
+     *            The kind of each square by its index, referring to the
+     *            prototypes.
+     * @param prototypes
+     *            The square describing each kind of square.
+     * @param neighbours
+     *            The indices of the neighbours of each square, four per square
+     *            in the order of {@link Direction#values()}.
+     */
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    CompactBoard(int width, int height, byte[] kinds, Square[] prototypes, int[] neighbours) {
+        super(width, height);
+        assert kinds.length == width * height;
+        assert neighbours.length == kinds.length * Square.NEIGHBOUR_COUNT;
+        this.kinds = kinds;
+        this.prototypes = prototypes.clone();
+        this.neighbours = neighbours;
+        this.views = new AtomicReferenceArray<>(kinds.length);
+    }
+
+    /**
+     * Creates a board with the same squares as this one, sharing its arrays,
+     * but with none of its square objects and therefore none of its units.
+     *
+     * @return The new board.
+     */
+    CompactBoard emptyCopy() {
+        return new CompactBoard(getWidth(), getHeight(), kinds, prototypes, neighbours);
+    }
+
+    @Override
+    public Square squareAt(int x, int y) {
+        assert withinBorders(x, y);
+        return view(y * getWidth() + x);
+    }
+
+    @Override
+    public Square squareAtIndex(int index) {
+        return view(index);
+    }
+
+    @Override
+    public void getNeighbourIndices(int index, int[] into) {
+        System.arraycopy(neighbours, index * Square.NEIGHBOUR_COUNT, into, 0,
+            Square.NEIGHBOUR_COUNT);
+    }
+
+    @Override
+    public boolean isAccessibleAt(int index, Unit unit) {
+        return prototypeOf(index).isAccessibleTo(unit);
+    }
+
+    @Override
+    public Square findSquare(int index) {
+        return views.get(index);
+    }
+
+    @Override
+    public Sprite getSpriteAt(int index) {
+        return prototypeOf(index).getSprite();
+    }
+
+    @Override
+    boolean isUniformlyAccessibleAt(int index) {
+        return prototypeOf(index).isUniformlyAccessible();
+    }
+
+    @Override
+    boolean linksBack(int index) {
+        int base = index * Square.NEIGHBOUR_COUNT;
+        for (Direction direction : Direction.values()) {
+            int neighbour = neighbours[base + direction.ordinal()];
+            if (neighbours[neighbour * Square.NEIGHBOUR_COUNT
+                + direction.opposite().ordinal()] != index) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the view of a square, creating it if it did not exist yet.
+     *
+     * @param index
+     *            The index of the square.
+     * @return The only view of the square.
+     */
+    private Square view(int index) {
+        Square view = views.get(index);
+        if (view == null) {
+            Square created = new View();
+            created.attach(this, index);
+            if (views.compareAndSet(index, null, created)) {
+                return created;
+            }
+            view = views.get(index);
+        }
+        return view;
+    }
+
+    /**
+     * Returns the square describing a square.
+     *
+     * @param index
+     *            The index of the square.
+     * @return The prototype of the kind of the square.
+     */
+    private Square prototypeOf(int index) {
+        return prototypes[kinds[index]];
+    }
+
+    /**
+     * A square of a compact board, which looks up its kind and neighbours in
+     * the arrays of the board.
+     */
+    private final class View extends Square {
+
+        /**
+         * Creates a new view, to be attached to the board.
+         */
+        View() {
+            super(NO_NEIGHBOURS);
+        }
+
+        @Override
+        public Square getSquareAt(Direction direction) {
+            return view(neighbours[getIndex() * Square.NEIGHBOUR_COUNT + direction.ordinal()]);
+        }
+
+        @Override
+        public void getNeighbours(Square[] into) {
+            int base = getIndex() * Square.NEIGHBOUR_COUNT;
+            for (int i = 0; i < Square.NEIGHBOUR_COUNT; i++) {
+                into[i] = view(neighbours[base + i]);
+            }
+        }
+
+        @Override
+        public boolean isAccessibleTo(Unit unit) {
+            return prototypeOf(getIndex()).isAccessibleTo(unit);
+        }
+
+        @Override
+        public boolean isUniformlyAccessible() {
+            return prototypeOf(getIndex()).isUniformlyAccessible();
+        }
+
+        @Override
+        public Sprite getSprite() {
+            return prototypeOf(getIndex()).getSprite();
+        }
+    }
+}
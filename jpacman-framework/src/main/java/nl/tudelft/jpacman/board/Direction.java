@@ -69,4 +69,20 @@ public enum Direction {
     public int getDeltaY() {
         return deltaY;
     }
+
+    /**
+     * @return The direction pointing the other way.
+     */
+    public Direction opposite() {
+        switch (this) {
+            case NORTH:
+                return SOUTH;
+            case SOUTH:
+                return NORTH;
+            case WEST:
+                return EAST;
+            default:
+                return WEST;
+        }
+    }
 }
@@ -0,0 +1,143 @@
+package nl.tudelft.jpacman.board;
+
+import java.util.Arrays;
+
+/**
+ * The distances from every square of a board to one target square, over the
+ * squares a traveller can occupy. Once computed, a field answers "which way
+ * to the target" for any square in constant time, so all travellers heading
+ * for the same square can share a single search.
+ *
+ * <p>
+ * The field is computed by a breadth first search outwards from the target,
+ * which relies on the links between squares being symmetric, as they are on
+ * boards made by the {@link BoardFactory}. Fields are immutable and can be
+ * queried from any thread.
+ * </p>
+ */
+public final class FlowField {
+
+    /**
+     * The distance of squares from which the target cannot be reached.
+     */
+    public static final int UNREACHABLE = -1;
+
+    /**
+     * The directions to search in, in a fixed order.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The square this field leads to.
+     */
+    private final Square target;
+
+    /**
+     * The number of steps from each square to the target, indexed by square
+     * index, or {@link #UNREACHABLE}.
+     */
+    private final int[] distances;
+
+    /**
+     * Computes a new field.
+     *
+     * @param board
+     *            The board the target is on.
+     * @param target
+     *            The square this field leads to.
+     * @param traveller
+     *            The unit whose access to squares is respected, which stands
+     *            in for all travellers that will query this field.
+     */
+    FlowField(Board board, Square target, Unit traveller) {
+        assert target.getBoard() == board;
+        this.target = target;
+        this.distances = new int[board.getWidth() * board.getHeight()];
+        Arrays.fill(distances, UNREACHABLE);
+        if (target.isAccessibleTo(traveller)) {
+            spread(board, traveller);
+        }
+    }
+
+    /**
+     * Visits every square that can reach the target, nearest first.
+     *
+     * @param board
+     *            The board the target is on.
+     * @param traveller
+     *            The unit whose access to squares is respected.
+     */
+    private void spread(Board board, Unit traveller) {
+        int[] queue = new int[distances.length];
+        int head = 0;
+        int tail = 0;
+        distances[target.getIndex()] = 0;
+        queue[tail++] = target.getIndex();
+        int[] neighbours = new int[Square.NEIGHBOUR_COUNT];
+        while (head < tail) {
+            int id = queue[head++];
+            board.getNeighbourIndices(id, neighbours);
+            for (int next : neighbours) {
+                if (distances[next] == UNREACHABLE && board.isAccessibleAt(next, traveller)) {
+                    distances[next] = distances[id] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The square this field leads to.
+     */
+    public Square getTarget() {
+        return target;
+    }
+
+    /**
+     * Returns the length of the shortest path from a square to the target.
+     * The square itself does not need to be accessible, only the squares
+     * stepped on from there.
+     *
+     * @param square
+     *            The square to start from, on the same board as the target.
+     * @return The number of steps to the target, or {@link #UNREACHABLE}.
+     */
+    public int distanceFrom(Square square) {
+        if (square == target) {
+            return 0;
+        }
+        Direction direction = directionFrom(square);
+        if (direction == null) {
+            return UNREACHABLE;
+        }
+        return distances[square.getSquareAt(direction).getIndex()] + 1;
+    }
+
+    /**
+     * Returns the first step of a shortest path from a square to the target.
+     * When several directions are equally short, the first one in
+     * {@link Direction#values()} order is taken, which is the same step the
+     * first path found by a breadth first search from the square would take.
+     *
+     * @param square
+     *            The square to start from, on the same board as the target.
+     * @return The direction to move in, or <code>null</code> if the square is
+     *         the target or the target cannot be reached from it.
+     */
+    public Direction directionFrom(Square square) {
+        assert square.getBoard() == target.getBoard();
+        if (square == target) {
+            return null;
+        }
+        Direction best = null;
+        int shortest = Integer.MAX_VALUE;
+        for (Direction direction : DIRECTIONS) {
+            int distance = distances[square.getSquareAt(direction).getIndex()];
+            if (distance != UNREACHABLE && distance < shortest) {
+                best = direction;
+                shortest = distance;
+            }
+        }
+        return best;
+    }
+}
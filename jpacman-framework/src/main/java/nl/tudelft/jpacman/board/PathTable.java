@@ -0,0 +1,500 @@
+package nl.tudelft.jpacman.board;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+
+/**
+ * The shortest paths between all pairs of accessible squares of a board,
+ * computed in advance. Finding a path then comes down to following the next
+ * step stored for each square, instead of searching the board.
+ *
+ * <p>
+ * A table can only be made for boards of which every square is
+ * {@link Square#isUniformlyAccessible() uniformly accessible} and linked
+ * symmetrically to its neighbours, so that its paths hold for every
+ * traveller. It takes three bytes for every pair of accessible squares, and
+ * is not made when that would exceed the limit set by the
+ * {@value #LIMIT_PROPERTY} system property (in bytes). Boards with the same
+ * layout, such as boards parsed from the same map, share their table.
+ * </p>
+ *
+ * <p>
+ * Tables are immutable and can be queried from any thread.
+ * </p>
+ */
+public final class PathTable {
+
+    /**
+     * The system property holding the maximum size of a table in bytes.
+     */
+    public static final String LIMIT_PROPERTY = "jpacman.pathTable.maxBytes";
+
+    /**
+     * The maximum size of a table in bytes if the property is not set.
+     */
+    private static final long DEFAULT_LIMIT = 32L * 1024 * 1024;
+
+    /**
+     * The number of bytes needed per pair of squares.
+     */
+    private static final int BYTES_PER_PAIR = 3;
+
+    /**
+     * The number of tables kept around for reuse by other boards.
+     */
+    private static final int TABLES_KEPT = 4;
+
+    /**
+     * The directions in the order they are stored in.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The most recently used tables by their layout, least recent first.
+     */
+    private static final Map<Layout, PathTable> SHARED =
+        new LinkedHashMap<Layout, PathTable>(TABLES_KEPT * 2, 1f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Layout, PathTable> eldest) {
+                return size() > TABLES_KEPT;
+            }
+        };
+
+    /**
+     * The layout of the board(s) this table is for.
+     */
+    private final Layout layout;
+
+    /**
+     * The number of accessible squares.
+     */
+    private final int count;
+
+    /**
+     * The ordinal of the first direction to move in to get from one
+     * accessible square to another, at <code>to * count + from</code>, or
+     * <code>-1</code> if there is no such path.
+     */
+    private final byte[] steps;
+
+    /**
+     * The length of the shortest path from one accessible square to another,
+     * at <code>to * count + from</code>, or <code>-1</code> if there is no
+     * such path.
+     */
+    private final short[] distances;
+
+    /**
+     * Computes a new table.
+     *
+     * @param layout
+     *            The layout of the board to compute the table for.
+     */
+    private PathTable(Layout layout) {
+        this.layout = layout;
+        this.count = layout.count;
+        this.steps = new byte[count * count];
+        this.distances = new short[count * count];
+        int[] queue = new int[count];
+        for (int to = 0; to < count; to++) {
+            fillDistances(to, queue);
+            fillSteps(to);
+        }
+    }
+
+    /**
+     * Creates a table from paths computed before.
+     *
+     * @param layout
+     *            The layout of the board the table is for.
+     * @param steps
+     *            The first steps of the paths.
+     * @param distances
+     *            The lengths of the paths.
+     */
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    private PathTable(Layout layout, byte[] steps, short[] distances) {
+        this.layout = layout;
+        this.count = layout.count;
+        this.steps = steps;
+        this.distances = distances;
+    }
+
+    /**
+     * Returns the table for a board, computing it if no board with the same
+     * layout had one yet. Tables are computed outside the lock on the shared
+     * tables, so boards of another layout do not wait for them; should two
+     * boards of the same layout compute a table at once, the first one
+     * published is kept.
+     *
+     * @param board
+     *            The board to get the table for.
+     * @param traveller
+     *            Any unit, to ask the squares about their accessibility.
+     * @return The table for the board, or <code>null</code> if the board
+     *         does not allow for a table or its table would be too large.
+     */
+    static PathTable forBoard(Board board, Unit traveller) {
+        int count = Layout.countAccessible(board, traveller);
+        if (count < 0 || !fits(count)) {
+            return null;
+        }
+        Layout layout = Layout.of(board, traveller, count);
+        if (layout == null) {
+            return null;
+        }
+        PathTable table;
+        synchronized (SHARED) {
+            table = SHARED.get(layout);
+        }
+        if (table != null) {
+            return table;
+        }
+        PathTable computed = new PathTable(layout);
+        synchronized (SHARED) {
+            table = SHARED.putIfAbsent(layout, computed);
+        }
+        if (table != null) {
+            return table;
+        }
+        return computed;
+    }
+
+    /**
+     * @param count
+     *            The number of accessible squares of a layout.
+     * @return Whether the table of the layout has distances that fit in its
+     *         entries and stays within the size limit of
+     *         {@value #LIMIT_PROPERTY}.
+     */
+    private static boolean fits(int count) {
+        long size = (long) BYTES_PER_PAIR * count * count;
+        return count <= Short.MAX_VALUE && size <= Long.getLong(LIMIT_PROPERTY, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Reads a table written by {@link #writeTo(DataOutput)} for a board. The
+     * table is shared with the boards of the same layout from then on, so it
+     * does not have to be computed for them.
+     *
+     * @param board
+     *            The board the table was written for.
+     * @param traveller
+     *            Any unit, to ask the squares about their accessibility.
+     * @param in
+     *            The buffer to read the table from, which is left positioned
+     *            after it.
+     * @return The table read, or <code>null</code> if the table is too
+     *         large, in which case its bytes are skipped.
+     * @throws PacmanConfigurationException
+     *             If the table was written for a board of another layout.
+     * @throws java.nio.BufferUnderflowException
+     *             If the buffer ends before the table does.
+     */
+    public static PathTable read(Board board, Unit traveller, ByteBuffer in) {
+        int count = in.getInt();
+        if (Layout.countAccessible(board, traveller) != count) {
+            throw new PacmanConfigurationException("The path table does not fit the board");
+        }
+        if (!fits(count)) {
+            long size = (long) BYTES_PER_PAIR * count * count;
+            if (size > in.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            in.position(in.position() + (int) size);
+            return null;
+        }
+        Layout layout = Layout.of(board, traveller, count);
+        if (layout == null) {
+            throw new PacmanConfigurationException("The path table does not fit the board");
+        }
+        byte[] steps = new byte[count * count];
+        in.get(steps);
+        short[] distances = new short[count * count];
+        in.asShortBuffer().get(distances);
+        in.position(in.position() + distances.length * Short.BYTES);
+        PathTable table = new PathTable(layout, steps, distances);
+        synchronized (SHARED) {
+            SHARED.put(layout, table);
+        }
+        return table;
+    }
+
+    /**
+     * Writes this table, to be read back by
+     * {@link #read(Board, Unit, ByteBuffer)} for a board of the same layout.
+     *
+     * @param out
+     *            The output to write to.
+     * @throws IOException
+     *             If the output could not be written.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(count);
+        out.write(steps);
+        for (short distance : distances) {
+            out.writeShort(distance);
+        }
+    }
+
+    /**
+     * Finds the distance from every accessible square to one of them.
+     *
+     * @param to
+     *            The id of the square to find the distances to.
+     * @param queue
+     *            Scratch space for the search, one entry per square.
+     */
+    private void fillDistances(int to, int[] queue) {
+        int row = to * count;
+        Arrays.fill(distances, row, row + count, (short) -1);
+        distances[row + to] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = to;
+        while (head < tail) {
+            int id = queue[head++];
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                int neighbour = layout.neighbours[id * DIRECTIONS.length + d];
+                if (neighbour >= 0 && distances[row + neighbour] < 0) {
+                    distances[row + neighbour] = (short) (distances[row + id] + 1);
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+    }
+
+    /**
+     * Picks the first step from every accessible square to one of them. Of
+     * the equally short paths, the step that comes first in
+     * {@link Direction#values()} is taken, which is the step of the first path
+     * a breadth first search finds.
+     *
+     * @param to
+     *            The id of the square to find the steps towards.
+     */
+    private void fillSteps(int to) {
+        int row = to * count;
+        for (int from = 0; from < count; from++) {
+            steps[row + from] = -1;
+            int next = distances[row + from] - 1;
+            for (int d = 0; next >= 0 && d < DIRECTIONS.length; d++) {
+                int neighbour = layout.neighbours[from * DIRECTIONS.length + d];
+                if (neighbour >= 0 && distances[row + neighbour] == next) {
+                    steps[row + from] = (byte) d;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines whether paths from a square can be looked up in this table.
+     *
+     * @param square
+     *            A square on a board this table is for.
+     * @return <code>true</code> iff the square is accessible.
+     */
+    public boolean covers(Square square) {
+        return layout.ids[square.getIndex()] >= 0;
+    }
+
+    /**
+     * Returns the length of the shortest path between two squares.
+     *
+     * @param from
+     *            The starting square, which must be covered by this table.
+     * @param to
+     *            The destination.
+     * @return The number of steps from one square to the other, or
+     *         <code>-1</code> if the destination cannot be reached.
+     */
+    public int distance(Square from, Square to) {
+        assert covers(from);
+        int target = layout.ids[to.getIndex()];
+        if (target < 0) {
+            return -1;
+        }
+        return distances[target * count + layout.ids[from.getIndex()]];
+    }
+
+    /**
+     * Looks up the shortest path between two squares. This is the same path
+     * as the first one a breadth first search from the starting square finds.
+     *
+     * @param from
+     *            The starting square, which must be covered by this table.
+     * @param to
+     *            The destination.
+     * @return The shortest path to the destination or <code>null</code> if no
+     *         such path exists. When the destination is the starting square,
+     *         an empty list is returned.
+     */
+    public List<Direction> path(Square from, Square to) {
+        int length = distance(from, to);
+        if (length < 0) {
+            return null;
+        }
+        int row = layout.ids[to.getIndex()] * count;
+        int current = layout.ids[from.getIndex()];
+        List<Direction> path = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            int step = steps[row + current];
+            path.add(DIRECTIONS[step]);
+            current = layout.neighbours[current * DIRECTIONS.length + step];
+        }
+        return path;
+    }
+
+    /**
+     * The accessible squares of a board and how they are linked, which is
+     * all a table depends on.
+     */
+    private static final class Layout {
+
+        /**
+         * The width of the board.
+         */
+        private final int width;
+
+        /**
+         * The id of every square by its index, or <code>-1</code> for squares
+         * that are not accessible. Accessible squares are numbered in index
+         * order, starting at 0.
+         */
+        private final int[] ids;
+
+        /**
+         * The number of accessible squares.
+         */
+        private final int count;
+
+        /**
+         * The id of the neighbour of every accessible square, at
+         * <code>id * 4 + direction.ordinal()</code>, or <code>-1</code> if
+         * that neighbour is not accessible.
+         */
+        private final int[] neighbours;
+
+        /**
+         * The hash code, computed once.
+         */
+        private final int hash;
+
+        /**
+         * Creates a new layout.
+         *
+         * @param width
+         *            The width of the board.
+         * @param ids
+         *            The id of every square by its index.
+         * @param count
+         *            The number of accessible squares.
+         * @param neighbours
+         *            The id of the neighbours of every accessible square.
+         */
+        private Layout(int width, int[] ids, int count, int[] neighbours) {
+            this.width = width;
+            this.ids = ids;
+            this.count = count;
+            this.neighbours = neighbours;
+            this.hash = Objects.hash(width, count, Arrays.hashCode(neighbours));
+        }
+
+        /**
+         * Counts the accessible squares of a board, without allocating
+         * anything, so boards whose table is too large are turned down
+         * cheaply.
+         *
+         * @param board
+         *            The board to count the squares of.
+         * @param traveller
+         *            Any unit, to ask the squares about their accessibility.
+         * @return The number of accessible squares, or <code>-1</code> if
+         *         paths on the board may depend on the traveller.
+         */
+        private static int countAccessible(Board board, Unit traveller) {
+            int squares = board.getWidth() * board.getHeight();
+            int count = 0;
+            for (int index = 0; index < squares; index++) {
+                if (!board.isUniformlyAccessibleAt(index)) {
+                    return -1;
+                }
+                if (board.isAccessibleAt(index, traveller)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Takes the layout of a board.
+         *
+         * @param board
+         *            The board to take the layout of, which only has
+         *            uniformly accessible squares.
+         * @param traveller
+         *            Any unit, to ask the squares about their accessibility.
+         * @param count
+         *            The number of accessible squares, as counted by
+         *            {@link #countAccessible(Board, Unit)}.
+         * @return The layout of the board, or <code>null</code> if paths on
+         *         the board may depend on the traveller.
+         */
+        private static Layout of(Board board, Unit traveller, int count) {
+            int width = board.getWidth();
+            int[] ids = new int[width * board.getHeight()];
+            int next = 0;
+            for (int index = 0; index < ids.length; index++) {
+                ids[index] = -1;
+                if (board.isAccessibleAt(index, traveller)) {
+                    ids[index] = next++;
+                }
+            }
+            assert next == count;
+            int[] neighbours = new int[count * DIRECTIONS.length];
+            int[] adjacent = new int[DIRECTIONS.length];
+            for (int index = 0; index < ids.length; index++) {
+                if (ids[index] < 0) {
+                    continue;
+                }
+                if (!board.linksBack(index)) {
+                    return null;
+                }
+                board.getNeighbourIndices(index, adjacent);
+                for (int d = 0; d < DIRECTIONS.length; d++) {
+                    neighbours[ids[index] * DIRECTIONS.length + d] = ids[adjacent[d]];
+                }
+            }
+            return new Layout(width, ids, count, neighbours);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Layout)) {
+                return false;
+            }
+            Layout that = (Layout) other;
+            return width == that.width && count == that.count
+                && Arrays.equals(ids, that.ids)
+                && Arrays.equals(neighbours, that.neighbours);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package nl.tudelft.jpacman.board;
 
-import java.util.ArrayList;
-import java.util.EnumMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 import com.google.common.collect.ImmutableList;
 
@@ -11,27 +9,78 @@ import nl.tudelft.jpacman.sprite.Sprite;
 /**
  * A square on a {@link Board}, which can (or cannot, depending on the type) be
  * occupied by units.
+ * <p>
+ * Occupants can be read without copying through {@link #getOccupantCount()}
+ * and {@link #getOccupant(int)}. A square is not synchronised: units are
+ * expected to enter and leave it from one thread at a time, which for a level
+ * in play is guaranteed by the level's move lock. Readers holding that lock
+ * (or running on the thread that moves the units) see a consistent view.
+ * Other readers, such as the renderer, may read concurrently but then see a
+ * best-effort view: an occupant may be missed, seen twice or read as
+ * <code>null</code> while a move is in flight. Those readers must tolerate
+ * this, or use {@link #getOccupants()}, which returns a copy.
  *
  * @author Jeroen Roosen 
  */
 public abstract class Square {
 
     /**
-     * The units occupying this square, in order of appearance.
+     * Shared storage for squares that never had an occupant.
      */
-    private final List<Unit> occupants;
+    private static final Unit[] NO_OCCUPANTS = new Unit[0];
 
     /**
-     * The collection of squares adjacent to this square.
+     * The units occupying this square, in order of appearance. Only the first
+     * {@link #occupantCount} entries are in use.
      */
-    private final Map<Direction, Square> neighbours;
+    private Unit[] occupants;
+
+    /**
+     * The number of units occupying this square.
+     */
+    private volatile int occupantCount;
+
+    /**
+     * The number of neighbours of a square, one in each direction.
+     */
+    public static final int NEIGHBOUR_COUNT = Direction.values().length;
+
+    /**
+     * The squares adjacent to this square, indexed by the ordinal of the
+     * direction they are in.
+     */
+    private final Square[] neighbours;
+
+    /**
+     * The board this square is part of, or <code>null</code> if it has not
+     * been placed on a board yet.
+     */
+    private Board board;
+
+    /**
+     * The index of this square on its board, or <code>-1</code> if it has not
+     * been placed on a board yet.
+     */
+    private int index = -1;
 
     /**
      * Creates a new, empty square.
      */
     protected Square() {
-        this.occupants = new ArrayList<>();
-        this.neighbours = new EnumMap<>(Direction.class);
+        this(new Square[NEIGHBOUR_COUNT]);
+    }
+
+    /**
+     * Creates a new, empty square storing its neighbours in the given array.
+     * Squares that look up their neighbours elsewhere pass an empty array.
+     *
+     * @param neighbourStorage
+     *            The array to store the neighbours in.
+     */
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    Square(Square[] neighbourStorage) {
+        this.occupants = NO_OCCUPANTS;
+        this.neighbours = neighbourStorage;
         assert invariant();
     }
 
@@ -43,23 +92,94 @@ public abstract class Square {
      * @return The adjacent square in the given direction.
      */
     public Square getSquareAt(Direction direction) {
-        return neighbours.get(direction);
+        return neighbours[direction.ordinal()];
+    }
+
+    /**
+     * Copies the squares adjacent to this square into an array, in the order
+     * of {@link Direction#values()}, so that the neighbour in direction
+     * <code>d</code> ends up at <code>d.ordinal()</code>. Lets searches visit
+     * all neighbours without a lookup per direction.
+     *
+     * @param into
+     *            The array to copy the neighbours into, of at least
+     *            {@link #NEIGHBOUR_COUNT} elements.
+     */
+    public void getNeighbours(Square[] into) {
+        assert into.length >= NEIGHBOUR_COUNT;
+        System.arraycopy(neighbours, 0, into, 0, NEIGHBOUR_COUNT);
+    }
+
+    /**
+     * Looks up the indices of the squares adjacent to this square, in the
+     * order of {@link Direction#values()}.
+     *
+     * @param into
+     *            The array to store the indices in, of at least
+     *            {@link #NEIGHBOUR_COUNT} elements.
+     */
+    void getNeighbourIndices(int[] into) {
+        assert into.length >= NEIGHBOUR_COUNT;
+        for (int i = 0; i < NEIGHBOUR_COUNT; i++) {
+            into[i] = neighbours[i].getIndex();
+        }
     }
 
     /**
      * Links this square to a neighbour in the given direction. Note that this
-     * is a one-way connection.
+     * is a one-way connection. Done by the {@link BoardFactory} while building
+     * a grid of squares; the neighbours of a square are fixed from then on.
      *
      * @param neighbour
      *            The neighbour to link.
      * @param direction
      *            The direction the new neighbour is in, as seen from this cell.
      */
-    public void link(Square neighbour, Direction direction) {
-        neighbours.put(direction, neighbour);
+    void link(Square neighbour, Direction direction) {
+        neighbours[direction.ordinal()] = neighbour;
         assert invariant();
     }
 
+    /**
+     * Places this square on a board. Done once, by the {@link BoardFactory}.
+     * Units already on this square are added to the index of the board.
+     *
+     * @param owner
+     *            The board this square is part of.
+     * @param squareIndex
+     *            The index of this square on the board.
+     */
+    void attach(Board owner, int squareIndex) {
+        assert board == null;
+        this.board = owner;
+        this.index = squareIndex;
+        for (int i = 0; i < occupantCount; i++) {
+            owner.getUnits().add(this, occupants[i]);
+        }
+    }
+
+    /**
+     * Returns the index of this square on its board. For a square at column x,
+     * row y the index is <code>y * width + x</code>, so the indices of a board
+     * run from 0 up to (but excluding) its width times its height.
+     *
+     * @return The index of this square, or <code>-1</code> if it is not on a
+     *         board.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the board this square is part of.
+     *
+     * @return The board this square is on, or <code>null</code> if it is not
+     *         on a board.
+     */
+    public Board getBoard() {
+        return board;
+    }
+
     /**
      * Returns an immutable list of units occupying this square, in the order in
      * which they occupied this square (i.e. oldest first.)
@@ -68,7 +188,70 @@ public abstract class Square {
      *         which they occupied this square (i.e. oldest first.)
      */
     public List<Unit> getOccupants() {
-        return ImmutableList.copyOf(occupants);
+        Unit[] units = occupants;
+        int count = Math.min(occupantCount, units.length);
+        ImmutableList.Builder<Unit> copy = ImmutableList.builder();
+        for (int i = 0; i < count; i++) {
+            if (units[i] != null) {
+                copy.add(units[i]);
+            }
+        }
+        return copy.build();
+    }
+
+    /**
+     * Returns the number of units occupying this square.
+     *
+     * @return The number of units occupying this square.
+     */
+    public int getOccupantCount() {
+        return occupantCount;
+    }
+
+    /**
+     * Returns one of the units occupying this square, without copying the
+     * occupants. The oldest occupant has index 0.
+     *
+     * Precondition: <code>0 &lt;= index &lt; getOccupantCount()</code>.
+     *
+     * @param index
+     *            The position of the occupant, in order of appearance.
+     * @return The occupant at the given position. See the class documentation
+     *         for when this may be <code>null</code>.
+     */
+    public Unit getOccupant(int index) {
+        assert index >= 0;
+        return occupants[index];
+    }
+
+    /**
+     * Returns whether the unit is one of the occupants of this square.
+     *
+     * @param unit
+     *            The unit to look for.
+     * @return <code>true</code> iff the unit occupies this square.
+     */
+    public boolean hasOccupant(Unit unit) {
+        return indexOf(unit) >= 0;
+    }
+
+    /**
+     * Returns the position of the unit among the occupants.
+     *
+     * @param unit
+     *            The unit to look for.
+     * @return The position of the unit, or <code>-1</code> if it does not
+     *         occupy this square.
+     */
+    private int indexOf(Unit unit) {
+        Unit[] units = occupants;
+        int count = Math.min(occupantCount, units.length);
+        for (int i = 0; i < count; i++) {
+            if (units[i] == unit) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -79,9 +262,17 @@ public abstract class Square {
      */
     void put(Unit occupant) {
         assert occupant != null;
-        assert !occupants.contains(occupant);
+        assert !hasOccupant(occupant);
 
-        occupants.add(occupant);
+        int count = occupantCount;
+        if (count == occupants.length) {
+            occupants = Arrays.copyOf(occupants, Math.max(2, count * 2));
+        }
+        occupants[count] = occupant;
+        occupantCount = count + 1;
+        if (board != null) {
+            board.occupantAdded(this, occupant);
+        }
     }
 
     /**
@@ -92,7 +283,17 @@ public abstract class Square {
      */
     void remove(Unit occupant) {
         assert occupant != null;
-        occupants.remove(occupant);
+        int position = indexOf(occupant);
+        if (position < 0) {
+            return;
+        }
+        int count = occupantCount - 1;
+        System.arraycopy(occupants, position + 1, occupants, position, count - position);
+        occupantCount = count;
+        occupants[count] = null;
+        if (board != null) {
+            board.occupantRemoved(this, occupant);
+        }
     }
 
     /**
@@ -103,7 +304,8 @@ public abstract class Square {
      *         square listed as the square they are currently occupying.
      */
     protected final boolean invariant(Square this) {
-        for (Unit occupant : occupants) {
+        for (int i = 0; i < occupantCount; i++) {
+            Unit occupant = occupants[i];
             if (occupant.hasSquare() && occupant.getSquare() != this) {
                 return false;
             }
@@ -120,6 +322,18 @@ public abstract class Square {
      */
     public abstract boolean isAccessibleTo(Unit unit);
 
+    /**
+     * Determines whether {@link #isAccessibleTo(Unit)} gives the same answer
+     * for every unit. Routes over squares that are all uniformly accessible
+     * hold for any traveller, which allows them to be computed in advance.
+     *
+     * @return <code>true</code> iff the accessibility of this square does not
+     *         depend on the unit. By default, <code>false</code>.
+     */
+    public boolean isUniformlyAccessible() {
+        return false;
+    }
+
     /**
      * Returns the sprite of this square.
      *
@@ -0,0 +1,256 @@
+package nl.tudelft.jpacman.board;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps track of where the units on a board are, by their type, so finding
+ * the units of a type does not take a scan of the whole board. The index is
+ * kept up to date by the squares of the board as units enter and leave them.
+ * For each type of unit it holds a bit per square, as
+ * {@link nl.tudelft.jpacman.level.Level} does for its pellets, so it takes
+ * memory in the size of the board rather than in the number of units.
+ *
+ * <p>
+ * Like the board, the index has a single writer: it is updated and should be
+ * queried by the thread moving the units.
+ * </p>
+ */
+public final class UnitIndex {
+
+    /**
+     * The board the units are on.
+     */
+    private final Board board;
+
+    /**
+     * The squares of the units on the board, by the class of the unit.
+     */
+    private final Map<Class<? extends Unit>, Positions> positions = new HashMap<>();
+
+    /**
+     * Creates a new, empty index.
+     *
+     * @param board
+     *            The board the units are on.
+     */
+    public UnitIndex(Board board) {
+        assert board != null;
+        this.board = board;
+    }
+
+    /**
+     * Registers a unit that entered a square.
+     *
+     * @param square
+     *            The square that was entered.
+     * @param unit
+     *            The unit that entered it.
+     */
+    void add(Square square, Unit unit) {
+        positions.computeIfAbsent(unit.getClass(), type -> new Positions())
+            .add(square.getIndex());
+    }
+
+    /**
+     * Forgets a unit that left a square.
+     *
+     * @param square
+     *            The square that was left.
+     * @param unit
+     *            The unit that left it.
+     */
+    void remove(Square square, Unit unit) {
+        Positions units = positions.get(unit.getClass());
+        if (units != null) {
+            units.remove(square.getIndex());
+        }
+    }
+
+    /**
+     * Counts the units of a type on the board.
+     *
+     * @param type
+     *            The type of unit to count, including its subtypes.
+     * @return The number of units of the type on the board.
+     */
+    public int count(Class<? extends Unit> type) {
+        int count = 0;
+        for (Map.Entry<Class<? extends Unit>, Positions> entry : positions.entrySet()) {
+            if (type.isAssignableFrom(entry.getKey())) {
+                count += entry.getValue().size;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lists the squares holding a unit of a type. A square holding several
+     * such units is listed once for each of them.
+     *
+     * @param type
+     *            The type of unit to look for, including its subtypes.
+     * @return The squares the units of the type are on.
+     */
+    public List<Square> squaresOf(Class<? extends Unit> type) {
+        List<Square> squares = new ArrayList<>();
+        for (Map.Entry<Class<? extends Unit>, Positions> entry : positions.entrySet()) {
+            if (type.isAssignableFrom(entry.getKey())) {
+                entry.getValue().addSquares(board, squares);
+            }
+        }
+        return squares;
+    }
+
+    /**
+     * Finds the first square holding a unit of a type, going row by row from
+     * the top left of the board.
+     *
+     * @param type
+     *            The type of unit to look for, including its subtypes.
+     * @return The square with the lowest index holding a unit of the type, or
+     *         <code>null</code> if there is no such unit on the board.
+     */
+    public Square firstSquareOf(Class<? extends Unit> type) {
+        int first = Integer.MAX_VALUE;
+        for (Map.Entry<Class<? extends Unit>, Positions> entry : positions.entrySet()) {
+            if (type.isAssignableFrom(entry.getKey())) {
+                int index = entry.getValue().first();
+                if (index >= 0) {
+                    first = Math.min(first, index);
+                }
+            }
+        }
+        if (first == Integer.MAX_VALUE) {
+            return null;
+        }
+        return board.squareAtIndex(first);
+    }
+
+    /**
+     * The squares holding the units of one class, as a bit per square index.
+     */
+    private static final class Positions {
+
+        /**
+         * The squares holding at least one unit, with the bit
+         * <code>1L &lt;&lt; index</code> of word <code>index / 64</code> set
+         * for the square with that index.
+         */
+        private long[] bits = new long[1];
+
+        /**
+         * The number of units beyond the first on squares holding several,
+         * by the index of the square, or <code>null</code> if no square ever
+         * held several.
+         */
+        private Map<Integer, Integer> stacked;
+
+        /**
+         * The number of units.
+         */
+        private int size;
+
+        /**
+         * A word at or before the first word with a bit set.
+         */
+        private int firstWord;
+
+        /**
+         * Adds a unit.
+         *
+         * @param index
+         *            The index of its square.
+         */
+        void add(int index) {
+            int word = index / Long.SIZE;
+            if (word >= bits.length) {
+                bits = Arrays.copyOf(bits, Math.max(word + 1, bits.length * 2));
+            }
+            long bit = 1L << index;
+            if ((bits[word] & bit) == 0L) {
+                bits[word] |= bit;
+                firstWord = Math.min(firstWord, word);
+            } else {
+                if (stacked == null) {
+                    stacked = new HashMap<>();
+                }
+                stacked.merge(index, 1, Integer::sum);
+            }
+            size++;
+        }
+
+        /**
+         * Removes a unit.
+         *
+         * @param index
+         *            The index of its square.
+         */
+        void remove(int index) {
+            int word = index / Long.SIZE;
+            long bit = 1L << index;
+            if (word >= bits.length || (bits[word] & bit) == 0L) {
+                return;
+            }
+            size--;
+            if (stacked != null && stacked.containsKey(index)) {
+                stacked.computeIfPresent(index, (square, extra) -> lessOne(extra));
+            } else {
+                bits[word] &= ~bit;
+            }
+        }
+
+        /**
+         * @param extra
+         *            A number of units beyond the first on a square.
+         * @return The number minus one, or <code>null</code> if that leaves
+         *         none.
+         */
+        private static Integer lessOne(int extra) {
+            if (extra == 1) {
+                return null;
+            }
+            return extra - 1;
+        }
+
+        /**
+         * @return The lowest index of a square holding a unit, or
+         *         <code>-1</code> if there are none.
+         */
+        int first() {
+            while (firstWord < bits.length && bits[firstWord] == 0L) {
+                firstWord++;
+            }
+            if (firstWord == bits.length) {
+                return -1;
+            }
+            return firstWord * Long.SIZE + Long.numberOfTrailingZeros(bits[firstWord]);
+        }
+
+        /**
+         * Lists the squares of the units, once for each unit.
+         *
+         * @param board
+         *            The board of the squares.
+         * @param squares
+         *            The list the squares are added to.
+         */
+        void addSquares(Board board, List<Square> squares) {
+            for (int word = 0; word < bits.length; word++) {
+                long remaining = bits[word];
+                while (remaining != 0L) {
+                    int index = word * Long.SIZE + Long.numberOfTrailingZeros(remaining);
+                    Square square = board.squareAtIndex(index);
+                    squares.add(square);
+                    for (int i = 0; stacked != null && i < stacked.getOrDefault(index, 0); i++) {
+                        squares.add(square);
+                    }
+                    remaining &= remaining - 1;
+                }
+            }
+        }
+    }
+}
@@ -119,6 +119,17 @@ public abstract class Game implements LevelObserver {
         }
     }
 
+    /**
+     * Advances the current level by one tick if the game is in progress.
+     *
+     * @see Level#step()
+     */
+    public void step() {
+        if (isInProgress()) {
+            getLevel().step();
+        }
+    }
+
     @Override
     public void levelWon() {
         stop();
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import nl.tudelft.jpacman.board.Unit;
 
@@ -15,17 +16,31 @@ import nl.tudelft.jpacman.board.Unit;
  */
 public class CollisionInteractionMap implements CollisionMap {
 
+    /**
+     * The handler resolved for pairs of classes that have no handler listed.
+     */
+    private static final CollisionHandler<Unit, Unit> NO_HANDLER = (collider, collidee) -> {
+    };
+
     /**
      * The collection of collision handlers.
      */
     private final Map<Class<? extends Unit>,
         Map<Class<? extends Unit>, CollisionHandler<?, ?>>> handlers;
 
+    /**
+     * The handlers resolved so far, by the actual classes of the collider and
+     * collidee, or {@link #NO_HANDLER}. Cleared whenever a handler is added.
+     */
+    private final Map<Class<? extends Unit>,
+        Map<Class<? extends Unit>, CollisionHandler<?, ?>>> resolved;
+
     /**
      * Creates a new, empty collision map.
      */
     public CollisionInteractionMap() {
         this.handlers = new HashMap<>();
+        this.resolved = new ConcurrentHashMap<>();
     }
 
     /**
@@ -95,6 +110,7 @@ public class CollisionInteractionMap implements CollisionMap {
 
         Map<Class<? extends Unit>, CollisionHandler<?, ?>> map = handlers.get(collider);
         map.put(collidee, handler);
+        resolved.clear();
     }
 
     /**
@@ -115,23 +131,62 @@ public class CollisionInteractionMap implements CollisionMap {
     @Override
     public <C1 extends Unit, C2 extends Unit> void collide(C1 collider,
                                                            C2 collidee) {
+        CollisionHandler<C1, C2> collisionHandler =
+            (CollisionHandler<C1, C2>) resolve(collider.getClass(), collidee.getClass());
+        collisionHandler.handleCollision(collider, collidee);
+    }
 
-        Class<? extends Unit> colliderKey = getMostSpecificClass(handlers, collider.getClass());
+    /**
+     * Returns the handler for collisions between units of two classes,
+     * looking it up the first time these classes collide.
+     *
+     * @param collider
+     *            The class of the collider.
+     * @param collidee
+     *            The class of the collidee.
+     * @return The handler to use, or {@link #NO_HANDLER} if there is none.
+     */
+    private CollisionHandler<?, ?> resolve(Class<? extends Unit> collider,
+                                           Class<? extends Unit> collidee) {
+        Map<Class<? extends Unit>, CollisionHandler<?, ?>> row = resolved.get(collider);
+        if (row == null) {
+            row = new ConcurrentHashMap<>();
+            Map<Class<? extends Unit>, CollisionHandler<?, ?>> raced =
+                resolved.putIfAbsent(collider, row);
+            if (raced != null) {
+                row = raced;
+            }
+        }
+        CollisionHandler<?, ?> collisionHandler = row.get(collidee);
+        if (collisionHandler == null) {
+            collisionHandler = lookup(collider, collidee);
+            row.put(collidee, collisionHandler);
+        }
+        return collisionHandler;
+    }
+
+    /**
+     * Finds the handler listed for the most specific classes of two units.
+     *
+     * @param collider
+     *            The class of the collider.
+     * @param collidee
+     *            The class of the collidee.
+     * @return The handler to use, or {@link #NO_HANDLER} if there is none.
+     */
+    private CollisionHandler<?, ?> lookup(Class<? extends Unit> collider,
+                                          Class<? extends Unit> collidee) {
+        Class<? extends Unit> colliderKey = getMostSpecificClass(handlers, collider);
         if (colliderKey == null) {
-            return;
+            return NO_HANDLER;
         }
 
         Map<Class<? extends Unit>, CollisionHandler<?, ?>> map = handlers.get(colliderKey);
-        Class<? extends Unit> collideeKey = getMostSpecificClass(map, collidee.getClass());
+        Class<? extends Unit> collideeKey = getMostSpecificClass(map, collidee);
         if (collideeKey == null) {
-            return;
+            return NO_HANDLER;
         }
-
-        CollisionHandler<C1, C2> collisionHandler = (CollisionHandler<C1, C2>) map.get(collideeKey);
-        if (collisionHandler == null) {
-            return;
-        }
-        collisionHandler.handleCollision(collider, collidee);
+        return map.get(collideeKey);
     }
 
     /**
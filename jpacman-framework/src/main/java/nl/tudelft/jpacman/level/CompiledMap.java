@@ -0,0 +1,412 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.BoardFactory;
+
+/**
+ * A map in the binary format written by {@link MapCompiler}, which loads
+ * without parsing text. All numbers are big-endian.
+ *
+ * <ol>
+ * <li>The header: the {@link #MAGIC} number and the {@link #VERSION} of the
+ * format, as a byte.
+ * <li>The width and height of the map, as ints.
+ * <li>The kinds of the squares as known by the {@link BoardFactory}, row by
+ * row from the top left, in runs of the same kind. Each run is a varint
+ * holding the length of the run shifted left by one bit, with the kind in the
+ * lowest bit.
+ * <li>The spawn lists of the pellets, the ghosts and the player start
+ * squares. Each is a varint count followed by the positions
+ * <code>x * height + y</code> in ascending order, as varint differences from
+ * the previous position (or from 0 for the first one). Units are thus listed
+ * column by column, the order in which {@link MapParser} creates them.
+ * </ol>
+ *
+ * <p>
+ * Varints hold seven bits per byte, least significant first, with the high
+ * bit set on all but the last byte. Whatever follows the spawn lists, such as
+ * precomputed paths, is up to the reader.
+ * </p>
+ */
+final class CompiledMap {
+
+    /**
+     * The first four bytes of a compiled map: "JPMC".
+     */
+    static final int MAGIC = 0x4A504D43;
+
+    /**
+     * The version of the format.
+     */
+    static final byte VERSION = 1;
+
+    /**
+     * The characters of the units in a text map, in the order of their
+     * spawn lists.
+     */
+    private static final String UNITS = ".GP";
+
+    /**
+     * The number of bits of a run of squares holding their kind.
+     */
+    private static final int KIND_BITS = 1;
+
+    /**
+     * The bits of a varint byte holding the number.
+     */
+    private static final int VARINT_BITS = 0x7F;
+
+    /**
+     * The bit of a varint byte marking that more bytes follow.
+     */
+    private static final int VARINT_MORE = 0x80;
+
+    /**
+     * The number of bits of the number in a varint byte.
+     */
+    private static final int VARINT_SHIFT = 7;
+
+    /**
+     * The number of columns.
+     */
+    private final int width;
+
+    /**
+     * The number of rows.
+     */
+    private final int height;
+
+    /**
+     * The kind of each square, at <code>y * width + x</code>.
+     */
+    private final byte[] kinds;
+
+    /**
+     * The positions of the pellets, the ghosts and the start squares, in
+     * that order.
+     */
+    private final int[][] spawns;
+
+    /**
+     * Creates a new compiled map.
+     *
+     * @param width
+     *            The number of columns.
+     * @param height
+     *            The number of rows.
+     * @param kinds
+     *            The kind of each square by its index.
+     * @param spawns
+     *            The positions of the pellets, the ghosts and the start
+     *            squares, as <code>x * height + y</code> in ascending order.
+     */
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    private CompiledMap(int width, int height, byte[] kinds, int[][] spawns) {
+        this.width = width;
+        this.height = height;
+        this.kinds = kinds;
+        this.spawns = spawns;
+    }
+
+    /**
+     * Compiles a map.
+     *
+     * @param map
+     *            The map, with map[x][y] representing the square at position
+     *            x,y, using the characters read by {@link MapParser}.
+     * @return The compiled map.
+     * @throws PacmanConfigurationException
+     *             If the map holds an invalid character.
+     */
+    static CompiledMap of(char[][] map) {
+        int width = map.length;
+        int height = map[0].length;
+        byte[] kinds = new byte[width * height];
+        int[][] spawns = new int[UNITS.length()][0];
+        int[] counts = new int[UNITS.length()];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                char c = map[x][y];
+                int unit = UNITS.indexOf(c);
+                if (unit >= 0) {
+                    spawns[unit] = grow(spawns[unit], counts[unit]);
+                    spawns[unit][counts[unit]++] = x * height + y;
+                } else if (c != ' ' && c != '#') {
+                    throw new PacmanConfigurationException("Invalid character at "
+                        + x + "," + y + ": " + c);
+                }
+                kinds[y * width + x] = BoardFactory.GROUND;
+                if (c == '#') {
+                    kinds[y * width + x] = BoardFactory.WALL;
+                }
+            }
+        }
+        for (int unit = 0; unit < spawns.length; unit++) {
+            spawns[unit] = Arrays.copyOf(spawns[unit], counts[unit]);
+        }
+        return new CompiledMap(width, height, kinds, spawns);
+    }
+
+    /**
+     * @param values
+     *            An array.
+     * @param size
+     *            The number of values in use.
+     * @return The array, or a larger copy if it is full.
+     */
+    private static int[] grow(int[] values, int size) {
+        if (size < values.length) {
+            return values;
+        }
+        return Arrays.copyOf(values, Math.max(1, size * 2));
+    }
+
+    /**
+     * Determines whether data is a compiled map.
+     *
+     * @param header
+     *            The first bytes of the data.
+     * @return <code>true</code> iff the data starts with the magic number.
+     */
+    static boolean isCompiled(ByteBuffer header) {
+        return header.remaining() >= Integer.BYTES
+            && header.getInt(header.position()) == MAGIC;
+    }
+
+    /**
+     * @return The number of columns.
+     */
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The number of rows.
+     */
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return The kind of each square, at <code>y * width + x</code>. The
+     *         array is not copied.
+     */
+    byte[] getKinds() {
+        return kinds;
+    }
+
+    /**
+     * Lists where units of a type spawn.
+     *
+     * @param unit
+     *            The character of the unit in a text map: '.', 'G' or 'P'.
+     * @return The positions <code>x * height + y</code> of the units, in
+     *         ascending order. The array is not copied.
+     */
+    int[] spawnsOf(char unit) {
+        return spawns[UNITS.indexOf(unit)];
+    }
+
+    /**
+     * Turns this map back into text.
+     *
+     * @return The map, with map[x][y] representing the square at position
+     *         x,y.
+     */
+    char[][] toChars() {
+        char[][] map = new char[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                map[x][y] = ' ';
+                if (kinds[y * width + x] == BoardFactory.WALL) {
+                    map[x][y] = '#';
+                }
+            }
+        }
+        for (char unit : UNITS.toCharArray()) {
+            for (int position : spawnsOf(unit)) {
+                map[position / height][position % height] = unit;
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Writes this map.
+     *
+     * @param out
+     *            The output to write to.
+     * @throws IOException
+     *             If the output could not be written.
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(width);
+        out.writeInt(height);
+        int start = 0;
+        while (start < kinds.length) {
+            int end = start + 1;
+            while (end < kinds.length && kinds[end] == kinds[start]) {
+                end++;
+            }
+            writeVarint(out, (end - start) << KIND_BITS | kinds[start]);
+            start = end;
+        }
+        for (int[] positions : spawns) {
+            writeVarint(out, positions.length);
+            int previous = 0;
+            for (int position : positions) {
+                writeVarint(out, position - previous);
+                previous = position;
+            }
+        }
+    }
+
+    /**
+     * Reads a map, leaving the buffer positioned after the spawn lists.
+     *
+     * @param in
+     *            The buffer to read from, positioned at the magic number.
+     * @return The map read.
+     * @throws PacmanConfigurationException
+     *             If the data is not a valid compiled map.
+     * @throws java.nio.BufferUnderflowException
+     *             If the data ends before the map does.
+     */
+    static CompiledMap read(ByteBuffer in) {
+        if (in.getInt() != MAGIC || in.get() != VERSION) {
+            throw new PacmanConfigurationException("Not a compiled map of version " + VERSION);
+        }
+        int width = in.getInt();
+        int height = in.getInt();
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new PacmanConfigurationException("Invalid map size: " + width + "x" + height);
+        }
+        byte[] kinds = readKinds(in, width * height);
+        int[][] spawns = new int[UNITS.length()][];
+        for (int unit = 0; unit < spawns.length; unit++) {
+            spawns[unit] = readPositions(in, kinds, width);
+        }
+        return new CompiledMap(width, height, kinds, spawns);
+    }
+
+    /**
+     * Reads the runs of square kinds.
+     *
+     * @param in
+     *            The buffer to read from.
+     * @param squares
+     *            The number of squares of the map.
+     * @return The kind of each square.
+     */
+    private static byte[] readKinds(ByteBuffer in, int squares) {
+        byte[] kinds = new byte[squares];
+        int start = 0;
+        while (start < squares) {
+            int value = readVarint(in);
+            byte kind = (byte) (value & (1 << KIND_BITS) - 1);
+            int run = value >>> KIND_BITS;
+            if (run <= 0 || run > squares - start) {
+                throw new PacmanConfigurationException("Invalid run of squares at " + start);
+            }
+            Arrays.fill(kinds, start, start + run, kind);
+            start += run;
+        }
+        return kinds;
+    }
+
+    /**
+     * Reads a spawn list.
+     *
+     * @param in
+     *            The buffer to read from.
+     * @param kinds
+     *            The kind of each square of the map, at
+     *            <code>y * width + x</code>.
+     * @param width
+     *            The number of columns of the map.
+     * @return The positions in the list.
+     * @throws PacmanConfigurationException
+     *             If the positions are not ascending, or not on ground
+     *             squares of the map.
+     */
+    private static int[] readPositions(ByteBuffer in, byte[] kinds, int width) {
+        int squares = kinds.length;
+        int height = squares / width;
+        int count = readVarint(in);
+        if (count > squares) {
+            throw new PacmanConfigurationException("Too many units: " + count);
+        }
+        int[] positions = new int[count];
+        long position = 0L;
+        for (int i = 0; i < count; i++) {
+            int step = readVarint(in);
+            if (step == 0 && i > 0) {
+                throw new PacmanConfigurationException("Units not in ascending order");
+            }
+            position += step;
+            if (position >= squares) {
+                throw new PacmanConfigurationException("Unit off the map: " + position);
+            }
+            positions[i] = (int) position;
+            int x = positions[i] / height;
+            int y = positions[i] % height;
+            if (kinds[y * width + x] != BoardFactory.GROUND) {
+                throw new PacmanConfigurationException("Unit on a wall at " + x + "," + y);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Writes a non-negative number as a varint.
+     *
+     * @param out
+     *            The output to write to.
+     * @param value
+     *            The number to write.
+     * @throws IOException
+     *             If the output could not be written.
+     */
+    private static void writeVarint(DataOutput out, int value) throws IOException {
+        int rest = value;
+        while ((rest & ~VARINT_BITS) != 0) {
+            out.writeByte(rest & VARINT_BITS | VARINT_MORE);
+            rest >>>= VARINT_SHIFT;
+        }
+        out.writeByte(rest);
+    }
+
+    /**
+     * Reads a non-negative number written as a varint.
+     *
+     * @param in
+     *            The buffer to read from.
+     * @return The number read.
+     * @throws PacmanConfigurationException
+     *             If the number does not fit in a non-negative int.
+     */
+    private static int readVarint(ByteBuffer in) {
+        long value = 0L;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift >= Integer.SIZE) {
+                throw new PacmanConfigurationException("Invalid varint");
+            }
+            b = in.get();
+            value |= (long) (b & VARINT_BITS) << shift;
+            shift += VARINT_SHIFT;
+        } while ((b & VARINT_MORE) != 0);
+        if (value > Integer.MAX_VALUE) {
+            throw new PacmanConfigurationException("Varint out of range: " + value);
+        }
+        return (int) value;
+    }
+}
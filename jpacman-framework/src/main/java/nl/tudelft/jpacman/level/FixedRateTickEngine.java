@@ -0,0 +1,122 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A tick engine that advances all its participants from one daemon thread at
+ * a fixed rate. Ticking starts when the first participant registers and stops
+ * again when the last one leaves; the thread itself ends after being idle for
+ * {@value #KEEP_ALIVE_MILLIS} milliseconds, so an idle engine costs nothing.
+ * As all ticks run on the same executor, ticking that restarts right after it
+ * stopped never overlaps with a last tick still running.
+ */
+public class FixedRateTickEngine implements TickEngine {
+
+    /**
+     * The default length of a tick in milliseconds.
+     */
+    public static final long DEFAULT_TICK = 10L;
+
+    /**
+     * The time in milliseconds the thread of an idle engine is kept.
+     */
+    public static final long KEEP_ALIVE_MILLIS = 1000L;
+
+    /**
+     * The engine shared by all levels that do not bring their own.
+     */
+    private static final FixedRateTickEngine SHARED = new FixedRateTickEngine(DEFAULT_TICK);
+
+    /**
+     * The length of a tick in milliseconds.
+     */
+    private final long tickMillis;
+
+    /**
+     * The participants, in order of registration.
+     */
+    private final List<Tickable> participants = new CopyOnWriteArrayList<>();
+
+    /**
+     * The service running the driver thread.
+     */
+    private final ScheduledThreadPoolExecutor service;
+
+    /**
+     * The periodic tick, or <code>null</code> if idle.
+     */
+    private ScheduledFuture<?> ticking;
+
+    /**
+     * Creates a new engine.
+     *
+     * @param tickMillis
+     *            The length of a tick in milliseconds.
+     */
+    public FixedRateTickEngine(long tickMillis) {
+        assert tickMillis > 0;
+        this.tickMillis = tickMillis;
+        this.service = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "jpacman-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        service.setKeepAliveTime(KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS);
+        service.allowCoreThreadTimeOut(true);
+        service.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * @return The engine shared by all levels that do not bring their own.
+     */
+    public static FixedRateTickEngine shared() {
+        return SHARED;
+    }
+
+    @Override
+    public synchronized void register(Tickable participant) {
+        assert participant != null;
+        if (participants.contains(participant)) {
+            return;
+        }
+        participants.add(participant);
+        if (ticking == null) {
+            ticking = service.scheduleAtFixedRate(this::tick, tickMillis, tickMillis,
+                TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void unregister(Tickable participant) {
+        participants.remove(participant);
+        if (participants.isEmpty() && ticking != null) {
+            ticking.cancel(false);
+            ticking = null;
+        }
+    }
+
+    @Override
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Advances every participant once. A participant that fails is removed,
+     * and its failure reported, so that it cannot stop the others.
+     */
+    private void tick() {
+        for (Tickable participant : participants) {
+            try {
+                participant.tick(tickMillis);
+            } catch (RuntimeException e) {
+                unregister(participant);
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+}
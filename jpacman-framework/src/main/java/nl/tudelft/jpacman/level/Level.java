@@ -1,15 +1,12 @@
 package nl.tudelft.jpacman.level;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.Direction;
@@ -36,6 +33,12 @@ public class Level {
      */
     private final Object moveLock = new Object();
 
+    /**
+     * Scratch space for the units a moving unit collides with, reused by every
+     * move. Guarded by {@link #moveLock}.
+     */
+    private Unit[] collidees = new Unit[0];
+
     /**
      * The lock that ensures starting and stopping can't interfere with each
      * other.
@@ -43,21 +46,51 @@ public class Level {
     private final Object startStopLock = new Object();
 
     /**
-     * The NPCs of this level and, if they are running, their schedules.
+     * The NPCs of this level, in the order in which they move each tick.
+     */
+    private final List<Ghost> npcs;
+
+    /**
+     * The time (in milliseconds) each NPC still has to wait before its next
+     * move, indexed like {@link #npcs}.
+     */
+    private final long[] npcBudgets;
+
+    /**
+     * The number of each NPC and player of this level, see
+     * {@link #getUnitId(Unit)}, assigned as they join the level. The map is
+     * never changed but replaced by a copy, so threads such as the tick
+     * thread can look numbers up while players register.
+     */
+    private volatile Map<Unit, Integer> unitIds;
+
+    /**
+     * The engine advancing the NPCs while this level is running.
+     */
+    private final TickEngine tickEngine;
+
+    /**
+     * The participant registered with the {@link #tickEngine}.
+     */
+    private final TickEngine.Tickable npcDriver = this::advanceNPCs;
+
+    /**
+     * The (virtual) time in milliseconds this level has been running with
+     * its NPCs moving.
      */
-    private final Map<Ghost, ScheduledExecutorService> npcs;
+    private volatile long time;
 
     /**
      * <code>true</code> iff this level is currently in progress, i.e. players
-     * and NPCs can move.
+     * and NPCs can move. Read by the tick thread and the UI as well.
      */
-    private boolean inProgress;
+    private volatile boolean inProgress;
 
     /**
      * <code>true</code> iff this level is currently in freeze,
-     * i.e. NPCs can't move.
+     * i.e. NPCs can't move. Read by the tick thread and the UI as well.
      */
-    private boolean inFreeze;
+    private volatile boolean inFreeze;
 
     /**
      * The squares from which players can start this game.
@@ -85,7 +118,65 @@ public class Level {
     private final Set<LevelObserver> observers;
 
     /**
-     * Creates a new level for the board.
+     * The squares that hold a pellet, as bits by square index: the square
+     * with index <code>i</code> is bit <code>i % 64</code> of word
+     * <code>i / 64</code>. Also serves as the lock for {@link #pelletCount}.
+     */
+    private final long[] pelletSquares;
+
+    /**
+     * The pellets on the board when this level was created, by square index,
+     * so a {@link LevelSnapshot} can put them back once eaten. The pellet of a
+     * square is found by the rank of its bit in {@link #initialPellets}.
+     */
+    private Pellet[] initialPelletUnits;
+
+    /**
+     * The squares that held a pellet when this level was created, as bits
+     * like {@link #pelletSquares}.
+     */
+    private long[] initialPellets;
+
+    /**
+     * The number of pellets in the words of {@link #initialPellets} before
+     * each word.
+     */
+    private int[] initialPelletRanks;
+
+    /**
+     * The number of pellets remaining on the board.
+     */
+    private volatile int pelletCount;
+
+    /**
+     * The seed of the randomness shared by the NPCs.
+     */
+    private long seed;
+
+    /**
+     * The randomness shared by the NPCs.
+     */
+    private final LevelRandom random = new LevelRandom();
+
+    /**
+     * The hash of the state of this level, kept up to date by the board and
+     * the players.
+     */
+    private final ZobristHash hash;
+
+    /**
+     * The observer keeping {@link #pelletSquares} up to date.
+     */
+    private final PelletTracker pelletTracker = new PelletTracker();
+
+    /**
+     * The recorder of the events of this level, or <code>null</code>.
+     */
+    private volatile Recorder recorder;
+
+    /**
+     * Creates a new level for the board, with its NPCs driven by the
+     * {@link FixedRateTickEngine#shared() shared} tick engine.
      *
      * @param board
      *            The board for the level.
@@ -98,21 +189,94 @@ public class Level {
      */
     public Level(Board board, List<Ghost> ghosts, List<Square> startPositions,
                  CollisionMap collisionMap) {
+        this(board, ghosts, startPositions, collisionMap, FixedRateTickEngine.shared());
+    }
+
+    /**
+     * Creates a new level for the board.
+     *
+     * @param board
+     *            The board for the level.
+     * @param ghosts
+     *            The ghosts on the board.
+     * @param startPositions
+     *            The squares on which players start on this board.
+     * @param collisionMap
+     *            The collection of collisions that should be handled.
+     * @param engine
+     *            The engine that advances the NPCs while the level runs.
+     */
+    public Level(Board board, List<Ghost> ghosts, List<Square> startPositions,
+                 CollisionMap collisionMap, TickEngine engine) {
         assert board != null;
         assert ghosts != null;
         assert startPositions != null;
+        assert engine != null;
 
         this.board = board;
         this.inProgress = false;
-        this.npcs = new HashMap<>();
-        for (Ghost ghost : ghosts) {
-            npcs.put(ghost, null);
-        }
+        this.npcs = new ArrayList<>(ghosts);
+        this.npcBudgets = new long[npcs.size()];
+        this.tickEngine = engine;
         this.startSquares = startPositions;
         this.startSquareIndex = 0;
         this.players = new ArrayList<>();
         this.collisions = collisionMap;
         this.observers = new HashSet<>();
+        this.pelletSquares = new long[(board.getWidth() * board.getHeight() + Long.SIZE - 1)
+            / Long.SIZE];
+        Map<Unit, Integer> npcIds = new IdentityHashMap<>();
+        for (int i = 0; i < npcs.size(); i++) {
+            npcs.get(i).setRandom(random);
+            npcIds.putIfAbsent(npcs.get(i), i);
+        }
+        this.unitIds = Collections.unmodifiableMap(npcIds);
+        countPellets();
+        board.addOccupantObserver(pelletTracker);
+        this.hash = new ZobristHash(board, this::getUnitId);
+        board.addOccupantObserver(hash);
+    }
+
+    /**
+     * Counts the pellets placed on the board before this level was created.
+     * From then on the count is kept up to date by a {@link PelletTracker}.
+     */
+    private void countPellets() {
+        for (Square square : board.getUnits().squaresOf(Pellet.class)) {
+            int index = square.getIndex();
+            pelletSquares[index / Long.SIZE] |= 1L << index;
+            pelletCount++;
+        }
+        initialPellets = pelletSquares.clone();
+        initialPelletRanks = new int[initialPellets.length];
+        initialPelletUnits = new Pellet[pelletCount];
+        int rank = 0;
+        for (int word = 0; word < initialPellets.length; word++) {
+            initialPelletRanks[word] = rank;
+            long bits = initialPellets[word];
+            while (bits != 0) {
+                int index = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                initialPelletUnits[rank] = pelletOn(board.squareAtIndex(index));
+                rank++;
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * @param square
+     *            A square holding a pellet.
+     * @return The first pellet on the square.
+     */
+    static Pellet pelletOn(Square square) {
+        for (int i = 0; i < square.getOccupantCount(); i++) {
+            Unit unit = square.getOccupant(i);
+            if (unit instanceof Pellet) {
+                return (Pellet) unit;
+            }
+        }
+        assert false : "no pellet on square " + square.getIndex();
+        return null;
     }
 
     /**
@@ -135,6 +299,57 @@ public class Level {
         observers.remove(observer);
     }
 
+    /**
+     * Seeds the randomness of the NPCs of this level, which share one source
+     * of randomness. NPCs that are seeded alike behave alike.
+     *
+     * @param newSeed
+     *            The seed of the randomness of the NPCs.
+     */
+    public void setSeed(long newSeed) {
+        this.seed = newSeed;
+        random.setSeed(newSeed);
+        Recorder current = recorder;
+        if (current != null) {
+            current.seeded(getTick(), newSeed);
+        }
+    }
+
+    /**
+     * @return The seed last given to {@link #setSeed(long)}, or 0.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns a 64-bit hash of the state of this level: the type, number
+     * (see {@link #getUnitId(Unit)}) and square of each unit on its board,
+     * pellets included, and whether each player is alive. The hash is kept
+     * up to date as the state changes, so reading it is cheap, and it is the
+     * same for levels in the same state, even in other processes. It does
+     * not cover the scores, the clock or the randomness of the NPCs.
+     *
+     * @return The hash of the state of this level.
+     */
+    public long getHash() {
+        return hash.getValue();
+    }
+
+    /**
+     * Makes a recorder record the events of this level from now on, starting
+     * with the current seed. Only one recorder can be attached at a time.
+     *
+     * @param newRecorder
+     *            The recorder, or <code>null</code> to stop recording.
+     */
+    public void setRecorder(Recorder newRecorder) {
+        this.recorder = newRecorder;
+        if (newRecorder != null) {
+            newRecorder.seeded(getTick(), seed);
+        }
+    }
+
     /**
      * Registers a player on this level, assigning him to a starting position. A
      * player can only be registered once, registering a player again will have
@@ -151,6 +366,10 @@ public class Level {
             return;
         }
         players.add(player);
+        Map<Unit, Integer> ids = new IdentityHashMap<>(unitIds);
+        ids.put(player, npcs.size() + players.size() - 1);
+        unitIds = Collections.unmodifiableMap(ids);
+        player.setHash(hash, players.size() - 1);
         Square square = startSquares.get(startSquareIndex);
         player.occupy(square);
         startSquareIndex++;
@@ -185,21 +404,102 @@ public class Level {
         }
 
         synchronized (moveLock) {
+            record(unit, direction);
             unit.setDirection(direction);
             Square location = unit.getSquare();
             Square destination = location.getSquareAt(direction);
 
             if (destination.isAccessibleTo(unit)) {
-                List<Unit> occupants = destination.getOccupants();
-                unit.occupy(destination);
-                for (Unit occupant : occupants) {
-                    collisions.collide(unit, occupant);
-                }
+                occupyAndCollide(unit, destination);
             }
             updateObservers();
         }
     }
 
+    /**
+     * Records a move, if this level is being recorded. Must be called holding
+     * {@link #moveLock}, so moves are recorded in the order they are made.
+     *
+     * @param unit
+     *            The unit that moves.
+     * @param direction
+     *            The direction it moves in.
+     */
+    private void record(Unit unit, Direction direction) {
+        Recorder current = recorder;
+        if (current == null) {
+            return;
+        }
+        int id = getUnitId(unit);
+        if (id >= 0) {
+            current.moved(getTick(), id, direction);
+        }
+    }
+
+    /**
+     * Returns the number by which a unit is known in recordings of this level:
+     * the NPCs are numbered from 0 in the order in which they move, followed by
+     * the players in the order in which they were registered.
+     *
+     * @param unit
+     *            A unit on this level.
+     * @return The number of the unit, or -1 if it is neither an NPC nor a
+     *         player of this level.
+     */
+    public int getUnitId(Unit unit) {
+        Integer id = unitIds.get(unit);
+        if (id == null) {
+            return -1;
+        }
+        return id;
+    }
+
+    /**
+     * Returns the unit known by a number in recordings of this level.
+     *
+     * @param id
+     *            The number of the unit, see {@link #getUnitId(Unit)}.
+     * @return The unit, or <code>null</code> if there is no unit by that
+     *         number.
+     */
+    public Unit getUnit(int id) {
+        if (id < 0) {
+            return null;
+        }
+        if (id < npcs.size()) {
+            return npcs.get(id);
+        }
+        int player = id - npcs.size();
+        if (player < players.size()) {
+            return players.get(player);
+        }
+        return null;
+    }
+
+    /**
+     * Moves the unit onto the destination and collides it with every unit
+     * that was there before it. Must be called holding {@link #moveLock}.
+     *
+     * @param unit
+     *            The unit to move.
+     * @param destination
+     *            The square to move the unit to.
+     */
+    private void occupyAndCollide(Unit unit, Square destination) {
+        int count = destination.getOccupantCount();
+        if (collidees.length < count) {
+            collidees = new Unit[count];
+        }
+        for (int i = 0; i < count; i++) {
+            collidees[i] = destination.getOccupant(i);
+        }
+        unit.occupy(destination);
+        for (int i = 0; i < count; i++) {
+            collisions.collide(unit, collidees[i]);
+            collidees[i] = null;
+        }
+    }
+
     /**
      * Starts or resumes this level, allowing movement and (re)starting the
      * NPCs.
@@ -209,6 +509,10 @@ public class Level {
             if (isInProgress() && !isFrozen()) {
                 return;
             }
+            Recorder current = recorder;
+            if (current != null) {
+                current.started(getTick());
+            }
             startNPCs();
             inFreeze = false;
             inProgress = true;
@@ -225,11 +529,26 @@ public class Level {
             if (!isInProgress()) {
                 return;
             }
+            Recorder current = recorder;
+            if (current != null) {
+                current.stopped(getTick());
+            }
             stopNPCs();
             inProgress = false;
         }
     }
 
+    /**
+     * Stops this level for good and detaches it from its board, so a board
+     * that outlives this level no longer keeps it up to date or reachable.
+     * The level must not be used afterwards.
+     */
+    public void dispose() {
+        stop();
+        board.removeOccupantObserver(pelletTracker);
+        board.removeOccupantObserver(hash);
+    }
+
     /**
      * Freezes/unfreezes this level, only stopping/starting the NPCs.
      */
@@ -238,6 +557,10 @@ public class Level {
             if (!isInProgress()) {
                 return;
             }
+            Recorder current = recorder;
+            if (current != null) {
+                current.frozen(getTick());
+            }
             if (!isFrozen()) {
                 stopNPCs();
                 inFreeze = true;
@@ -251,28 +574,180 @@ public class Level {
     }
 
     /**
-     * Starts all NPC movement scheduling.
+     * Starts all NPC movement scheduling. Each NPC makes its first move after
+     * half of its interval.
      */
     private void startNPCs() {
-        for (final Ghost npc : npcs.keySet()) {
-            ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor();
+        for (int i = 0; i < npcs.size(); i++) {
+            npcBudgets[i] = npcs.get(i).getInterval() / 2;
+        }
+        tickEngine.register(npcDriver);
+    }
 
-            service.schedule(new NpcMoveTask(service, npc),
-                npc.getInterval() / 2, TimeUnit.MILLISECONDS);
+    /**
+     * Stops all NPC movement scheduling.
+     */
+    private void stopNPCs() {
+        tickEngine.unregister(npcDriver);
+    }
 
-            npcs.put(npc, service);
+    /**
+     * Advances the NPCs by one tick. Every NPC whose budget has run out makes
+     * a move and is given a new budget of {@link Ghost#getInterval()}. NPCs
+     * move in a fixed order, and at most once per tick.
+     *
+     * @param elapsed
+     *            The time passed since the previous tick in milliseconds.
+     */
+    private void advanceNPCs(long elapsed) {
+        if (!isInProgress() || isFrozen()) {
+            return;
+        }
+        time += elapsed;
+        for (int i = 0; i < npcs.size(); i++) {
+            if (!isInProgress() || isFrozen()) {
+                return;
+            }
+            npcBudgets[i] -= elapsed;
+            if (npcBudgets[i] <= 0) {
+                Ghost npc = npcs.get(i);
+                Direction nextMove = npc.nextMove();
+                if (nextMove != null) {
+                    move(npc, nextMove);
+                }
+                npcBudgets[i] += npc.getInterval();
+            }
         }
     }
 
     /**
-     * Stops all NPC movement scheduling and interrupts any movements being
-     * executed.
+     * Advances this level by one tick of its engine, moving the NPCs whose
+     * turn it is, as the engine would have done. This is how levels on a
+     * {@link ManualTickEngine} are run; levels on an engine that advances them
+     * by itself should not be stepped as well.
      */
-    private void stopNPCs() {
-        for (Entry<Ghost, ScheduledExecutorService> entry : npcs.entrySet()) {
-            ScheduledExecutorService schedule = entry.getValue();
-            assert schedule != null;
-            schedule.shutdownNow();
+    public void step() {
+        advanceNPCs(tickEngine.getTickMillis());
+    }
+
+    /**
+     * Steps this level until it is won, lost or stopped, or until the
+     * maximum number of ticks has passed.
+     *
+     * @param maxTicks
+     *            The maximum number of ticks to run.
+     * @return The number of ticks run.
+     * @see #step()
+     */
+    public long runUntilEnd(long maxTicks) {
+        long ticks = 0;
+        while (ticks < maxTicks && isInProgress() && isAnyPlayerAlive()
+            && remainingPellets() > 0) {
+            step();
+            ticks++;
+        }
+        return ticks;
+    }
+
+    /**
+     * Returns the time this level has been running, not counting the time it
+     * was stopped or frozen. For levels that are stepped, this is a virtual
+     * time: the number of steps times the length of a tick.
+     *
+     * @return The running time of this level in milliseconds.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the number of ticks this level has been running, not counting
+     * the ticks it was stopped or frozen.
+     *
+     * @return The number of ticks of {@link #getTime()}.
+     */
+    public long getTick() {
+        return time / tickEngine.getTickMillis();
+    }
+
+    /**
+     * @return The number of NPCs of this level.
+     */
+    int getNpcCount() {
+        return npcs.size();
+    }
+
+    /**
+     * @return The number of players registered on this level.
+     */
+    int getPlayerCount() {
+        return players.size();
+    }
+
+    /**
+     * @return The time each NPC still has to wait before its next move, which
+     *         a {@link LevelSnapshot} may change.
+     */
+    long[] getNpcBudgets() {
+        return npcBudgets;
+    }
+
+    /**
+     * @return The squares that hold a pellet, as bits by square index, which
+     *         a {@link LevelSnapshot} reads without allocating.
+     */
+    long[] getPelletSquares() {
+        return pelletSquares;
+    }
+
+    /**
+     * @return The randomness shared by the NPCs.
+     */
+    LevelRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Returns the pellet a square held when this level was created, whether
+     * or not it still does.
+     *
+     * @param squareIndex
+     *            The index of the square.
+     * @return The pellet, or <code>null</code> if the square held none.
+     */
+    Pellet getInitialPellet(int squareIndex) {
+        int word = squareIndex / Long.SIZE;
+        long bit = 1L << squareIndex;
+        if ((initialPellets[word] & bit) == 0) {
+            return null;
+        }
+        int rank = initialPelletRanks[word] + Long.bitCount(initialPellets[word] & bit - 1);
+        return initialPelletUnits[rank];
+    }
+
+    /**
+     * Restores the time and the state of this level, starting or stopping its
+     * NPCs as needed but leaving their budgets alone.
+     *
+     * @param newTime
+     *            The running time in milliseconds.
+     * @param progress
+     *            Whether the level is in progress.
+     * @param freeze
+     *            Whether the level is frozen.
+     */
+    void restoreState(long newTime, boolean progress, boolean freeze) {
+        synchronized (startStopLock) {
+            boolean wasRunning = inProgress && !inFreeze;
+            this.time = newTime;
+            this.inProgress = progress;
+            this.inFreeze = freeze;
+            boolean running = progress && !freeze;
+            if (running && !wasRunning) {
+                tickEngine.register(npcDriver);
+            } else if (!running && wasRunning) {
+                tickEngine.unregister(npcDriver);
+            }
         }
     }
 
@@ -329,26 +804,31 @@ public class Level {
     }
 
     /**
-     * Counts the pellets remaining on the board.
+     * Returns the number of pellets remaining on the board. The count is kept
+     * up to date as pellets enter and leave the board, so this takes constant
+     * time.
      *
      * @return The amount of pellets remaining on the board.
      */
     public int remainingPellets() {
-        Board board = getBoard();
-        int pellets = 0;
-        for (int x = 0; x < board.getWidth(); x++) {
-            for (int y = 0; y < board.getHeight(); y++) {
-                for (Unit unit : board.squareAt(x, y).getOccupants()) {
-                    if (unit instanceof Pellet) {
-                        pellets++;
-                    }
-                }
-            }
-        }
+        int pellets = pelletCount;
         assert pellets >= 0;
         return pellets;
     }
 
+    /**
+     * Returns whether a pellet lies on the square with the given index.
+     *
+     * @param squareIndex
+     *            The index of the square, see {@link Square#getIndex()}.
+     * @return <code>true</code> iff the square holds a pellet.
+     */
+    public boolean hasPellet(int squareIndex) {
+        synchronized (pelletSquares) {
+            return (pelletSquares[squareIndex / Long.SIZE] & 1L << squareIndex) != 0;
+        }
+    }
+
     /**
      * Public method to call UpdateObservers to determine if the game has ended or not.
      */
@@ -357,44 +837,103 @@ public class Level {
     }
 
     /**
-     * A task that moves an NPC and reschedules itself after it finished.
-     *
-     * @author Jeroen Roosen
+     * Keeps the pellet count and the squares holding pellets up to date as
+     * pellets are eaten or (re)placed.
      */
-    private final class NpcMoveTask implements Runnable {
+    private final class PelletTracker implements Board.OccupantObserver {
+
+        @Override
+        public void occupantAdded(Square square, Unit unit) {
+            if (unit instanceof Pellet) {
+                int index = square.getIndex();
+                synchronized (pelletSquares) {
+                    pelletSquares[index / Long.SIZE] |= 1L << index;
+                    pelletCount++;
+                }
+            }
+        }
+
+        @Override
+        public void occupantRemoved(Square square, Unit unit) {
+            if (unit instanceof Pellet) {
+                int index = square.getIndex();
+                synchronized (pelletSquares) {
+                    if (!holdsPellet(square)) {
+                        pelletSquares[index / Long.SIZE] &= ~(1L << index);
+                    }
+                    pelletCount--;
+                }
+            }
+        }
 
         /**
-         * The service executing the task.
+         * @param square
+         *            A square.
+         * @return <code>true</code> iff a pellet is still on the square.
          */
-        private final ScheduledExecutorService service;
+        private boolean holdsPellet(Square square) {
+            for (int i = 0; i < square.getOccupantCount(); i++) {
+                if (square.getOccupant(i) instanceof Pellet) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A recorder of the events of a level, such as to replay it later. Events
+     * are reported in the order in which they happen, each with the tick (see
+     * {@link Level#getTick()}) at which it happens. Recorders are called on
+     * the move path, so they should return quickly.
+     */
+    public interface Recorder {
 
         /**
-         * The NPC to move.
+         * The NPCs have been seeded.
+         *
+         * @param tick
+         *            The tick of the event.
+         * @param seed
+         *            The seed of the randomness of the NPCs.
          */
-        private final Ghost npc;
+        void seeded(long tick, long seed);
 
         /**
-         * Creates a new task.
+         * A unit has been moved, or has tried to move.
          *
-         * @param service
-         *            The service that executes the task.
-         * @param npc
-         *            The NPC to move.
+         * @param tick
+         *            The tick of the event.
+         * @param unit
+         *            The number of the unit, see {@link Level#getUnitId(Unit)}.
+         * @param direction
+         *            The direction of the move.
          */
-        NpcMoveTask(ScheduledExecutorService service, Ghost npc) {
-            this.service = service;
-            this.npc = npc;
-        }
+        void moved(long tick, int unit, Direction direction);
 
-        @Override
-        public void run() {
-            Direction nextMove = npc.nextMove();
-            if (nextMove != null) {
-                move(npc, nextMove);
-            }
-            long interval = npc.getInterval();
-            service.schedule(this, interval, TimeUnit.MILLISECONDS);
-        }
+        /**
+         * The level has been started or resumed.
+         *
+         * @param tick
+         *            The tick of the event.
+         */
+        void started(long tick);
+
+        /**
+         * The level has been stopped.
+         *
+         * @param tick
+         *            The tick of the event.
+         */
+        void stopped(long tick);
+
+        /**
+         * The level has been frozen or unfrozen.
+         *
+         * @param tick
+         *            The tick of the event.
+         */
+        void frozen(long tick);
     }
 
     /**
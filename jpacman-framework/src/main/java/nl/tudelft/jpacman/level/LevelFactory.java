@@ -3,6 +3,7 @@ package nl.tudelft.jpacman.level;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 
 import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.Direction;
@@ -47,7 +48,17 @@ public class LevelFactory {
     private final GhostFactory ghostFact;
 
     /**
-     * Creates a new level factory.
+     * The engine driving the NPCs of the levels.
+     */
+    private final TickEngine tickEngine;
+
+    /**
+     * The source of the seeds for the randomness of each level.
+     */
+    private final Random seeds;
+
+    /**
+     * Creates a new level factory for levels that run in real time.
      *
      * @param spriteStore
      *            The sprite store providing the sprites for units.
@@ -55,13 +66,35 @@ public class LevelFactory {
      *            The factory providing ghosts.
      */
     public LevelFactory(PacManSprites spriteStore, GhostFactory ghostFactory) {
+        this(spriteStore, ghostFactory, FixedRateTickEngine.shared(), new Random());
+    }
+
+    /**
+     * Creates a new level factory. With a {@link ManualTickEngine} and a
+     * seeded source of randomness, every level it creates plays out the same
+     * way each time it is stepped through with the same player moves.
+     *
+     * @param spriteStore
+     *            The sprite store providing the sprites for units.
+     * @param ghostFactory
+     *            The factory providing ghosts.
+     * @param engine
+     *            The engine driving the NPCs of the levels.
+     * @param random
+     *            The source of the seeds for the randomness of each level.
+     */
+    public LevelFactory(PacManSprites spriteStore, GhostFactory ghostFactory,
+                        TickEngine engine, Random random) {
         this.sprites = spriteStore;
         this.ghostIndex = -1;
         this.ghostFact = ghostFactory;
+        this.tickEngine = engine;
+        this.seeds = random;
     }
 
     /**
-     * Creates a new level from the provided data.
+     * Creates a new level from the provided data. The ghosts of the level
+     * share one source of randomness, seeded by this factory.
      *
      * @param board
      *            The board with all ghosts and pellets occupying their squares.
@@ -77,7 +110,9 @@ public class LevelFactory {
         // We'll adopt the simple collision map for now.
         CollisionMap collisionMap = new PlayerCollisions();
 
-        return new Level(board, ghosts, startPositions, collisionMap);
+        Level level = new Level(board, ghosts, startPositions, collisionMap, tickEngine);
+        level.setSeed(seeds.nextLong());
+        return level;
     }
 
     /**
@@ -0,0 +1,76 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.Random;
+
+/**
+ * The source of randomness shared by the NPCs of a level, whose state can be
+ * read and restored by a {@link LevelSnapshot}. It produces the same numbers
+ * as a {@link Random} with the same seed, but unlike it is not thread-safe:
+ * the NPCs of a level only move from one thread at a time.
+ */
+final class LevelRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The multiplier of the linear congruential generator of {@link Random}.
+     */
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+
+    /**
+     * The addend of the linear congruential generator of {@link Random}.
+     */
+    private static final long ADDEND = 0xBL;
+
+    /**
+     * The number of bits of the state.
+     */
+    private static final int STATE_BITS = 48;
+
+    /**
+     * The mask of the bits of the state.
+     */
+    private static final long MASK = (1L << STATE_BITS) - 1;
+
+    /**
+     * The state of the generator. Deliberately not initialised here, since
+     * the constructor of {@link Random} sets it through {@link #setSeed(long)}.
+     */
+    private long state;
+
+    /**
+     * Creates a new source of randomness with a random seed.
+     */
+    LevelRandom() {
+        // seeded by Random
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        state = (seed ^ MULTIPLIER) & MASK;
+        super.setSeed(seed);
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (STATE_BITS - bits));
+    }
+
+    /**
+     * @return The state of the generator.
+     */
+    long getState() {
+        return state;
+    }
+
+    /**
+     * Restores the state of the generator.
+     *
+     * @param newState
+     *            A state returned by {@link #getState()}.
+     */
+    void setState(long newState) {
+        this.state = newState;
+    }
+}
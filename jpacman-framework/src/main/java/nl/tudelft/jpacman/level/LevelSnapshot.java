@@ -0,0 +1,241 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+/**
+ * The changing state of a level in primitive arrays: the square and direction
+ * of each NPC and player, the scores and lives of the players, the squares
+ * holding pellets, and the clock, budgets and randomness of the NPCs.
+ *
+ * <p>
+ * A snapshot is captured from a level and can be restored into it, or into
+ * any other level of the same map with the same number of players, such as
+ * one created from the same {@link LevelTemplate}. Both reuse the arrays of
+ * the snapshot, so once a snapshot has been taken, capturing and restoring
+ * allocate nothing. Restoring only touches what differs: the units that
+ * moved and the pellets that were eaten or put back, found by comparing the
+ * pellets a word of 64 squares at a time.
+ * </p>
+ *
+ * <p>
+ * Pellets are restored by putting back the pellets the level was created
+ * with, so pellets added later are not restored. Units restored onto a
+ * square join its occupants last. Levels must not be moving while they are
+ * captured or restored, so they should be stopped or stepped by the caller.
+ * </p>
+ */
+public final class LevelSnapshot {
+
+    /**
+     * The directions, by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The index of the square of each unit, by number (see
+     * {@link Level#getUnitId(Unit)}), or -1.
+     */
+    private final int[] squares;
+
+    /**
+     * The ordinal of the direction of each unit, by number.
+     */
+    private final byte[] directions;
+
+    /**
+     * The score of each player.
+     */
+    private final int[] scores;
+
+    /**
+     * Whether each player is alive.
+     */
+    private final boolean[] alive;
+
+    /**
+     * The squares holding a pellet, as bits by square index.
+     */
+    private final long[] pellets;
+
+    /**
+     * The time each NPC still has to wait before its next move.
+     */
+    private final long[] budgets;
+
+    /**
+     * The running time of the level in milliseconds.
+     */
+    private long time;
+
+    /**
+     * Whether the level is in progress.
+     */
+    private boolean inProgress;
+
+    /**
+     * Whether the level is frozen.
+     */
+    private boolean inFreeze;
+
+    /**
+     * The state of the randomness of the NPCs.
+     */
+    private long randomState;
+
+    /**
+     * Creates a snapshot of a level.
+     *
+     * @param level
+     *            The level to capture.
+     */
+    public LevelSnapshot(Level level) {
+        int npcs = level.getNpcCount();
+        int players = level.getPlayerCount();
+        this.squares = new int[npcs + players];
+        this.directions = new byte[npcs + players];
+        this.scores = new int[players];
+        this.alive = new boolean[players];
+        this.pellets = new long[level.getPelletSquares().length];
+        this.budgets = new long[npcs];
+        capture(level);
+    }
+
+    /**
+     * Captures the state of a level into this snapshot, replacing the state
+     * it held.
+     *
+     * @param level
+     *            A level of the same map as the level this snapshot was
+     *            created from, with the same number of players.
+     */
+    public void capture(Level level) {
+        assert fits(level);
+        for (int id = 0; id < squares.length; id++) {
+            Unit unit = level.getUnit(id);
+            squares[id] = -1;
+            if (unit.hasSquare()) {
+                squares[id] = unit.getSquare().getIndex();
+            }
+            directions[id] = (byte) unit.getDirection().ordinal();
+        }
+        for (int i = 0; i < scores.length; i++) {
+            Player player = (Player) level.getUnit(budgets.length + i);
+            scores[i] = player.getScore();
+            alive[i] = player.isAlive();
+        }
+        long[] current = level.getPelletSquares();
+        synchronized (current) {
+            System.arraycopy(current, 0, pellets, 0, pellets.length);
+        }
+        System.arraycopy(level.getNpcBudgets(), 0, budgets, 0, budgets.length);
+        time = level.getTime();
+        inProgress = level.isInProgress();
+        inFreeze = level.isFrozen();
+        randomState = level.getRandom().getState();
+    }
+
+    /**
+     * Restores a level to the state of this snapshot.
+     *
+     * @param level
+     *            A level of the same map as the level this snapshot was
+     *            created from, with the same number of players.
+     */
+    public void restore(Level level) {
+        assert fits(level);
+        Board board = level.getBoard();
+        for (int id = 0; id < squares.length; id++) {
+            restoreUnit(board, level.getUnit(id), squares[id]);
+            level.getUnit(id).setDirection(DIRECTIONS[directions[id]]);
+        }
+        for (int i = 0; i < scores.length; i++) {
+            Player player = (Player) level.getUnit(budgets.length + i);
+            player.addPoints(scores[i] - player.getScore());
+            if (player.isAlive() != alive[i]) {
+                player.setAlive(alive[i]);
+            }
+        }
+        restorePellets(level, board);
+        System.arraycopy(budgets, 0, level.getNpcBudgets(), 0, budgets.length);
+        level.getRandom().setState(randomState);
+        level.restoreState(time, inProgress, inFreeze);
+    }
+
+    /**
+     * Puts a unit back on its square.
+     *
+     * @param board
+     *            The board of the level.
+     * @param unit
+     *            The unit.
+     * @param square
+     *            The index of the square of the unit, or -1.
+     */
+    private static void restoreUnit(Board board, Unit unit, int square) {
+        if (square < 0) {
+            if (unit.hasSquare()) {
+                unit.leaveSquare();
+            }
+        } else if (!unit.hasSquare() || unit.getSquare().getIndex() != square) {
+            unit.occupy(board.squareAtIndex(square));
+        }
+    }
+
+    /**
+     * Puts back the pellets eaten since this snapshot and removes those put
+     * back since.
+     *
+     * @param level
+     *            The level.
+     * @param board
+     *            The board of the level.
+     */
+    private void restorePellets(Level level, Board board) {
+        long[] current = level.getPelletSquares();
+        for (int word = 0; word < pellets.length; word++) {
+            long changed = current[word] ^ pellets[word];
+            while (changed != 0) {
+                int index = word * Long.SIZE + Long.numberOfTrailingZeros(changed);
+                Square square = board.squareAtIndex(index);
+                if ((pellets[word] & changed & -changed) != 0) {
+                    level.getInitialPellet(index).occupy(square);
+                } else {
+                    Level.pelletOn(square).leaveSquare();
+                }
+                changed &= changed - 1;
+            }
+        }
+    }
+
+    /**
+     * @param level
+     *            A level.
+     * @return <code>true</code> iff the level has as many units and squares
+     *         as this snapshot.
+     */
+    private boolean fits(Level level) {
+        return level.getNpcCount() == budgets.length
+            && level.getPlayerCount() == scores.length
+            && level.getPelletSquares().length == pellets.length;
+    }
+
+    /**
+     * @return The running time of the captured level in milliseconds.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * @param squareIndex
+     *            The index of a square.
+     * @return <code>true</code> iff the square held a pellet in the captured
+     *         level.
+     */
+    public boolean hasPellet(int squareIndex) {
+        return (pellets[squareIndex / Long.SIZE] & 1L << squareIndex) != 0;
+    }
+}
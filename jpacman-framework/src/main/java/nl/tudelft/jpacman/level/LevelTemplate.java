@@ -0,0 +1,163 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.Ghost;
+
+/**
+ * A parsed map from which any number of fresh levels can be created without
+ * parsing it again, such as to host many games of the same map or to restart
+ * a level.
+ *
+ * <p>
+ * The levels are put on compact boards that share the (immutable) kinds and
+ * neighbours of their squares with the template. Each level only creates
+ * square objects, which hold its units, for the squares it uses, so creating
+ * a level takes time and memory in the number of units rather than in the
+ * size of the map. As for compact boards, squares are created by kind, so
+ * templates only hold maps of the characters read by {@link MapParser}, see
+ * {@link #canHold(char[][])}.
+ * </p>
+ *
+ * <p>
+ * Templates are immutable and can be used from any thread.
+ * </p>
+ */
+public final class LevelTemplate {
+
+    /**
+     * The characters of the maps templates can hold.
+     */
+    private static final String CHARACTERS = " #.GP";
+
+    /**
+     * The factory that copies the board.
+     */
+    private final BoardFactory boardCreator;
+
+    /**
+     * The board the boards of the levels are copied from, which holds no
+     * units.
+     */
+    private final Board layout;
+
+    /**
+     * The number of rows of the map.
+     */
+    private final int height;
+
+    /**
+     * The positions <code>x * height + y</code> of the pellets.
+     */
+    private final int[] pellets;
+
+    /**
+     * The positions <code>x * height + y</code> of the ghosts.
+     */
+    private final int[] ghosts;
+
+    /**
+     * The positions <code>x * height + y</code> of the start squares.
+     */
+    private final int[] startPositions;
+
+    /**
+     * Creates a new template.
+     *
+     * @param map
+     *            The map of the levels.
+     * @param boardFactory
+     *            The factory providing the squares of the levels.
+     */
+    LevelTemplate(CompiledMap map, BoardFactory boardFactory) {
+        this.boardCreator = boardFactory;
+        this.layout = boardFactory.createCompactBoard(map.getWidth(), map.getHeight(),
+            map.getKinds());
+        this.height = map.getHeight();
+        this.pellets = map.spawnsOf('.');
+        this.ghosts = map.spawnsOf('G');
+        this.startPositions = map.spawnsOf('P');
+    }
+
+    /**
+     * @return The board all boards of the levels are copied from, which
+     *         holds no units.
+     */
+    Board getLayout() {
+        return layout;
+    }
+
+    /**
+     * @return The number of columns of the map.
+     */
+    public int getWidth() {
+        return layout.getWidth();
+    }
+
+    /**
+     * @return The number of rows of the map.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @param map
+     *            A map, with map[x][y] representing the square at position
+     *            x,y.
+     * @return <code>true</code> iff the map only holds characters read by
+     *         {@link MapParser}, which a template can create the squares and
+     *         units of.
+     */
+    public static boolean canHold(char[][] map) {
+        for (char[] column : map) {
+            for (char c : column) {
+                if (CHARACTERS.indexOf(c) < 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a fresh level of the map, with all units in their starting
+     * positions. Units are created column by column, as by {@link MapParser}.
+     *
+     * @param levelFactory
+     *            The factory providing the units and the level.
+     * @return The new level.
+     */
+    public Level createLevel(LevelFactory levelFactory) {
+        Board board = boardCreator.copyCompactBoard(layout);
+        for (int position : pellets) {
+            levelFactory.createPellet().occupy(squareAt(board, position));
+        }
+        List<Ghost> ghostList = new ArrayList<>(ghosts.length);
+        for (int position : ghosts) {
+            Ghost ghost = levelFactory.createGhost();
+            ghostList.add(ghost);
+            ghost.occupy(squareAt(board, position));
+        }
+        List<Square> starts = new ArrayList<>(startPositions.length);
+        for (int position : startPositions) {
+            starts.add(squareAt(board, position));
+        }
+        return levelFactory.createLevel(board, ghostList, starts);
+    }
+
+    /**
+     * @param board
+     *            A board of the map.
+     * @param position
+     *            The position <code>x * height + y</code> of a square.
+     * @return The square at the position.
+     */
+    private Square squareAt(Board board, int position) {
+        return board.squareAt(position / height, position % height);
+    }
+}
@@ -0,0 +1,48 @@
+package nl.tudelft.jpacman.level;
+
+/**
+ * A tick engine that never advances its participants by itself. Levels using
+ * it only move their NPCs when they are stepped explicitly, see
+ * {@link Level#step()}, which makes them run on a virtual clock: as fast as
+ * they are stepped, and the same on every run.
+ */
+public class ManualTickEngine implements TickEngine {
+
+    /**
+     * The length of a tick in milliseconds.
+     */
+    private final long tickMillis;
+
+    /**
+     * Creates a new engine with ticks of {@link FixedRateTickEngine#DEFAULT_TICK}.
+     */
+    public ManualTickEngine() {
+        this(FixedRateTickEngine.DEFAULT_TICK);
+    }
+
+    /**
+     * Creates a new engine.
+     *
+     * @param tickMillis
+     *            The length of a tick in (virtual) milliseconds.
+     */
+    public ManualTickEngine(long tickMillis) {
+        assert tickMillis > 0;
+        this.tickMillis = tickMillis;
+    }
+
+    @Override
+    public void register(Tickable participant) {
+        // participants are stepped by their owners
+    }
+
+    @Override
+    public void unregister(Tickable participant) {
+        // participants are stepped by their owners
+    }
+
+    @Override
+    public long getTickMillis() {
+        return tickMillis;
+    }
+}
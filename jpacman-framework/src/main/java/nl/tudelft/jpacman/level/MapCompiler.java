@@ -0,0 +1,144 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.PathTable;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+/**
+ * Compiles text maps into a binary format that {@link MapParser} loads
+ * without parsing text: the size of the map, the kinds of its squares in
+ * runs, and where its units spawn. Optionally, the shortest paths between all
+ * squares are included, so they need not be computed when the map is loaded.
+ * Compiled maps are recognised by their header and can be used wherever a text
+ * map can.
+ *
+ * <p>
+ * From the command line, run
+ * <code>nl.tudelft.jpacman.level.MapCompiler board.txt board.jpm [--paths]</code>.
+ * </p>
+ */
+public class MapCompiler {
+
+    /**
+     * The command line option to include the shortest paths.
+     */
+    private static final String PATHS_OPTION = "--paths";
+
+    /**
+     * The parser creating the boards to compute the shortest paths on.
+     */
+    private final MapParser parser;
+
+    /**
+     * Whether to include the shortest paths.
+     */
+    private boolean paths;
+
+    /**
+     * Creates a new compiler.
+     *
+     * @param parser
+     *            The parser creating the boards to compute the shortest paths
+     *            on.
+     */
+    public MapCompiler(MapParser parser) {
+        assert parser != null;
+        this.parser = parser;
+    }
+
+    /**
+     * Makes this compiler include the shortest paths between all squares,
+     * for maps small enough to have a {@link PathTable}.
+     *
+     * @return This compiler.
+     */
+    public MapCompiler withPaths() {
+        this.paths = true;
+        return this;
+    }
+
+    /**
+     * Compiles a map.
+     *
+     * @param map
+     *            The map, with map[x][y] representing the square at position
+     *            x,y.
+     * @param out
+     *            The stream to write the compiled map to, which is flushed
+     *            but not closed.
+     * @throws IOException
+     *             If the stream could not be written.
+     * @throws nl.tudelft.jpacman.PacmanConfigurationException
+     *             If the map holds an invalid character.
+     */
+    public void compile(char[][] map, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        CompiledMap.of(map).write(data);
+        PathTable table = null;
+        if (paths) {
+            table = parser.parseMap(map).getBoard().getPathTable(null);
+        }
+        data.writeBoolean(table != null);
+        if (table != null) {
+            table.writeTo(data);
+        }
+        data.flush();
+    }
+
+    /**
+     * Compiles a text map file.
+     *
+     * @param text
+     *            The text map file.
+     * @param compiled
+     *            The file to write the compiled map to.
+     * @throws IOException
+     *             If a file could not be read or written.
+     */
+    public void compile(Path text, Path compiled) throws IOException {
+        char[][] map = MapParser.readText(text);
+        try (OutputStream out = Files.newOutputStream(compiled)) {
+            compile(map, out);
+        }
+    }
+
+    /**
+     * Compiles the text map file given as first argument into the file given
+     * as second argument, including the shortest paths if the third argument
+     * is {@value #PATHS_OPTION}.
+     *
+     * @param args
+     *            The command line arguments.
+     * @throws IOException
+     *             If a file could not be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 2 + 1
+            || args.length > 2 && !PATHS_OPTION.equals(args[2])) {
+            System.err.println("Usage: MapCompiler <text map> <compiled map> ["
+                + PATHS_OPTION + "]");
+            System.exit(1);
+        }
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            new ManualTickEngine(), new Random()), new BoardFactory(sprites));
+        MapCompiler compiler = new MapCompiler(parser);
+        if (args.length > 2) {
+            compiler.withPaths();
+        }
+        Path compiled = Paths.get(args[1]);
+        compiler.compile(Paths.get(args[0]), compiled);
+        System.out.println("Compiled " + args[0] + " into " + compiled
+            + " (" + Files.size(compiled) + " bytes)");
+    }
+}
@@ -0,0 +1,504 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+
+/**
+ * Generates maps of any size, in the format read by
+ * {@link MapParser#parseMap(char[][])}, to try the game out at scale. The
+ * same seed and settings always give the same map.
+ *
+ * <p>
+ * Maps are laid out as a maze: a lattice of open squares at odd coordinates,
+ * with pillars of wall in between, joined by a random spanning tree so that
+ * every open square can be reached from every other. Corridors and pillars
+ * are then opened at random until the requested wall density is reached,
+ * which is possible from about half of the map down to only the border.
+ * Tunnels are openings in the border, through which units wrap around to the
+ * opposite edge.
+ * </p>
+ */
+public class MapGenerator {
+
+    /**
+     * The default fraction of squares that are walls.
+     */
+    public static final double DEFAULT_WALL_DENSITY = 0.4;
+
+    /**
+     * The default number of ghosts.
+     */
+    public static final int DEFAULT_GHOSTS = 4;
+
+    /**
+     * The default fraction of open squares holding a pellet.
+     */
+    public static final double DEFAULT_PELLET_RATIO = 0.9;
+
+    /**
+     * The default number of tunnels.
+     */
+    public static final int DEFAULT_TUNNELS = 2;
+
+    /**
+     * The smallest width and height of a map.
+     */
+    public static final int MINIMUM_SIZE = 5;
+
+    /**
+     * A wall.
+     */
+    private static final char WALL = '#';
+
+    /**
+     * An empty square.
+     */
+    private static final char GROUND = ' ';
+
+    /**
+     * The number of columns of the maps generated.
+     */
+    private final int width;
+
+    /**
+     * The number of rows of the maps generated.
+     */
+    private final int height;
+
+    /**
+     * The seed for the random layout.
+     */
+    private long seed;
+
+    /**
+     * The fraction of squares that are walls.
+     */
+    private double wallDensity = DEFAULT_WALL_DENSITY;
+
+    /**
+     * The number of ghosts.
+     */
+    private int ghosts = DEFAULT_GHOSTS;
+
+    /**
+     * The fraction of open squares holding a pellet.
+     */
+    private double pelletRatio = DEFAULT_PELLET_RATIO;
+
+    /**
+     * The number of tunnels.
+     */
+    private int tunnels = DEFAULT_TUNNELS;
+
+    /**
+     * Creates a new generator for maps of the given size, with seed 0 and
+     * the default settings.
+     *
+     * @param width
+     *            The number of columns, at least {@value #MINIMUM_SIZE}.
+     * @param height
+     *            The number of rows, at least {@value #MINIMUM_SIZE}.
+     */
+    public MapGenerator(int width, int height) {
+        if (width < MINIMUM_SIZE || height < MINIMUM_SIZE) {
+            throw new PacmanConfigurationException("Maps must be at least "
+                + MINIMUM_SIZE + " squares wide and high: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Sets the seed for the random layout.
+     *
+     * @param newSeed
+     *            The seed.
+     * @return This generator.
+     */
+    public MapGenerator withSeed(long newSeed) {
+        this.seed = newSeed;
+        return this;
+    }
+
+    /**
+     * Sets the fraction of squares that are walls, including the border.
+     * The density is approached as closely as the layout allows.
+     *
+     * @param density
+     *            The fraction of walls, between 0 and 1.
+     * @return This generator.
+     */
+    public MapGenerator withWallDensity(double density) {
+        assert density >= 0 && density <= 1;
+        this.wallDensity = density;
+        return this;
+    }
+
+    /**
+     * Sets the number of ghosts.
+     *
+     * @param count
+     *            The number of ghosts.
+     * @return This generator.
+     */
+    public MapGenerator withGhosts(int count) {
+        assert count >= 0;
+        this.ghosts = count;
+        return this;
+    }
+
+    /**
+     * Sets the fraction of open squares that hold a pellet.
+     *
+     * @param ratio
+     *            The fraction of pellets, between 0 and 1.
+     * @return This generator.
+     */
+    public MapGenerator withPelletRatio(double ratio) {
+        assert ratio >= 0 && ratio <= 1;
+        this.pelletRatio = ratio;
+        return this;
+    }
+
+    /**
+     * Sets the number of tunnels through the border, alternately from left
+     * to right and from top to bottom.
+     *
+     * @param count
+     *            The number of tunnels.
+     * @return This generator.
+     */
+    public MapGenerator withTunnels(int count) {
+        assert count >= 0;
+        this.tunnels = count;
+        return this;
+    }
+
+    /**
+     * Generates a map with a single start square for the player.
+     *
+     * @return The map, with map[x][y] representing the square at position
+     *         x,y.
+     * @throws PacmanConfigurationException
+     *             If the map has no room for all ghosts.
+     */
+    public char[][] generate() {
+        Generation generation = new Generation();
+        generation.carveMaze();
+        generation.digTunnels();
+        generation.populate();
+        return generation.map;
+    }
+
+    /**
+     * Converts a map to the rows of text read by
+     * {@link MapParser#parseMap(List)}.
+     *
+     * @param map
+     *            The map, with map[x][y] representing the square at position
+     *            x,y.
+     * @return The rows of the map, from the top down.
+     */
+    public static List<String> toText(char[][] map) {
+        int rows = map[0].length;
+        List<String> text = new ArrayList<>(rows);
+        char[] row = new char[map.length];
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < map.length; x++) {
+                row[x] = map[x][y];
+            }
+            text.add(new String(row));
+        }
+        return text;
+    }
+
+    /**
+     * The state of generating a single map.
+     */
+    private final class Generation {
+
+        /**
+         * The map being generated.
+         */
+        private final char[][] map = new char[width][height];
+
+        /**
+         * The source of randomness.
+         */
+        private final Random random = new Random(seed);
+
+        /**
+         * The number of lattice squares (at odd coordinates) per row.
+         */
+        private final int nodesAcross = (width - 1) / 2;
+
+        /**
+         * The number of walls on the map.
+         */
+        private int walls;
+
+        /**
+         * The number of walls to aim for.
+         */
+        private final long targetWalls = Math.round(wallDensity * width * height);
+
+        /**
+         * Lays out walls, lattice squares and a spanning tree of corridors,
+         * then opens further corridors and pillars down to the wall density.
+         */
+        private void carveMaze() {
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    map[x][y] = WALL;
+                    if (x % 2 == 1 && y % 2 == 1 && x < width - 1 && y < height - 1) {
+                        map[x][y] = GROUND;
+                    }
+                }
+            }
+            walls = width * height - nodesAcross * ((height - 1) / 2);
+            int[] corridors = corridors();
+            shuffle(corridors);
+            joinLattice(corridors);
+            openCorridors(corridors);
+            openPillars();
+        }
+
+        /**
+         * Lists the squares between two lattice squares, or between a
+         * lattice square and the border.
+         *
+         * @return The indices <code>x * height + y</code> of the squares, in
+         *         the order of the columns of the map.
+         */
+        private int[] corridors() {
+            int[] corridors = new int[width * height];
+            int count = 0;
+            for (int x = 1; x < width - 1; x++) {
+                for (int y = 1; y < height - 1; y++) {
+                    if ((x + y) % 2 == 1) {
+                        corridors[count++] = x * height + y;
+                    }
+                }
+            }
+            int[] result = new int[count];
+            System.arraycopy(corridors, 0, result, 0, count);
+            return result;
+        }
+
+        /**
+         * Shuffles an array in place.
+         *
+         * @param values
+         *            The array to shuffle.
+         */
+        private void shuffle(int[] values) {
+            for (int i = values.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int value = values[i];
+                values[i] = values[j];
+                values[j] = value;
+            }
+        }
+
+        /**
+         * Opens the corridors of a random spanning tree of the lattice, so
+         * that all lattice squares are connected.
+         *
+         * @param corridors
+         *            The corridors, in random order.
+         */
+        private void joinLattice(int[] corridors) {
+            int[] parents = new int[nodesAcross * ((height - 1) / 2)];
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = i;
+            }
+            for (int corridor : corridors) {
+                int x = corridor / height;
+                int y = corridor % height;
+                int dx = x % 2;
+                int dy = y % 2;
+                if (x + dy >= width - 1 || y + dx >= height - 1) {
+                    continue;
+                }
+                int a = find(parents, node(x - dy, y - dx));
+                int b = find(parents, node(x + dy, y + dx));
+                if (a != b) {
+                    parents[a] = b;
+                    open(x, y);
+                }
+            }
+        }
+
+        /**
+         * @param x
+         *            The odd x coordinate of a lattice square.
+         * @param y
+         *            The odd y coordinate of a lattice square.
+         * @return The number of the lattice square.
+         */
+        private int node(int x, int y) {
+            return (y / 2) * nodesAcross + x / 2;
+        }
+
+        /**
+         * Finds the representative of a set of joined lattice squares,
+         * halving the path on the way.
+         *
+         * @param parents
+         *            The parent of each lattice square.
+         * @param node
+         *            The lattice square to look up.
+         * @return The representative of its set.
+         */
+        private int find(int[] parents, int node) {
+            int current = node;
+            while (parents[current] != current) {
+                parents[current] = parents[parents[current]];
+                current = parents[current];
+            }
+            return current;
+        }
+
+        /**
+         * Opens corridors that are still closed at random, as far as needed
+         * to approach the wall density.
+         *
+         * @param corridors
+         *            The corridors.
+         */
+        private void openCorridors(int[] corridors) {
+            int closed = 0;
+            for (int corridor : corridors) {
+                if (map[corridor / height][corridor % height] == WALL) {
+                    closed++;
+                }
+            }
+            double chance = openingChance(closed);
+            for (int corridor : corridors) {
+                int x = corridor / height;
+                int y = corridor % height;
+                if (map[x][y] == WALL && random.nextDouble() < chance) {
+                    open(x, y);
+                }
+            }
+        }
+
+        /**
+         * Opens pillars next to an open square at random, as far as needed to
+         * approach the wall density.
+         */
+        private void openPillars() {
+            int pillars = ((width - 2) / 2) * ((height - 2) / 2);
+            double chance = openingChance(pillars);
+            for (int x = 2; x < width - 1; x += 2) {
+                for (int y = 2; y < height - 1; y += 2) {
+                    if (random.nextDouble() < chance && nextToGround(x, y)) {
+                        open(x, y);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @param candidates
+         *            The number of walls that may be opened.
+         * @return The chance to open each of them to approach the wall
+         *         density.
+         */
+        private double openingChance(int candidates) {
+            if (candidates == 0 || walls <= targetWalls) {
+                return 0;
+            }
+            return Math.min(1.0, (double) (walls - targetWalls) / candidates);
+        }
+
+        /**
+         * @param x
+         *            The x coordinate of a square not on the border.
+         * @param y
+         *            The y coordinate of a square not on the border.
+         * @return <code>true</code> iff a square next to it is open.
+         */
+        private boolean nextToGround(int x, int y) {
+            return map[x - 1][y] != WALL || map[x + 1][y] != WALL
+                || map[x][y - 1] != WALL || map[x][y + 1] != WALL;
+        }
+
+        /**
+         * Turns a wall into an empty square.
+         *
+         * @param x
+         *            The x coordinate of the wall.
+         * @param y
+         *            The y coordinate of the wall.
+         */
+        private void open(int x, int y) {
+            if (map[x][y] == WALL) {
+                map[x][y] = GROUND;
+                walls--;
+            }
+        }
+
+        /**
+         * Opens the border at both ends of random rows and columns of the
+         * lattice, along with the squares connecting them to the lattice.
+         */
+        private void digTunnels() {
+            for (int i = 0; i < tunnels; i++) {
+                if (i % 2 == 0) {
+                    int y = 1 + 2 * random.nextInt((height - 1) / 2);
+                    open(0, y);
+                    open(width - 1, y);
+                    open(width - 2, y);
+                } else {
+                    int x = 1 + 2 * random.nextInt(nodesAcross);
+                    open(x, 0);
+                    open(x, height - 1);
+                    open(x, height - 2);
+                }
+            }
+        }
+
+        /**
+         * Places the player, the ghosts and the pellets on open squares.
+         */
+        private void populate() {
+            int free = width * height - walls;
+            if (free < ghosts + 1) {
+                throw new PacmanConfigurationException("No room for " + ghosts
+                    + " ghosts and a player on " + free + " open squares");
+            }
+            place('P');
+            for (int i = 0; i < ghosts; i++) {
+                place('G');
+            }
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    if (map[x][y] == GROUND && random.nextDouble() < pelletRatio) {
+                        map[x][y] = '.';
+                    }
+                }
+            }
+        }
+
+        /**
+         * Places a unit on a random empty square.
+         *
+         * @param unit
+         *            The character of the unit.
+         */
+        private void place(char unit) {
+            while (true) {
+                int x = random.nextInt(width);
+                int y = random.nextInt(height);
+                if (map[x][y] == GROUND) {
+                    map[x][y] = unit;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,15 +1,29 @@
 package nl.tudelft.jpacman.level;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import nl.tudelft.jpacman.PacmanConfigurationException;
 import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.PathTable;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.npc.Ghost;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -21,6 +35,17 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
  */
 public class MapParser {
 
+    /**
+     * The size of the buffer for reading compiled maps from streams.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The number of rows room is made for in the map at first when reading
+     * text of unknown length.
+     */
+    private static final int INITIAL_ROWS = 16;
+
     /**
      * The factory that creates the levels.
      */
@@ -31,6 +56,11 @@ public class MapParser {
      */
     private final BoardFactory boardCreator;
 
+    /**
+     * Whether to create compact boards instead of grids of squares.
+     */
+    private boolean compact;
+
     /**
      * Creates a new map parser.
      *
@@ -44,6 +74,21 @@ public class MapParser {
         this.boardCreator = boardFactory;
     }
 
+    /**
+     * Makes this parser create compact boards, which store the kinds of their
+     * squares in arrays and only create square objects where needed, such as
+     * for the squares units are placed on. This saves a lot of memory on large
+     * maps. Squares are then created by kind rather than by
+     * {@link #addSquare(Square[][], List, List, int, int, char)}, so parsers
+     * adding kinds of squares cannot use compact boards.
+     *
+     * @return This parser.
+     */
+    public MapParser withCompactBoards() {
+        this.compact = true;
+        return this;
+    }
+
     /**
      * Parses the text representation of the board into an actual level.
      *
@@ -62,6 +107,9 @@ public class MapParser {
      * @return The level as represented by this text.
      */
     public Level parseMap(char[][] map) {
+        if (compact) {
+            return parseCompactMap(map);
+        }
         int width = map.length;
         int height = map[0].length;
 
@@ -76,6 +124,20 @@ public class MapParser {
         return levelCreator.createLevel(board, ghosts, startPositions);
     }
 
+    /**
+     * Parses the text representation of the board into a level on a compact
+     * board. Units are created in the same order as on a grid of squares, so
+     * both give the same level.
+     *
+     * @param map
+     *            The text representation of the board, with map[x][y]
+     *            representing the square at position x,y.
+     * @return The level as represented by this text.
+     */
+    private Level parseCompactMap(char[][] map) {
+        return new LevelTemplate(CompiledMap.of(map), boardCreator).createLevel(levelCreator);
+    }
+
     private void makeGrid(char[][] map, int width, int height,
                           Square[][] grid, List<Ghost> ghosts, List<Square> startPositions) {
         for (int x = 0; x < width; x++) {
@@ -209,29 +271,455 @@ public class MapParser {
     }
 
     /**
-     * Parses the provided input stream as a character stream and passes it
-     * result to {@link #parseMap(List)}.
+     * Parses the provided input stream, which holds either a map compiled by
+     * {@link MapCompiler} or UTF-8 text. Text is read up to the end of the
+     * stream, however slowly it delivers it, one row at a time straight into
+     * the map passed on to {@link #parseMap(char[][])}.
      *
      * @param source
      *            The input stream that will be read.
      * @return The parsed level as represented by the text on the input stream.
      * @throws IOException
      *             when the source could not be read.
+     * @throws PacmanConfigurationException
+     *             If text lines are not properly formatted.
      */
     public Level parseMap(InputStream source) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-            source, "UTF-8"))) {
-            List<String> lines = new ArrayList<>();
-            while (reader.ready()) {
-                lines.add(reader.readLine());
+        try (BufferedInputStream in = new BufferedInputStream(source)) {
+            if (isCompiled(in)) {
+                return parseCompiledMap(readAll(in));
+            }
+            return parseMap(readRows(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        }
+    }
+
+    /**
+     * Determines whether a stream holds a compiled map, without consuming
+     * any of it.
+     *
+     * @param in
+     *            The stream.
+     * @return <code>true</code> iff the stream starts with the magic number
+     *         of compiled maps.
+     * @throws IOException
+     *             when the stream could not be read.
+     */
+    private static boolean isCompiled(BufferedInputStream in) throws IOException {
+        in.mark(Integer.BYTES);
+        byte[] header = new byte[Integer.BYTES];
+        int read = 0;
+        int count = 0;
+        while (count >= 0 && read < header.length) {
+            count = in.read(header, read, header.length - read);
+            read += Math.max(count, 0);
+        }
+        in.reset();
+        return CompiledMap.isCompiled(ByteBuffer.wrap(header, 0, read));
+    }
+
+    /**
+     * Reads text one row at a time straight into a map, validating the width
+     * of each row as it is read. The columns of the map grow as rows come in,
+     * and are trimmed to the number of rows at the end.
+     *
+     * @param text
+     *            The text to read, which is not closed.
+     * @return The map, with map[x][y] representing the square at position
+     *         x,y.
+     * @throws IOException
+     *             when the text could not be read.
+     * @throws PacmanConfigurationException
+     *             If there are no rows, or the rows are empty or of unequal
+     *             width.
+     */
+    private static char[][] readRows(Reader text) throws IOException {
+        BufferedReader reader = new BufferedReader(text);
+        String line = reader.readLine();
+        if (line == null) {
+            throw new PacmanConfigurationException(
+                "Input text must consist of at least 1 row.");
+        }
+        char[][] map = new char[line.length()][INITIAL_ROWS];
+        int rows = 0;
+        while (line != null) {
+            checkRowWidth(map.length, line.length());
+            if (rows == map[0].length) {
+                resizeColumns(map, rows + rows / 2);
+            }
+            for (int x = 0; x < map.length; x++) {
+                map[x][rows] = line.charAt(x);
+            }
+            rows++;
+            line = reader.readLine();
+        }
+        resizeColumns(map, rows);
+        return map;
+    }
+
+    /**
+     * Resizes the columns of a map one at a time, so at most one column is
+     * copied at any moment.
+     *
+     * @param map
+     *            The map.
+     * @param rows
+     *            The new number of rows.
+     */
+    private static void resizeColumns(char[][] map, int rows) {
+        for (int x = 0; x < map.length; x++) {
+            if (map[x].length != rows) {
+                map[x] = Arrays.copyOf(map[x], rows);
+            }
+        }
+    }
+
+    /**
+     * Reads the rest of a stream into a single buffer, which is only copied
+     * while it grows.
+     *
+     * @param in
+     *            The stream to read.
+     * @return The bytes read.
+     * @throws IOException
+     *             when the stream could not be read.
+     */
+    private static ByteBuffer readAll(InputStream in) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int size = 0;
+        int count = in.read(buffer, size, buffer.length - size);
+        while (count >= 0) {
+            size += count;
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            count = in.read(buffer, size, buffer.length - size);
+        }
+        return ByteBuffer.wrap(buffer, 0, size).slice();
+    }
+
+    /**
+     * Checks the width of a row of a map.
+     *
+     * @param width
+     *            The width of the first row.
+     * @param rowWidth
+     *            The width of the row to check.
+     * @throws PacmanConfigurationException
+     *             If the rows are empty or of unequal width.
+     */
+    private static void checkRowWidth(int width, int rowWidth) {
+        if (width == 0) {
+            throw new PacmanConfigurationException(
+                "Input text lines cannot be empty.");
+        }
+        if (rowWidth != width) {
+            throw new PacmanConfigurationException(
+                "Input text lines are not of equal width.");
+        }
+    }
+
+    /**
+     * Parses a map file by mapping it into memory. Files compiled by
+     * {@link MapCompiler} are loaded directly. Text files have their rows
+     * read straight into the map passed on to {@link #parseMap(char[][])}.
+     * Text is UTF-8; files that are all ASCII, which are the usual maps, are
+     * read from memory byte by byte, with rows ending in either
+     * <code>\n</code> or <code>\r\n</code>, and other files are decoded
+     * as {@link #parseMap(InputStream)} does.
+     *
+     * @param file
+     *            The map file.
+     * @return The parsed level as represented by the file.
+     * @throws IOException
+     *             when the file could not be read.
+     * @throws PacmanConfigurationException
+     *             If the rows of the file are not properly formatted.
+     */
+    public Level parseMap(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer bytes = map(channel, file);
+            if (CompiledMap.isCompiled(bytes)) {
+                return parseCompiledMap(bytes);
+            }
+            if (isAscii(bytes)) {
+                return parseMap(readMap(bytes));
+            }
+        }
+        return parseMap(readText(file));
+    }
+
+    /**
+     * Reads a text map file, by mapping it into memory if it is all ASCII.
+     *
+     * @param file
+     *            The map file, in the format read by {@link #parseMap(Path)}.
+     * @return The map, with map[x][y] representing the square at position
+     *         x,y.
+     * @throws IOException
+     *             when the file could not be read.
+     * @throws PacmanConfigurationException
+     *             If the rows of the file are not properly formatted.
+     */
+    static char[][] readText(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer bytes = map(channel, file);
+            if (isAscii(bytes)) {
+                return readMap(bytes);
+            }
+        }
+        try (Reader text = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return readRows(text);
+        }
+    }
+
+    /**
+     * @param bytes
+     *            The contents of a text file.
+     * @return <code>true</code> iff all bytes are ASCII characters, so each
+     *         byte is a character of the map.
+     */
+    private static boolean isAscii(ByteBuffer bytes) {
+        for (int i = 0; i < bytes.limit(); i++) {
+            if (bytes.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Maps a map file into memory.
+     *
+     * @param channel
+     *            The channel of the file.
+     * @param file
+     *            The file.
+     * @return The contents of the file.
+     * @throws IOException
+     *             when the file could not be mapped.
+     */
+    private static ByteBuffer map(FileChannel channel, Path file) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new PacmanConfigurationException("Map file too large: " + file);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    /**
+     * Loads a map compiled by {@link MapCompiler}, along with the paths
+     * computed for it if it has them.
+     *
+     * @param in
+     *            The compiled map.
+     * @return The level of the map.
+     * @throws PacmanConfigurationException
+     *             If the data is not a valid compiled map.
+     */
+    private Level parseCompiledMap(ByteBuffer in) {
+        try {
+            CompiledMap map = CompiledMap.read(in);
+            Level level;
+            if (compact) {
+                level = new LevelTemplate(map, boardCreator).createLevel(levelCreator);
+            } else {
+                level = parseMap(map.toChars());
             }
-            return parseMap(lines);
+            readPaths(level.getBoard(), in);
+            return level;
+        } catch (BufferUnderflowException e) {
+            throw new PacmanConfigurationException("Compiled map is truncated", e);
         }
     }
 
     /**
-     * Parses the provided input stream as a character stream and passes it
-     * result to {@link #parseMap(List)}.
+     * Reads the shortest paths following a compiled map, if there are any,
+     * so they need not be computed for the boards of the map.
+     *
+     * @param board
+     *            A board of the map.
+     * @param in
+     *            The compiled map, positioned after its spawn lists.
+     */
+    private static void readPaths(Board board, ByteBuffer in) {
+        if (in.hasRemaining() && in.get() != 0) {
+            PathTable.read(board, null, in);
+        }
+    }
+
+    /**
+     * Parses a map into a template for any number of levels, on compact
+     * boards.
+     *
+     * @param source
+     *            The input stream holding the map, either compiled or as
+     *            UTF-8 text, which will be read and closed.
+     * @return The template of the map.
+     * @throws IOException
+     *             when the source could not be read.
+     * @throws PacmanConfigurationException
+     *             If the map is not properly formatted.
+     * @see LevelTemplate
+     */
+    public LevelTemplate parseTemplate(InputStream source) throws IOException {
+        ByteBuffer bytes;
+        try (BufferedInputStream in = new BufferedInputStream(source)) {
+            if (!isCompiled(in)) {
+                char[][] map = readRows(new InputStreamReader(in, StandardCharsets.UTF_8));
+                return new LevelTemplate(CompiledMap.of(map), boardCreator);
+            }
+            bytes = readAll(in);
+        }
+        try {
+            LevelTemplate template = new LevelTemplate(CompiledMap.read(bytes), boardCreator);
+            readPaths(template.getLayout(), bytes);
+            return template;
+        } catch (BufferUnderflowException e) {
+            throw new PacmanConfigurationException("Compiled map is truncated", e);
+        }
+    }
+
+    /**
+     * Parses the map in a resource into a template for any number of levels,
+     * on compact boards.
+     *
+     * @param mapName
+     *            Name of a resource that will be read.
+     * @return The template of the map.
+     * @throws IOException
+     *             when the resource could not be read.
+     * @see LevelTemplate
+     */
+    public LevelTemplate parseTemplate(String mapName) throws IOException {
+        return parseTemplate(resource(mapName).openStream());
+    }
+
+    /**
+     * Reads the map in a resource, either compiled or as UTF-8 text, so it
+     * can be parsed any number of times by {@link #parseMap(char[][])}.
+     *
+     * @param mapName
+     *            Name of a resource that will be read.
+     * @return The map, with map[x][y] representing the square at position
+     *         x,y.
+     * @throws IOException
+     *             when the resource could not be read.
+     * @throws PacmanConfigurationException
+     *             If the map is not properly formatted.
+     */
+    public static char[][] readMap(String mapName) throws IOException {
+        ByteBuffer bytes;
+        try (BufferedInputStream in = new BufferedInputStream(resource(mapName).openStream())) {
+            if (!isCompiled(in)) {
+                return readRows(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+            bytes = readAll(in);
+        }
+        try {
+            return CompiledMap.read(bytes).toChars();
+        } catch (BufferUnderflowException e) {
+            throw new PacmanConfigurationException("Compiled map is truncated", e);
+        }
+    }
+
+    /**
+     * Reads the rows of a map file into a map.
+     *
+     * @param bytes
+     *            The contents of the file, all ASCII.
+     * @return The map, with map[x][y] representing the square at position
+     *         x,y.
+     * @throws PacmanConfigurationException
+     *             If the rows are not properly formatted.
+     */
+    private static char[][] readMap(ByteBuffer bytes) {
+        int limit = bytes.limit();
+        int rows = 0;
+        int width = -1;
+        for (int i = 0; i < limit; i++) {
+            if (bytes.get(i) == '\n') {
+                rows++;
+                if (width < 0) {
+                    width = lineLength(bytes, i);
+                }
+            }
+        }
+        if (limit > 0 && bytes.get(limit - 1) != '\n') {
+            rows++;
+            if (width < 0) {
+                width = limit;
+            }
+        }
+        if (rows == 0) {
+            throw new PacmanConfigurationException(
+                "Input text must consist of at least 1 row.");
+        }
+        checkRowWidth(width, width);
+        char[][] map = new char[width][rows];
+        int position = 0;
+        for (int y = 0; y < rows; y++) {
+            position = readRow(bytes, position, map, y);
+        }
+        return map;
+    }
+
+    /**
+     * @param bytes
+     *            The contents of a map file.
+     * @param end
+     *            The position of the line feed ending the first row.
+     * @return The width of the first row, without its line ending.
+     */
+    private static int lineLength(ByteBuffer bytes, int end) {
+        if (end > 0 && bytes.get(end - 1) == '\r') {
+            return end - 1;
+        }
+        return end;
+    }
+
+    /**
+     * Reads a row of a map file into a map.
+     *
+     * @param bytes
+     *            The contents of the file.
+     * @param start
+     *            The position of the first character of the row.
+     * @param map
+     *            The map to read the row into.
+     * @param y
+     *            The y coordinate of the row.
+     * @return The position of the first character of the next row.
+     * @throws PacmanConfigurationException
+     *             If the row is shorter or longer than the map is wide.
+     */
+    private static int readRow(ByteBuffer bytes, int start, char[][] map, int y) {
+        int limit = bytes.limit();
+        int end = start + map.length;
+        if (end > limit) {
+            throw new PacmanConfigurationException(
+                "Input text lines are not of equal width.");
+        }
+        for (int x = 0; x < map.length; x++) {
+            map[x][y] = (char) bytes.get(start + x);
+        }
+        int next = end;
+        if (next < limit && bytes.get(next) == '\r') {
+            next++;
+        }
+        if (next < limit) {
+            if (bytes.get(next) != '\n') {
+                throw new PacmanConfigurationException(
+                    "Input text lines are not of equal width.");
+            }
+            next++;
+        }
+        return next;
+    }
+
+    /**
+     * Parses the map in a resource. Resources that are files on disk are
+     * mapped into memory by {@link #parseMap(Path)}, others are read by
+     * {@link #parseMap(InputStream)}.
      *
      * @param mapName
      *            Name of a resource that will be read.
@@ -242,14 +730,48 @@ public class MapParser {
     @SuppressFBWarnings(value = "OBL_UNSATISFIED_OBLIGATION",
                         justification = "try with resources always cleans up")
     public Level parseMap(String mapName) throws IOException {
-        try (InputStream boardStream = MapParser.class.getResourceAsStream(mapName)) {
-            if (boardStream == null) {
-                throw new PacmanConfigurationException("Could not get resource for: " + mapName);
-            }
+        URL resource = resource(mapName);
+        Path file = fileOf(resource);
+        if (file != null) {
+            return parseMap(file);
+        }
+        try (InputStream boardStream = resource.openStream()) {
             return parseMap(boardStream);
         }
     }
 
+    /**
+     * @param mapName
+     *            Name of a resource.
+     * @return The location of the resource.
+     * @throws PacmanConfigurationException
+     *             If there is no such resource.
+     */
+    private static URL resource(String mapName) {
+        URL resource = MapParser.class.getResource(mapName);
+        if (resource == null) {
+            throw new PacmanConfigurationException("Could not get resource for: " + mapName);
+        }
+        return resource;
+    }
+
+    /**
+     * @param resource
+     *            The location of a resource.
+     * @return The file the resource is, or <code>null</code> if it is not a
+     *         file on disk, such as a resource in a jar.
+     */
+    private static Path fileOf(URL resource) {
+        if (!"file".equals(resource.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(resource.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
     /**
      * @return the BoardCreator
      */
@@ -34,6 +34,17 @@ public class Player extends Unit {
      */
     private boolean alive;
 
+    /**
+     * The hash of the level this player is registered in, or
+     * <code>null</code>.
+     */
+    private ZobristHash hash;
+
+    /**
+     * The index of this player in the level it is registered in.
+     */
+    private int number;
+
     /**
      * Creates a new player with a score of 0 points.
      *
@@ -72,9 +83,29 @@ public class Player extends Unit {
         if (!isAlive) {
             deathSprite.restart();
         }
+        if (hash != null && alive != isAlive) {
+            hash.toggle(ZobristHash.aliveKey(number));
+        }
         this.alive = isAlive;
     }
 
+    /**
+     * Makes this player keep the hash of the level it is registered in up to
+     * date with its life.
+     *
+     * @param levelHash
+     *            The hash of the level.
+     * @param index
+     *            The index of this player in the level, in registration order.
+     */
+    void setHash(ZobristHash levelHash, int index) {
+        this.hash = levelHash;
+        this.number = index;
+        if (alive) {
+            levelHash.toggle(ZobristHash.aliveKey(index));
+        }
+    }
+
     /**
      * Returns the amount of points accumulated by this player.
      *
@@ -0,0 +1,48 @@
+package nl.tudelft.jpacman.level;
+
+/**
+ * Drives the NPCs of levels in fixed ticks. A level registers itself with its
+ * engine while its NPCs are running, after which the engine advances it (and
+ * every other registered level) once per tick.
+ */
+public interface TickEngine {
+
+    /**
+     * Starts advancing the participant. Participants are advanced in the order
+     * in which they were registered. Registering a participant twice has no
+     * effect.
+     *
+     * @param participant
+     *            The participant to advance every tick.
+     */
+    void register(Tickable participant);
+
+    /**
+     * Stops advancing the participant if it was registered.
+     *
+     * @param participant
+     *            The participant to remove.
+     */
+    void unregister(Tickable participant);
+
+    /**
+     * Returns the amount of (virtual) time that passes each tick.
+     *
+     * @return The length of a single tick in milliseconds.
+     */
+    long getTickMillis();
+
+    /**
+     * Something that can be advanced by a {@link TickEngine}.
+     */
+    interface Tickable {
+
+        /**
+         * Advances this participant.
+         *
+         * @param elapsed
+         *            The time passed since the previous tick in milliseconds.
+         */
+        void tick(long elapsed);
+    }
+}
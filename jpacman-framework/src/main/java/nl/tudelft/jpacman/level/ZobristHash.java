@@ -0,0 +1,235 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+/**
+ * A 64-bit Zobrist hash of the state of a level: the type, number and square
+ * of each unit on the board, which includes the pellets, and whether each
+ * player is alive. The hash is the exclusive or of a key for each of these, so
+ * it is kept up to date by toggling the key of whatever changes as units enter
+ * and leave squares and players die or come back to life.
+ *
+ * <p>
+ * Rather than drawing the keys from tables, which would take a table per type
+ * of unit the size of the board, each key is computed by mixing the type and
+ * square into 64 bits with a bijective mixing function. The types are told
+ * apart by a 64-bit hash of their class names, so the keys are the same in
+ * every process and levels in the same state have the same hash wherever
+ * they are played. NPCs and players are also told apart by the number the
+ * level knows them by, so ghosts of the same type have keys of their own.
+ * Pellets and other units without a number share the key of their type and
+ * square, so two of them stacked on one square cancel out.
+ * </p>
+ */
+final class ZobristHash implements Board.OccupantObserver {
+
+    /**
+     * The number of bits the number of a unit is shifted to the left of its
+     * square.
+     */
+    private static final int NUMBER_SHIFT = 32;
+
+    /**
+     * The mask of the bits of the square.
+     */
+    private static final long SQUARE_MASK = 0xFFFFFFFFL;
+
+    /**
+     * The offset basis of the 64-bit FNV-1a hash of the class names.
+     */
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+
+    /**
+     * The prime of the 64-bit FNV-1a hash of the class names.
+     */
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    /**
+     * The keys of the types of units, by class.
+     */
+    private static final ClassValue<Long> TYPES = new ClassValue<Long>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            return typeKey(type.getName());
+        }
+    };
+
+    /**
+     * The golden ratio increment of the mixing function.
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The first multiplier of the mixing function.
+     */
+    private static final long MIX_1 = 0xBF58476D1CE4E5B9L;
+
+    /**
+     * The second multiplier of the mixing function.
+     */
+    private static final long MIX_2 = 0x94D049BB133111EBL;
+
+    /**
+     * The first shift of the mixing function.
+     */
+    private static final int SHIFT_1 = 30;
+
+    /**
+     * The second shift of the mixing function.
+     */
+    private static final int SHIFT_2 = 27;
+
+    /**
+     * The third shift of the mixing function.
+     */
+    private static final int SHIFT_3 = 31;
+
+    /**
+     * The type of the keys of the lives of the players, named so that it is
+     * not the name of any class.
+     */
+    private static final long ALIVE = typeKey("player alive");
+
+    /**
+     * The numbers of the units, see {@link Level#getUnitId(Unit)}.
+     */
+    private final ToIntFunction<Unit> numbers;
+
+    /**
+     * The current hash.
+     */
+    private long value;
+
+    /**
+     * Creates the hash of the units already on a board.
+     *
+     * @param board
+     *            The board.
+     * @param numbers
+     *            The numbers of the units, or -1 for units without one.
+     */
+    ZobristHash(Board board, ToIntFunction<Unit> numbers) {
+        this.numbers = numbers;
+        this.value = placements(board, numbers);
+    }
+
+    /**
+     * Computes the hash of the units on a board from scratch, as listed by
+     * the index of units of the board.
+     *
+     * @param board
+     *            The board.
+     * @param numbers
+     *            The numbers of the units, or -1 for units without one.
+     * @return The exclusive or of the keys of all units on the board.
+     */
+    static long placements(Board board, ToIntFunction<Unit> numbers) {
+        Set<Square> squares = new HashSet<>(board.getUnits().squaresOf(Unit.class));
+        long hash = 0L;
+        for (Square square : squares) {
+            for (Unit unit : square.getOccupants()) {
+                hash ^= unitKey(unit, numbers.applyAsInt(unit), square);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * @param unit
+     *            A unit.
+     * @param number
+     *            The number of the unit, or -1 if it has none.
+     * @param square
+     *            The square it is on.
+     * @return The key of the unit on the square.
+     */
+    static long unitKey(Unit unit, int number, Square square) {
+        return key(TYPES.get(unit.getClass()),
+            (long) number << NUMBER_SHIFT | square.getIndex() & SQUARE_MASK);
+    }
+
+    /**
+     * @param player
+     *            The index of a player, in registration order.
+     * @return The key of the player being alive.
+     */
+    static long aliveKey(int player) {
+        return key(ALIVE, player);
+    }
+
+    /**
+     * Computes the key of a type by the 64-bit FNV-1a hash of its name.
+     *
+     * @param name
+     *            The name of the type.
+     * @return The key of the type.
+     */
+    private static long typeKey(String name) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < name.length(); i++) {
+            hash = (hash ^ name.charAt(i)) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Computes a key by mixing the key of a type with a number, so different
+     * numbers of the same type never share a key.
+     *
+     * @param type
+     *            The key of the type.
+     * @param number
+     *            The number and square of a unit, or the index of a player.
+     * @return The key.
+     */
+    private static long key(long type, long number) {
+        return mix(type ^ mix(number + GOLDEN_GAMMA));
+    }
+
+    /**
+     * Mixes 64 bits by the finalizer of SplitMix64, a bijection.
+     *
+     * @param bits
+     *            The bits to mix.
+     * @return The mixed bits.
+     */
+    private static long mix(long bits) {
+        long z = (bits ^ (bits >>> SHIFT_1)) * MIX_1;
+        z = (z ^ (z >>> SHIFT_2)) * MIX_2;
+        return z ^ (z >>> SHIFT_3);
+    }
+
+    /**
+     * @return The current hash.
+     */
+    synchronized long getValue() {
+        return value;
+    }
+
+    /**
+     * Toggles a key in the hash.
+     *
+     * @param key
+     *            The key to add if it is not part of the hash, or to remove if
+     *            it is.
+     */
+    synchronized void toggle(long key) {
+        value ^= key;
+    }
+
+    @Override
+    public void occupantAdded(Square square, Unit unit) {
+        toggle(unitKey(unit, numbers.applyAsInt(unit), square));
+    }
+
+    @Override
+    public void occupantRemoved(Square square, Unit unit) {
+        toggle(unitKey(unit, numbers.applyAsInt(unit), square));
+    }
+}
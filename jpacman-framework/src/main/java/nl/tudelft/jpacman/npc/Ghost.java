@@ -32,6 +32,11 @@ public abstract class Ghost extends Unit {
      */
     private final int intervalVariation;
 
+    /**
+     * The source of randomness for the intervals and random moves.
+     */
+    private Random random = new Random();
+
     /**
      * Calculates the next move for this unit and returns the direction to move
      * in.
@@ -77,7 +82,22 @@ public abstract class Ghost extends Unit {
      * @return The suggested delay between moves in milliseconds.
      */
     public long getInterval() {
-        return this.moveInterval + new Random().nextInt(this.intervalVariation);
+        if (intervalVariation == 0) {
+            return moveInterval;
+        }
+        return this.moveInterval + random.nextInt(this.intervalVariation);
+    }
+
+    /**
+     * Replaces the source of randomness of this ghost. Ghosts that share a
+     * seeded source and move in a fixed order behave the same on every run.
+     *
+     * @param random
+     *            The source of randomness for the intervals and random moves.
+     */
+    public void setRandom(Random random) {
+        assert random != null;
+        this.random = random;
     }
 
     /**
@@ -97,7 +117,7 @@ public abstract class Ghost extends Unit {
         if (directions.isEmpty()) {
             return null;
         }
-        int i = new Random().nextInt(directions.size());
+        int i = random.nextInt(directions.size());
         return directions.get(i);
     }
 }
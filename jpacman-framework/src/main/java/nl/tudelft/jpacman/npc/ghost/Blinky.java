@@ -1,10 +1,10 @@
 package nl.tudelft.jpacman.npc.ghost;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.FlowField;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.level.Player;
@@ -91,10 +91,7 @@ public class Blinky extends Ghost {
         assert nearest.hasSquare();
         Square target = nearest.getSquare();
 
-        List<Direction> path = Navigation.shortestPath(getSquare(), target, this);
-        if (path != null && !path.isEmpty()) {
-            return Optional.ofNullable(path.get(0));
-        }
-        return Optional.empty();
+        FlowField field = target.getBoard().flowFieldTowards(target, this);
+        return Optional.ofNullable(field.directionFrom(getSquare()));
     }
 }
@@ -1,11 +1,11 @@
 package nl.tudelft.jpacman.npc.ghost;
 
 import java.util.EnumMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.FlowField;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.level.Player;
@@ -101,10 +101,10 @@ public class Clyde extends Ghost {
         assert nearest.hasSquare();
         Square target = nearest.getSquare();
 
-        List<Direction> path = Navigation.shortestPath(getSquare(), target, this);
-        if (path != null && !path.isEmpty()) {
-            Direction direction = path.get(0);
-            if (path.size() <= SHYNESS) {
+        FlowField field = target.getBoard().flowFieldTowards(target, this);
+        Direction direction = field.directionFrom(getSquare());
+        if (direction != null) {
+            if (field.distanceFrom(getSquare()) <= SHYNESS) {
                 return Optional.ofNullable(OPPOSITES.get(direction));
             }
             return Optional.of(direction);
@@ -1,14 +1,16 @@
 package nl.tudelft.jpacman.npc.ghost;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 
 import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.PathTable;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.board.UnitIndex;
 
 /**
  * Navigation provides utility to nagivate on {@link Square}s.
@@ -17,6 +19,31 @@ import nl.tudelft.jpacman.board.Unit;
  */
 public final class Navigation {
 
+    /**
+     * The directions to search in, in a fixed order.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The number of units of a type up to which the nearest one is found by
+     * comparing their distances, rather than by searching the board.
+     */
+    private static final int DIRECT_COMPARISON_LIMIT = 16;
+
+    /**
+     * The number of squares a search space keeps room for regardless of the
+     * board searched. Larger spaces are shrunk to fit as soon as a board
+     * less than half their size is searched, so a thread does not hold on
+     * to the space of the largest board it ever searched.
+     */
+    private static final int RETAINED_SQUARES = 4096;
+
+    /**
+     * The search space of every thread that navigates.
+     */
+    private static final ThreadLocal<SearchSpace> SEARCH_SPACE =
+        ThreadLocal.withInitial(SearchSpace::new);
+
     private Navigation() {
     }
 
@@ -24,7 +51,9 @@ public final class Navigation {
      * Calculates the shortest path. This is done by BFS. This search ensures
      * the traveller is allowed to occupy the squares on the way, or returns the
      * shortest path to the square regardless of terrain if no traveller is
-     * specified.
+     * specified. Both squares must be on a board; the search identifies
+     * squares by their index and reuses its scratch memory between calls.
+     * Where the board has a {@link PathTable}, the path is looked up instead.
      *
      * @param from
      *            The starting square.
@@ -44,91 +73,189 @@ public final class Navigation {
         if (from.equals(to)) {
             return new ArrayList<>();
         }
-
-        List<Node> targets = new ArrayList<>();
-        Set<Square> visited = new HashSet<>();
-        targets.add(new Node(null, from, null));
-        while (!targets.isEmpty()) {
-            Node node = targets.remove(0);
-            Square square = node.getSquare();
-            if (square.equals(to)) {
-                return node.getPath();
+        Board board = from.getBoard();
+        assert board != null : "Can only navigate squares on a board";
+        if (to.getBoard() != board) {
+            return null;
+        }
+        if (traveller != null) {
+            PathTable table = board.getPathTable(traveller);
+            if (table != null && table.covers(from)) {
+                return table.path(from, to);
             }
-            visited.add(square);
-            addNewTargets(traveller, targets, visited, node, square);
         }
-        return null;
+        return search(board, from, to, traveller);
     }
 
-    private static void addNewTargets(Unit traveller, List<Node> targets,
-                                      Set<Square> visited, Node node, Square square) {
-        for (Direction direction : Direction.values()) {
-            Square target = square.getSquareAt(direction);
-            if (!visited.contains(target)
-                && (traveller == null || target.isAccessibleTo(traveller))) {
-                targets.add(new Node(direction, target, node));
+    /**
+     * Finds the shortest path by BFS. The squares must differ.
+     *
+     * @param board
+     *            The board both squares are on.
+     * @param from
+     *            The starting square.
+     * @param to
+     *            The destination.
+     * @param traveller
+     *            The traveller attempting to reach the destination, or
+     *            <code>null</code> to ignore terrain.
+     * @return The shortest path to the destination or <code>null</code> if no
+     *         such path could be found.
+     */
+    private static List<Direction> search(Board board, Square from, Square to,
+                                          Unit traveller) {
+        SearchSpace space = SEARCH_SPACE.get();
+        space.reset(board.getWidth() * board.getHeight());
+        space.enqueue(from.getIndex(), from.getIndex(), null);
+        int goal = to.getIndex();
+        while (!space.isEmpty()) {
+            if (space.enqueueNeighbours(board, space.dequeue(), traveller, goal)) {
+                return space.pathTo(goal);
             }
         }
+        return null;
     }
 
     /**
-     * Finds the nearest unit of the given type and returns its location. This
-     * method will perform a breadth first search starting from the given
-     * square.
+     * Finds the nearest unit of the given type, regardless of terrain. Of
+     * several units at the same distance, the one on the square with the
+     * lowest index is found. The units of the type are looked up in the index
+     * of the board: when there are only a few, their distances are compared
+     * directly, and otherwise this method performs a breadth first search
+     * starting from the given square.
      *
      * @param type
      *            The type of unit to search for.
      * @param currentLocation
-     *            The starting location for the search.
+     *            The starting location for the search, which must be on a
+     *            board.
      * @return The nearest unit of the given type, or <code>null</code> if no
      *         such unit could be found.
      */
     public static Unit findNearest(Class<? extends Unit> type,
                                              Square currentLocation) {
-        List<Square> toDo = new ArrayList<>();
-        Set<Square> visited = new HashSet<>();
-
-        toDo.add(currentLocation);
+        Board board = currentLocation.getBoard();
+        assert board != null : "Can only navigate squares on a board";
+        UnitIndex units = board.getUnits();
+        int count = units.count(type);
+        if (count == 0) {
+            return null;
+        }
+        Square nearest;
+        if (count <= DIRECT_COMPARISON_LIMIT) {
+            nearest = closest(board, currentLocation, units.squaresOf(type));
+        } else {
+            nearest = searchNearest(board, type, currentLocation);
+        }
+        if (nearest == null) {
+            return null;
+        }
+        return findUnit(type, nearest);
+    }
 
-        while (!toDo.isEmpty()) {
-            Square square = toDo.remove(0);
-            Unit unit = findUnit(type, square);
-            if (unit != null) {
-                assert unit.hasSquare();
-                return unit;
+    /**
+     * Picks the square closest to a starting square, regardless of terrain.
+     * As the edges of a board wrap around, the distance between two squares
+     * is the sum of the shortest horizontal and vertical distances.
+     *
+     * @param board
+     *            The board all squares are on.
+     * @param from
+     *            The starting square.
+     * @param squares
+     *            The squares to pick from.
+     * @return The closest square, the one with the lowest index if several
+     *         are equally close, or <code>null</code> if there are none.
+     */
+    private static Square closest(Board board, Square from, List<Square> squares) {
+        int width = board.getWidth();
+        int height = board.getHeight();
+        int x = from.getIndex() % width;
+        int y = from.getIndex() / width;
+        Square closest = null;
+        int shortest = Integer.MAX_VALUE;
+        for (Square square : squares) {
+            int index = square.getIndex();
+            int distance = wrap(index % width - x, width) + wrap(index / width - y, height);
+            if (distance < shortest
+                || distance == shortest && index < closest.getIndex()) {
+                closest = square;
+                shortest = distance;
             }
-            visited.add(square);
-            for (Direction direction : Direction.values()) {
-                Square newTarget = square.getSquareAt(direction);
-                if (!visited.contains(newTarget) && !toDo.contains(newTarget)) {
-                    toDo.add(newTarget);
+        }
+        return closest;
+    }
+
+    /**
+     * @param delta
+     *            The difference between two coordinates.
+     * @param size
+     *            The size of the board along the coordinate.
+     * @return The shortest distance between the coordinates, going either way
+     *         around the board.
+     */
+    private static int wrap(int delta, int size) {
+        int distance = Math.abs(delta);
+        return Math.min(distance, size - distance);
+    }
+
+    /**
+     * Finds the nearest square holding a unit of a type by BFS, regardless of
+     * terrain. The search completes the round of squares at the distance of
+     * the first match, to find the one with the lowest index.
+     *
+     * @param board
+     *            The board the square is on.
+     * @param type
+     *            The type of unit to search for.
+     * @param from
+     *            The starting square.
+     * @return The nearest square with a unit of the type, or
+     *         <code>null</code> if there is none.
+     */
+    private static Square searchNearest(Board board, Class<? extends Unit> type,
+                                        Square from) {
+        SearchSpace space = SEARCH_SPACE.get();
+        space.reset(board.getWidth() * board.getHeight());
+        space.enqueue(from.getIndex(), from.getIndex(), null);
+        Square nearest = null;
+        while (!space.isEmpty()) {
+            int id = space.dequeue();
+            if (nearest == null) {
+                Square square = board.squareAtIndex(id);
+                if (findUnit(type, square) != null) {
+                    nearest = square;
+                } else {
+                    space.enqueueNeighbours(board, id, null, -1);
                 }
+            } else if (space.depthOf(id) > space.depthOf(nearest.getIndex())) {
+                break;
+            } else if (id < nearest.getIndex()
+                && findUnit(type, board.squareAtIndex(id)) != null) {
+                nearest = board.squareAtIndex(id);
             }
         }
-        return null;
+        return nearest;
     }
 
     /**
      *  Finds a subtype of Unit in a level.
      *  This method is very useful for finding the ghosts in the parsed map.
+     *  The unit is looked up in the index of the board.
      *
      * @param clazz the type to search for.
      * @param board the board to find the unit in.
      * @param <T> the return type, same as the type in clazz.
      *
-     * @return the first unit found of type clazz, or null.
+     * @return the first unit found of type clazz, going row by row from the
+     *         top left of the board, or null.
      */
     public static <T extends Unit> T findUnitInBoard(Class<T> clazz, Board board) {
-        for (int y = 0; y < board.getHeight(); y++) {
-            for (int x = 0; x < board.getWidth(); x++) {
-                final T ghost = Navigation.findUnit(clazz, board.squareAt(x, y));
-                if (ghost != null) {
-                    return ghost;
-                }
-            }
+        Square square = board.getUnits().firstSquareOf(clazz);
+        if (square == null) {
+            return null;
         }
-
-        return null;
+        return findUnit(clazz, square);
     }
 
     /**
@@ -146,7 +273,8 @@ public final class Navigation {
      */
     @SuppressWarnings("unchecked")
     public static <T extends Unit> T findUnit(Class<T> type, Square square) {
-        for (Unit unit : square.getOccupants()) {
+        for (int i = 0; i < square.getOccupantCount(); i++) {
+            Unit unit = square.getOccupant(i);
             if (type.isInstance(unit)) {
                 assert unit.hasSquare();
                 return (T) unit;
@@ -156,80 +284,186 @@ public final class Navigation {
     }
 
     /**
-     * Helper class to keep track of the path.
-     *
-     * @author Jeroen Roosen
+     * The scratch memory of a breadth first search over the squares of a
+     * board, identified by their index. Each thread keeps one around and
+     * reuses it for every search, so a search allocates nothing but its
+     * result. Instead of being cleared, the visited marks are invalidated by
+     * moving on to a new stamp.
      */
-    private static final class Node {
+    private static final class SearchSpace {
+
+        /**
+         * The stamp each square was last visited with.
+         */
+        private int[] visited = new int[0];
+
+        /**
+         * The stamp of the current search.
+         */
+        private int stamp;
+
+        /**
+         * The index of the square each visited square was reached from.
+         */
+        private int[] parents = new int[0];
+
+        /**
+         * The direction each visited square was reached in.
+         */
+        private Direction[] moves = new Direction[0];
+
+        /**
+         * The number of steps from the start to each visited square.
+         */
+        private int[] depths = new int[0];
+
+        /**
+         * The indices of the squares to visit, from <code>head</code> up to
+         * <code>tail</code>. Every square is enqueued at most once per
+         * search, so the queue never wraps.
+         */
+        private int[] queue = new int[0];
+
+        /**
+         * The indices of the neighbours of the square being visited.
+         */
+        private final int[] neighbours = new int[Square.NEIGHBOUR_COUNT];
 
         /**
-         * The direction for this node, which is <code>null</code> for the root
-         * node.
+         * The position of the next square to visit.
          */
-        private final Direction direction;
+        private int head;
 
         /**
-         * The parent node, which is <code>null</code> for the root node.
+         * The position the next square to visit is stored at.
          */
-        private final Node parent;
+        private int tail;
 
         /**
-         * The square associated with this node.
+         * Prepares for a new search over a board, resizing the space if it
+         * is too small, or far too large, for the board.
+         *
+         * @param size
+         *            The number of squares on the board.
          */
-        private final Square square;
+        private void reset(int size) {
+            if (visited.length < size
+                || visited.length > Math.max(size * 2, RETAINED_SQUARES)) {
+                visited = new int[size];
+                parents = new int[size];
+                moves = new Direction[size];
+                depths = new int[size];
+                queue = new int[size];
+                stamp = 0;
+            }
+            head = 0;
+            tail = 0;
+            stamp++;
+            if (stamp == 0) {
+                Arrays.fill(visited, 0);
+                stamp = 1;
+            }
+        }
 
         /**
-         * Creates a new node.
+         * Marks a square as visited and adds it to the queue.
          *
-         * @param direction
-         *            The direction, which is <code>null</code> for the root
-         *            node.
-         * @param square
-         *            The square.
+         * @param id
+         *            The index of the square to visit.
          * @param parent
-         *            The parent node, which is <code>null</code> for the root
-         *            node.
+         *            The index of the square it was reached from.
+         * @param move
+         *            The direction it was reached in, or <code>null</code>
+         *            for the start of the search.
+         */
+        private void enqueue(int id, int parent, Direction move) {
+            visited[id] = stamp;
+            parents[id] = parent;
+            moves[id] = move;
+            if (move == null) {
+                depths[id] = 0;
+            } else {
+                depths[id] = depths[parent] + 1;
+            }
+            queue[tail++] = id;
+        }
+
+        /**
+         * Visits the neighbours of a square that have not been visited yet
+         * and are accessible to a traveller.
+         *
+         * @param board
+         *            The board searched.
+         * @param id
+         *            The index of the square to visit the neighbours of.
+         * @param traveller
+         *            The traveller, or <code>null</code> to ignore terrain.
+         * @param goal
+         *            The index of the square searched for, or
+         *            <code>-1</code> if none.
+         * @return <code>true</code> iff the goal was among the neighbours.
+         */
+        private boolean enqueueNeighbours(Board board, int id, Unit traveller, int goal) {
+            board.getNeighbourIndices(id, neighbours);
+            for (Direction direction : DIRECTIONS) {
+                int next = neighbours[direction.ordinal()];
+                if (!isVisited(next)
+                    && (traveller == null || board.isAccessibleAt(next, traveller))) {
+                    enqueue(next, id, direction);
+                    if (next == goal) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @param id
+         *            The index of a square visited in the current search.
+         * @return The number of steps from the start to the square.
          */
-        Node(Direction direction, Square square, Node parent) {
-            this.direction = direction;
-            this.square = square;
-            this.parent = parent;
+        private int depthOf(int id) {
+            return depths[id];
         }
 
         /**
-         * @return The direction for this node, or <code>null</code> if this
-         *         node is a root node.
+         * @return <code>true</code> iff there are no squares left to visit.
          */
-        private Direction getDirection() {
-            return direction;
+        private boolean isEmpty() {
+            return head == tail;
         }
 
         /**
-         * @return The square for this node.
+         * @return The index of the next square to visit.
          */
-        private Square getSquare() {
-            return square;
+        private int dequeue() {
+            return queue[head++];
         }
 
         /**
-         * @return The parent node, or <code>null</code> if this node is a root
-         *         node.
+         * @param id
+         *            The index of a square.
+         * @return <code>true</code> iff the square has been visited in the
+         *         current search.
          */
-        private Node getParent() {
-            return parent;
+        private boolean isVisited(int id) {
+            return visited[id] == stamp;
         }
 
         /**
-         * Returns the list of values from the root of the tree to this node.
+         * Retraces the steps from the start of the search to a visited square.
          *
-         * @return The list of values from the root of the tree to this node.
+         * @param id
+         *            The index of the visited square.
+         * @return The directions leading from the start to the square.
          */
-        private List<Direction> getPath() {
-            if (parent == null) {
-                return new ArrayList<>();
+        private List<Direction> pathTo(int id) {
+            List<Direction> path = new ArrayList<>(depths[id]);
+            for (int current = id; moves[current] != null; current = parents[current]) {
+                path.add(moves[current]);
             }
-            List<Direction> path = parent.getPath();
-            path.add(getDirection());
+            Collections.reverse(path);
             return path;
         }
     }
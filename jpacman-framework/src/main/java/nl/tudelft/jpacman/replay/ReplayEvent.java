@@ -0,0 +1,191 @@
+package nl.tudelft.jpacman.replay;
+
+import java.util.Objects;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.level.Level;
+
+/**
+ * An event of a recorded level.
+ */
+public final class ReplayEvent {
+
+    /**
+     * The kinds of events, as reported to a {@link Level.Recorder}.
+     */
+    public enum Type {
+
+        /**
+         * The NPCs have been seeded.
+         */
+        SEED,
+
+        /**
+         * A unit has moved, or has tried to.
+         */
+        MOVE,
+
+        /**
+         * The level has been started or resumed.
+         */
+        START,
+
+        /**
+         * The level has been stopped.
+         */
+        STOP,
+
+        /**
+         * The level has been frozen or unfrozen.
+         */
+        FREEZE
+    }
+
+    /**
+     * The kind of event.
+     */
+    private final Type type;
+
+    /**
+     * The tick at which the event happened.
+     */
+    private final long tick;
+
+    /**
+     * The number of the unit that moved, or -1.
+     */
+    private final int unit;
+
+    /**
+     * The direction of the move, or <code>null</code>.
+     */
+    private final Direction direction;
+
+    /**
+     * The seed of the NPCs, or 0.
+     */
+    private final long seed;
+
+    /**
+     * Creates a new event.
+     *
+     * @param type
+     *            The kind of event.
+     * @param tick
+     *            The tick at which the event happened.
+     * @param unit
+     *            The number of the unit that moved, or -1.
+     * @param direction
+     *            The direction of the move, or <code>null</code>.
+     * @param seed
+     *            The seed of the NPCs, or 0.
+     */
+    private ReplayEvent(Type type, long tick, int unit, Direction direction, long seed) {
+        this.type = type;
+        this.tick = tick;
+        this.unit = unit;
+        this.direction = direction;
+        this.seed = seed;
+    }
+
+    /**
+     * @param tick
+     *            The tick of the event.
+     * @param seed
+     *            The seed of the NPCs.
+     * @return An event seeding the NPCs.
+     */
+    public static ReplayEvent seeded(long tick, long seed) {
+        return new ReplayEvent(Type.SEED, tick, -1, null, seed);
+    }
+
+    /**
+     * @param tick
+     *            The tick of the event.
+     * @param unit
+     *            The number of the unit, see {@link Level#getUnitId}.
+     * @param direction
+     *            The direction of the move.
+     * @return An event moving a unit.
+     */
+    public static ReplayEvent moved(long tick, int unit, Direction direction) {
+        assert unit >= 0;
+        assert direction != null;
+        return new ReplayEvent(Type.MOVE, tick, unit, direction, 0L);
+    }
+
+    /**
+     * @param type
+     *            {@link Type#START}, {@link Type#STOP} or {@link Type#FREEZE}.
+     * @param tick
+     *            The tick of the event.
+     * @return An event changing the state of the level.
+     */
+    public static ReplayEvent of(Type type, long tick) {
+        assert type != Type.SEED && type != Type.MOVE;
+        return new ReplayEvent(type, tick, -1, null, 0L);
+    }
+
+    /**
+     * @return The kind of event.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The tick at which the event happened.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return The number of the unit that moved, or -1 if this is not a move.
+     */
+    public int getUnit() {
+        return unit;
+    }
+
+    /**
+     * @return The direction of the move, or <code>null</code> if this is not a
+     *         move.
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return The seed of the NPCs, or 0 if this is not a seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof ReplayEvent)) {
+            return false;
+        }
+        ReplayEvent event = (ReplayEvent) other;
+        return type == event.type && tick == event.tick && unit == event.unit
+            && direction == event.direction && seed == event.seed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, tick, unit, direction, seed);
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case SEED:
+                return tick + " SEED " + seed;
+            case MOVE:
+                return tick + " MOVE " + unit + " " + direction;
+            default:
+                return tick + " " + type;
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package nl.tudelft.jpacman.replay;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.LevelSnapshot;
+import nl.tudelft.jpacman.level.LevelTemplate;
+import nl.tudelft.jpacman.level.ManualTickEngine;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+/**
+ * Plays back a recorded level headlessly, as fast as it can.
+ *
+ * <p>
+ * Playback reconstructs the level from its map and applies every recorded
+ * move, of the NPCs as well as the players, so it reproduces the recorded
+ * game exactly however its moves were interleaved. While playing, it keeps a
+ * {@link LevelSnapshot snapshot} of the level every
+ * {@link #withKeyframeInterval(long) interval} ticks, so
+ * {@link #seek(long) seeking} back to any tick takes no more than an interval
+ * of moves.
+ * </p>
+ *
+ * <p>
+ * {@link #simulate()} plays the recording the other way round: it only
+ * applies the moves of the players and lets the NPCs move by themselves from
+ * the recorded seed, tick by tick, checking that they make the recorded moves.
+ * {@link #verify()} checks that this reproduces the whole recording and ends
+ * in the same state. This holds for levels driven tick by tick, as by a
+ * {@link ManualTickEngine}; in levels running in real time a player may move
+ * between the NPC moves of a tick, which simulation cannot reproduce. Both
+ * assume ticks of {@link nl.tudelft.jpacman.level.FixedRateTickEngine#DEFAULT_TICK}
+ * milliseconds, and that the level got its ghosts from a fresh level factory.
+ * </p>
+ */
+public class ReplayPlayer {
+
+    /**
+     * The default number of ticks between keyframes.
+     */
+    public static final long DEFAULT_KEYFRAME_INTERVAL = 1000L;
+
+    /**
+     * The template of the recorded level.
+     */
+    private final LevelTemplate template;
+
+    /**
+     * The sprites of the units.
+     */
+    private final PacManSprites sprites;
+
+    /**
+     * The recorded events, in order.
+     */
+    private final List<ReplayEvent> events;
+
+    /**
+     * The number of NPCs of the level, which is the number of the first
+     * player.
+     */
+    private final int npcCount;
+
+    /**
+     * The number of players of the level.
+     */
+    private final int playerCount;
+
+    /**
+     * The number of ticks between keyframes.
+     */
+    private long keyframeInterval = DEFAULT_KEYFRAME_INTERVAL;
+
+    /**
+     * The keyframes so far, the one at index <code>k</code> holding the level
+     * at tick <code>k * keyframeInterval</code>.
+     */
+    private final List<Keyframe> keyframes = new ArrayList<>();
+
+    /**
+     * The level being played back, or <code>null</code> before playback.
+     */
+    private Level level;
+
+    /**
+     * The index of the next event to apply.
+     */
+    private int position;
+
+    /**
+     * The tick the level is at: all events before it have been applied.
+     */
+    private long cursor;
+
+    /**
+     * Creates a new player of a recording.
+     *
+     * @param template
+     *            The template of the map the recording was made on.
+     * @param sprites
+     *            The sprites of the units.
+     * @param events
+     *            The recorded events, in order, starting with the seed.
+     */
+    public ReplayPlayer(LevelTemplate template, PacManSprites sprites, List<ReplayEvent> events) {
+        assert !events.isEmpty() && events.get(0).getType() == ReplayEvent.Type.SEED;
+        this.template = template;
+        this.sprites = sprites;
+        this.events = new ArrayList<>(events);
+        Level probe = createLevel();
+        int npcs = 0;
+        while (probe.getUnit(npcs) != null) {
+            npcs++;
+        }
+        int lastUnit = npcs;
+        for (ReplayEvent event : events) {
+            lastUnit = Math.max(lastUnit, event.getUnit());
+        }
+        this.npcCount = npcs;
+        this.playerCount = lastUnit - npcs + 1;
+    }
+
+    /**
+     * Sets the number of ticks between keyframes. Fewer ticks make seeking
+     * faster but take more memory.
+     *
+     * @param ticks
+     *            The number of ticks between keyframes.
+     * @return This player.
+     */
+    public ReplayPlayer withKeyframeInterval(long ticks) {
+        assert ticks > 0;
+        assert level == null;
+        this.keyframeInterval = ticks;
+        return this;
+    }
+
+    /**
+     * Plays back the whole recording.
+     *
+     * @return The state at the end of the recording.
+     */
+    public ReplayResult playToEnd() {
+        seek(events.get(events.size() - 1).getTick() + 1);
+        return getResult();
+    }
+
+    /**
+     * Brings the level to the start of a tick, with all moves made before it,
+     * starting from the nearest keyframe at or before the tick if it is not
+     * already on its way there.
+     *
+     * @param tick
+     *            The tick to go to.
+     * @return The level at the tick, which is changed by further seeking.
+     */
+    public Level seek(long tick) {
+        assert tick >= 0;
+        if (level == null) {
+            start();
+        }
+        int index = (int) Math.min(tick / keyframeInterval, keyframes.size() - 1);
+        Keyframe keyframe = keyframes.get(index);
+        if (tick < cursor || keyframe.tick > cursor) {
+            keyframe.restore();
+        }
+        while (position < events.size() && events.get(position).getTick() < tick) {
+            ReplayEvent event = events.get(position);
+            captureUntil(event.getTick());
+            apply(event);
+            position++;
+        }
+        cursor = tick;
+        return level;
+    }
+
+    /**
+     * @return The state of the level played back so far.
+     */
+    public ReplayResult getResult() {
+        assert level != null;
+        return new ReplayResult(level, npcCount, cursor, -1);
+    }
+
+    /**
+     * Creates the level to play back and its first keyframe.
+     */
+    private void start() {
+        level = createLevel();
+        level.start();
+        keyframes.add(new Keyframe());
+    }
+
+    /**
+     * Takes the keyframes up to and including a tick that have not been
+     * taken yet. Must be called before applying the first event of the tick.
+     *
+     * @param tick
+     *            The tick of the next event.
+     */
+    private void captureUntil(long tick) {
+        long next = keyframes.size() * keyframeInterval;
+        while (next <= tick) {
+            keyframes.add(new Keyframe());
+            next += keyframeInterval;
+        }
+    }
+
+    /**
+     * Applies an event to the level being played back. Only moves change it.
+     *
+     * @param event
+     *            The event.
+     */
+    private void apply(ReplayEvent event) {
+        if (event.getType() == ReplayEvent.Type.MOVE) {
+            level.move(level.getUnit(event.getUnit()), event.getDirection());
+        }
+    }
+
+    /**
+     * Simulates the recording: only the moves of the players are applied,
+     * while the NPCs move by themselves, and every event of the level is
+     * checked against the recording.
+     *
+     * @return The state at the end of the simulation, with the index of the
+     *         first event it did not reproduce.
+     */
+    public ReplayResult simulate() {
+        Level simulated = createLevel();
+        simulated.setSeed(events.get(0).getSeed());
+        Verifier verifier = new Verifier();
+        simulated.setRecorder(verifier);
+        while (verifier.index < events.size() && verifier.divergence < 0) {
+            ReplayEvent event = events.get(verifier.index);
+            long tick = simulated.getTick();
+            if (tick < event.getTick() && simulated.isInProgress() && !simulated.isFrozen()) {
+                simulated.step();
+            } else if (tick == event.getTick() && event.getType() == ReplayEvent.Type.MOVE
+                && event.getUnit() < npcCount) {
+                verifier.divergence = verifier.index;
+            } else if (tick == event.getTick()) {
+                simulate(simulated, event);
+            } else {
+                verifier.divergence = verifier.index;
+            }
+        }
+        simulated.setRecorder(null);
+        return new ReplayResult(simulated, npcCount, simulated.getTick(), verifier.divergence);
+    }
+
+    /**
+     * Applies an event that does not come from the NPCs to a simulated level.
+     *
+     * @param simulated
+     *            The simulated level.
+     * @param event
+     *            The event.
+     */
+    private static void simulate(Level simulated, ReplayEvent event) {
+        switch (event.getType()) {
+            case SEED:
+                simulated.setSeed(event.getSeed());
+                break;
+            case MOVE:
+                simulated.move(simulated.getUnit(event.getUnit()), event.getDirection());
+                break;
+            case START:
+                simulated.start();
+                break;
+            case STOP:
+                simulated.stop();
+                break;
+            default:
+                simulated.freeze();
+                break;
+        }
+    }
+
+    /**
+     * Checks that simulating the recording reproduces all of its events and
+     * ends in the same state as playing it back.
+     *
+     * @return <code>true</code> iff the recording is reproduced.
+     */
+    public boolean verify() {
+        ReplayResult simulated = simulate();
+        return simulated.getDivergence() < 0 && simulated.hasSameOutcome(playToEnd());
+    }
+
+    /**
+     * @return A new level of the recording, with its players registered.
+     */
+    private Level createLevel() {
+        Level created = template.createLevel(new LevelFactory(sprites,
+            new GhostFactory(sprites), new ManualTickEngine(), new Random()));
+        PlayerFactory playerFactory = new PlayerFactory(sprites);
+        for (int i = 0; i < playerCount; i++) {
+            created.registerPlayer(playerFactory.createPacMan());
+        }
+        return created;
+    }
+
+    /**
+     * A recorder checking the events of a simulated level against the
+     * recording.
+     */
+    private final class Verifier implements Level.Recorder {
+
+        /**
+         * The index of the next event expected.
+         */
+        private int index;
+
+        /**
+         * The index of the first event that was not reproduced, or -1.
+         */
+        private int divergence = -1;
+
+        /**
+         * Checks the next event.
+         *
+         * @param event
+         *            The event of the simulated level.
+         */
+        private void check(ReplayEvent event) {
+            if (divergence < 0 && (index >= events.size() || !events.get(index).equals(event))) {
+                divergence = index;
+            }
+            index++;
+        }
+
+        @Override
+        public void seeded(long tick, long seed) {
+            check(ReplayEvent.seeded(tick, seed));
+        }
+
+        @Override
+        public void moved(long tick, int unit, Direction direction) {
+            check(ReplayEvent.moved(tick, unit, direction));
+        }
+
+        @Override
+        public void started(long tick) {
+            check(ReplayEvent.of(ReplayEvent.Type.START, tick));
+        }
+
+        @Override
+        public void stopped(long tick) {
+            check(ReplayEvent.of(ReplayEvent.Type.STOP, tick));
+        }
+
+        @Override
+        public void frozen(long tick) {
+            check(ReplayEvent.of(ReplayEvent.Type.FREEZE, tick));
+        }
+    }
+
+    /**
+     * The level being played back at a tick.
+     */
+    private final class Keyframe {
+
+        /**
+         * The tick of this keyframe.
+         */
+        private final long tick;
+
+        /**
+         * The index of the first event at or after the tick.
+         */
+        private final int eventIndex;
+
+        /**
+         * The state of the level at the tick.
+         */
+        private final LevelSnapshot snapshot;
+
+        /**
+         * Takes a keyframe of the level being played back, at the tick of the
+         * next keyframe.
+         */
+        Keyframe() {
+            this.tick = keyframes.size() * keyframeInterval;
+            this.eventIndex = position;
+            this.snapshot = new LevelSnapshot(level);
+        }
+
+        /**
+         * Brings the level being played back to this keyframe.
+         */
+        void restore() {
+            snapshot.restore(level);
+            position = eventIndex;
+            cursor = tick;
+        }
+    }
+}
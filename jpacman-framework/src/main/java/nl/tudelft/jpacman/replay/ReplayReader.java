@@ -0,0 +1,179 @@
+package nl.tudelft.jpacman.replay;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Direction;
+
+/**
+ * Reads back the events written by a {@link ReplayRecorder}, in the order in
+ * which they happened. A recording that was cut off, such as by a crash, is
+ * read up to its last complete event.
+ */
+public final class ReplayReader implements Iterator<ReplayEvent> {
+
+    /**
+     * The directions, by their code.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The number of bits a varint can hold.
+     */
+    private static final int VARINT_LIMIT = 64;
+
+    /**
+     * The recording, positioned after the next event.
+     */
+    private final ByteBuffer in;
+
+    /**
+     * The tick of the last event read.
+     */
+    private long tick;
+
+    /**
+     * The next event, or <code>null</code> at the end of the recording.
+     */
+    private ReplayEvent next;
+
+    /**
+     * Creates a reader of a recording in memory.
+     *
+     * @param recording
+     *            The recording, positioned at its header.
+     * @throws PacmanConfigurationException
+     *             If the data is not a recording.
+     */
+    public ReplayReader(ByteBuffer recording) {
+        this.in = recording;
+        if (in.remaining() < Integer.BYTES + 1
+            || in.getInt() != ReplayRecorder.MAGIC || in.get() != ReplayRecorder.VERSION) {
+            throw new PacmanConfigurationException(
+                "Not a replay of version " + ReplayRecorder.VERSION);
+        }
+        this.next = readEvent();
+    }
+
+    /**
+     * Creates a reader of a recording file, which is mapped into memory.
+     *
+     * @param file
+     *            The file written by a {@link ReplayRecorder}.
+     * @return A reader of the events in the file.
+     * @throws IOException
+     *             If the file could not be read.
+     * @throws PacmanConfigurationException
+     *             If the file is not a recording.
+     */
+    public static ReplayReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ReplayReader(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                channel.size()));
+        }
+    }
+
+    /**
+     * Reads all events of a recording file.
+     *
+     * @param file
+     *            The file written by a {@link ReplayRecorder}.
+     * @return The events in the file, in order.
+     * @throws IOException
+     *             If the file could not be read.
+     * @throws PacmanConfigurationException
+     *             If the file is not a recording.
+     */
+    public static List<ReplayEvent> readAll(Path file) throws IOException {
+        List<ReplayEvent> events = new ArrayList<>();
+        open(file).forEachRemaining(events::add);
+        return events;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public ReplayEvent next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        ReplayEvent event = next;
+        next = readEvent();
+        return event;
+    }
+
+    /**
+     * Reads the next event.
+     *
+     * @return The event, or <code>null</code> if the recording ends before
+     *         it does.
+     * @throws PacmanConfigurationException
+     *             If the event is not valid.
+     */
+    private ReplayEvent readEvent() {
+        if (!in.hasRemaining()) {
+            return null;
+        }
+        try {
+            long value = readVarint();
+            tick += value >>> ReplayRecorder.CODE_BITS;
+            int code = (int) (value & (1 << ReplayRecorder.CODE_BITS) - 1);
+            switch (code) {
+                case ReplayRecorder.SEED:
+                    return ReplayEvent.seeded(tick, in.getLong());
+                case ReplayRecorder.START:
+                    return ReplayEvent.of(ReplayEvent.Type.START, tick);
+                case ReplayRecorder.STOP:
+                    return ReplayEvent.of(ReplayEvent.Type.STOP, tick);
+                case ReplayRecorder.FREEZE:
+                    return ReplayEvent.of(ReplayEvent.Type.FREEZE, tick);
+                default:
+                    return readMove(code);
+            }
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the rest of a move.
+     *
+     * @param code
+     *            The code of the move.
+     * @return The move.
+     */
+    private ReplayEvent readMove(int code) {
+        long unit = readVarint();
+        if (code >= DIRECTIONS.length || unit > Integer.MAX_VALUE) {
+            throw new PacmanConfigurationException("Invalid move at tick " + tick);
+        }
+        return ReplayEvent.moved(tick, (int) unit, DIRECTIONS[code]);
+    }
+
+    /**
+     * @return The next varint of the recording.
+     */
+    private long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < VARINT_LIMIT; shift += ReplayRecorder.VARINT_SHIFT) {
+            int part = in.get();
+            value |= (long) (part & ReplayRecorder.VARINT_BITS) << shift;
+            if ((part & ReplayRecorder.VARINT_MORE) == 0) {
+                return value;
+            }
+        }
+        throw new PacmanConfigurationException("Invalid number at tick " + tick);
+    }
+}
@@ -0,0 +1,400 @@
+package nl.tudelft.jpacman.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.level.Level;
+
+/**
+ * Records the events of a level into a compact binary file, from which a
+ * {@link ReplayReader} reads them back. Attach it with
+ * {@link Level#setRecorder(Level.Recorder)} and close it when done.
+ *
+ * <p>
+ * A recording starts with the {@link #MAGIC} number and the {@link #VERSION}
+ * of the format, as a byte. Each event follows as a varint holding the number
+ * of ticks since the previous event, shifted left by {@link #CODE_BITS}, with
+ * the code of the event in the lowest bits: the ordinal of the direction for
+ * moves, which are followed by the varint number of the unit, or one of
+ * {@link #SEED} (followed by the seed as a long), {@link #START},
+ * {@link #STOP} and {@link #FREEZE}. A move thus typically takes two bytes.
+ * Varints hold seven bits per byte, least significant first, with the high
+ * bit set on all but the last byte.
+ * </p>
+ *
+ * <p>
+ * Events are written into a buffer allocated up front, so recording an event
+ * takes no allocation or I/O. Full buffers, and every
+ * {@link #FLUSH_INTERVAL} milliseconds whatever has been recorded, are queued
+ * for a shared background thread that writes them to the file and hands them
+ * back for reuse, while another buffer is filled. Recording never waits for
+ * the writer: should it not have handed a buffer back yet, a new one is
+ * allocated. Only {@link #flush()} and {@link #close()} wait for the writes.
+ * </p>
+ */
+public class ReplayRecorder implements Level.Recorder, Closeable {
+
+    /**
+     * The first four bytes of a recording: "JPRP".
+     */
+    static final int MAGIC = 0x4A505250;
+
+    /**
+     * The version of the format.
+     */
+    static final byte VERSION = 1;
+
+    /**
+     * The number of bits of an event holding its code.
+     */
+    static final int CODE_BITS = 3;
+
+    /**
+     * The code of an event seeding the NPCs. Lower codes are moves.
+     */
+    static final int SEED = 4;
+
+    /**
+     * The code of an event starting the level.
+     */
+    static final int START = 5;
+
+    /**
+     * The code of an event stopping the level.
+     */
+    static final int STOP = 6;
+
+    /**
+     * The code of an event freezing or unfreezing the level.
+     */
+    static final int FREEZE = 7;
+
+    /**
+     * The bits of a varint byte holding the number.
+     */
+    static final int VARINT_BITS = 0x7F;
+
+    /**
+     * The bit of a varint byte marking that more bytes follow.
+     */
+    static final int VARINT_MORE = 0x80;
+
+    /**
+     * The number of bits of the number in a varint byte.
+     */
+    static final int VARINT_SHIFT = 7;
+
+    /**
+     * The interval in milliseconds at which recorded events are written.
+     */
+    public static final long FLUSH_INTERVAL = 1000L;
+
+    /**
+     * The size of each buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = 65_536;
+
+    /**
+     * The maximum size of an event in bytes.
+     */
+    private static final int MAX_EVENT_SIZE = 32;
+
+    /**
+     * The thread writing the buffers of all recorders, in the order they
+     * were queued. It never waits for a recorder, so recorders can wait for
+     * it.
+     */
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(
+        runnable -> daemon(runnable, "jpacman-replay-writer"));
+
+    /**
+     * The thread periodically handing the buffers of all recorders to the
+     * {@link #WRITER}.
+     */
+    private static final ScheduledExecutorService FLUSHER =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> daemon(runnable, "jpacman-replay-flusher"));
+
+    /**
+     * The file being written.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The periodic flush of this recorder.
+     */
+    private final Future<?> flusher;
+
+    /**
+     * The full buffers waiting to be written, oldest first.
+     */
+    private final Queue<ByteBuffer> queued = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The buffers written and free to be filled again.
+     */
+    private final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The buffer events are recorded into.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * The write of the most recently queued buffer, which finishes after
+     * those of all buffers queued before it, or <code>null</code>.
+     */
+    private Future<?> pending;
+
+    /**
+     * The tick of the previous event.
+     */
+    private long lastTick;
+
+    /**
+     * The first failure to write the file, after which nothing more is
+     * recorded, or <code>null</code>.
+     */
+    private volatile IOException failure;
+
+    /**
+     * <code>true</code> iff this recorder has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a recorder writing a new file, replacing any existing file.
+     *
+     * @param file
+     *            The file to write.
+     * @throws IOException
+     *             If the file could not be created.
+     */
+    public ReplayRecorder(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.putInt(MAGIC).put(VERSION);
+        this.flusher = FLUSHER.scheduleWithFixedDelay(this::flushInBackground,
+            FLUSH_INTERVAL, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param runnable
+     *            The task of a thread.
+     * @param name
+     *            The name of the thread.
+     * @return A new daemon thread running the task.
+     */
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    @Override
+    public synchronized void seeded(long tick, long seed) {
+        if (begin(tick, SEED)) {
+            buffer.putLong(seed);
+        }
+    }
+
+    @Override
+    public synchronized void moved(long tick, int unit, Direction direction) {
+        assert unit >= 0;
+        if (begin(tick, direction.ordinal())) {
+            putVarint(unit);
+        }
+    }
+
+    @Override
+    public synchronized void started(long tick) {
+        begin(tick, START);
+    }
+
+    @Override
+    public synchronized void stopped(long tick) {
+        begin(tick, STOP);
+    }
+
+    @Override
+    public synchronized void frozen(long tick) {
+        begin(tick, FREEZE);
+    }
+
+    /**
+     * Starts recording an event, making room for it first if needed.
+     *
+     * @param tick
+     *            The tick of the event.
+     * @param code
+     *            The code of the event.
+     * @return <code>true</code> iff the event is being recorded, and the rest
+     *         of it should be put in the buffer.
+     */
+    private boolean begin(long tick, int code) {
+        if (closed || failure != null) {
+            return false;
+        }
+        if (buffer.remaining() < MAX_EVENT_SIZE) {
+            handOff();
+        }
+        assert tick >= lastTick;
+        putVarint((tick - lastTick) << CODE_BITS | code);
+        lastTick = tick;
+        return true;
+    }
+
+    /**
+     * Puts a varint in the buffer.
+     *
+     * @param value
+     *            The non-negative number to put.
+     */
+    private void putVarint(long value) {
+        long rest = value;
+        while ((rest & ~VARINT_BITS) != 0) {
+            buffer.put((byte) (rest & VARINT_BITS | VARINT_MORE));
+            rest >>>= VARINT_SHIFT;
+        }
+        buffer.put((byte) rest);
+    }
+
+    /**
+     * Queues the recorded events for the writer thread and continues in a
+     * free buffer, without waiting for the writer.
+     */
+    private void handOff() {
+        buffer.flip();
+        queued.add(buffer);
+        buffer = free.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+        pending = WRITER.submit(this::writeQueued);
+    }
+
+    /**
+     * Writes the queued buffers to the file and frees them. Run by the
+     * writer thread.
+     *
+     * @return <code>null</code>.
+     * @throws IOException
+     *             If the file could not be written, which is kept as the
+     *             failure of this recorder.
+     */
+    private Void writeQueued() throws IOException {
+        ByteBuffer full = queued.poll();
+        while (full != null && failure == null) {
+            try {
+                while (full.hasRemaining()) {
+                    channel.write(full);
+                }
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+            full.clear();
+            free.add(full);
+            full = queued.poll();
+        }
+        return null;
+    }
+
+    /**
+     * Waits for a write to finish, keeping its failure.
+     *
+     * @param write
+     *            The write to wait for, or <code>null</code>.
+     */
+    private void await(Future<?> write) {
+        if (write == null) {
+            return;
+        }
+        try {
+            write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = new IOException("Interrupted while writing replay", e);
+        } catch (ExecutionException e) {
+            if (failure == null) {
+                failure = new IOException("Could not write replay", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Queues the recorded events for the writer thread, if there are any.
+     */
+    private synchronized void flushInBackground() {
+        if (closed || failure != null || buffer.position() == 0) {
+            return;
+        }
+        handOff();
+    }
+
+    /**
+     * Writes all events recorded so far to the file, waiting for the writer
+     * thread without keeping events from being recorded meanwhile.
+     *
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    public void flush() throws IOException {
+        Future<?> write;
+        synchronized (this) {
+            if (!closed && failure == null && buffer.position() > 0) {
+                handOff();
+            }
+            write = pending;
+        }
+        await(write);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes all events recorded so far and closes the file. Events reported
+     * after closing are ignored.
+     *
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        Future<?> write;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            flusher.cancel(false);
+            if (failure == null && buffer.position() > 0) {
+                handOff();
+            }
+            closed = true;
+            write = pending;
+        }
+        try {
+            await(write);
+        } finally {
+            channel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package nl.tudelft.jpacman.replay;
+
+import java.util.Arrays;
+
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.Player;
+
+/**
+ * The state of a replayed level: the score, life and square of each player,
+ * the number of pellets left and the hash of the level.
+ */
+public final class ReplayResult {
+
+    /**
+     * The tick the state was reached at.
+     */
+    private final long tick;
+
+    /**
+     * The number of pellets left.
+     */
+    private final int remainingPellets;
+
+    /**
+     * The score of each player, in registration order.
+     */
+    private final int[] scores;
+
+    /**
+     * Whether each player is alive.
+     */
+    private final boolean[] alive;
+
+    /**
+     * The index of the square of each player.
+     */
+    private final int[] squares;
+
+    /**
+     * The hash of the level, see {@link Level#getHash()}.
+     */
+    private final long hash;
+
+    /**
+     * The index of the first event a simulation did not reproduce, or -1.
+     */
+    private final int divergence;
+
+    /**
+     * Takes the state of a level.
+     *
+     * @param level
+     *            The level.
+     * @param firstPlayer
+     *            The number of the first player, see
+     *            {@link Level#getUnitId(Unit)}.
+     * @param tick
+     *            The tick the state was reached at.
+     * @param divergence
+     *            The index of the first event a simulation did not reproduce,
+     *            or -1.
+     */
+    ReplayResult(Level level, int firstPlayer, long tick, int divergence) {
+        int players = 0;
+        while (level.getUnit(firstPlayer + players) != null) {
+            players++;
+        }
+        this.tick = tick;
+        this.remainingPellets = level.remainingPellets();
+        this.scores = new int[players];
+        this.alive = new boolean[players];
+        this.squares = new int[players];
+        for (int i = 0; i < players; i++) {
+            Player player = (Player) level.getUnit(firstPlayer + i);
+            scores[i] = player.getScore();
+            alive[i] = player.isAlive();
+            squares[i] = player.getSquare().getIndex();
+        }
+        this.hash = level.getHash();
+        this.divergence = divergence;
+    }
+
+    /**
+     * @return The tick the state was reached at.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return The number of pellets left.
+     */
+    public int getRemainingPellets() {
+        return remainingPellets;
+    }
+
+    /**
+     * @param player
+     *            The index of a player, in registration order.
+     * @return The score of the player.
+     */
+    public int getScore(int player) {
+        return scores[player];
+    }
+
+    /**
+     * @param player
+     *            The index of a player, in registration order.
+     * @return <code>true</code> iff the player is alive.
+     */
+    public boolean isAlive(int player) {
+        return alive[player];
+    }
+
+    /**
+     * @param player
+     *            The index of a player, in registration order.
+     * @return The index of the square of the player.
+     */
+    public int getSquare(int player) {
+        return squares[player];
+    }
+
+    /**
+     * @return The hash of the level, see {@link Level#getHash()}.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * @return The index of the first recorded event a simulation of the
+     *         recording did not reproduce, or -1 if it reproduced all of
+     *         them (or this is not the result of a simulation).
+     */
+    public int getDivergence() {
+        return divergence;
+    }
+
+    /**
+     * Returns whether two results have the same outcome: the same pellets
+     * left, the same scores, lives and squares of the players and the same
+     * hash.
+     *
+     * @param other
+     *            The other result.
+     * @return <code>true</code> iff the results have the same outcome.
+     */
+    public boolean hasSameOutcome(ReplayResult other) {
+        return remainingPellets == other.remainingPellets
+            && Arrays.equals(scores, other.scores)
+            && Arrays.equals(alive, other.alive)
+            && Arrays.equals(squares, other.squares)
+            && hash == other.hash;
+    }
+
+    @Override
+    public String toString() {
+        return "tick " + tick + ": " + remainingPellets + " pellets, scores "
+            + Arrays.toString(scores) + ", alive " + Arrays.toString(alive)
+            + ", squares " + Arrays.toString(squares) + ", hash " + Long.toHexString(hash)
+            + ", divergence " + divergence;
+    }
+}
@@ -0,0 +1,261 @@
+package nl.tudelft.jpacman.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.ManualTickEngine;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+/**
+ * Plays many games of a map without a user interface, in parallel on all
+ * cores, and reports how they went. Every game is stepped on a virtual clock
+ * and seeded, so the same seed always gives the same game.
+ *
+ * <p>
+ * Each game gets its own level, parsed from the map, and its own player
+ * policy, so games share nothing but the (immutable) sprites and map, and
+ * the simulator scales with the number of cores.
+ * </p>
+ */
+public class BatchSimulator {
+
+    /**
+     * The default maximum number of ticks a game may last.
+     */
+    public static final long DEFAULT_MAX_TICKS = 100_000L;
+
+    /**
+     * The default time between two moves of the player in milliseconds.
+     */
+    public static final long DEFAULT_PLAYER_INTERVAL = 200L;
+
+    /**
+     * The number of games below which a task is not split any further.
+     */
+    private static final int GAMES_PER_TASK = 4;
+
+    /**
+     * The rows of the map to play.
+     */
+    private final List<String> map;
+
+    /**
+     * Creates a new policy for each game.
+     */
+    private final Supplier<? extends PlayerPolicy> policies;
+
+    /**
+     * The sprites for the units, shared by all games.
+     */
+    private final PacManSprites sprites;
+
+    /**
+     * The maximum number of ticks a game may last.
+     */
+    private long maxTicks = DEFAULT_MAX_TICKS;
+
+    /**
+     * The time between two moves of the player in milliseconds.
+     */
+    private long playerInterval = DEFAULT_PLAYER_INTERVAL;
+
+    /**
+     * The number of games to play at the same time.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Creates a new simulator.
+     *
+     * @param map
+     *            The rows of the map to play, as read by {@link MapParser}.
+     * @param policies
+     *            Creates a new policy for the player of each game.
+     */
+    public BatchSimulator(List<String> map, Supplier<? extends PlayerPolicy> policies) {
+        assert map != null;
+        assert policies != null;
+        this.map = new ArrayList<>(map);
+        this.policies = policies;
+        this.sprites = new PacManSprites();
+    }
+
+    /**
+     * Sets the maximum number of ticks a game may last, after which it
+     * counts as lost. {@value #DEFAULT_MAX_TICKS} by default.
+     *
+     * @param ticks
+     *            The maximum number of ticks.
+     * @return The simulator.
+     */
+    public BatchSimulator withMaxTicks(long ticks) {
+        assert ticks > 0;
+        this.maxTicks = ticks;
+        return this;
+    }
+
+    /**
+     * Sets the time between two moves of the player, which is
+     * {@value #DEFAULT_PLAYER_INTERVAL} milliseconds by default.
+     *
+     * @param millis
+     *            The time between two moves in (virtual) milliseconds.
+     * @return The simulator.
+     */
+    public BatchSimulator withPlayerInterval(long millis) {
+        assert millis > 0;
+        this.playerInterval = millis;
+        return this;
+    }
+
+    /**
+     * Sets the number of games to play at the same time, which is the
+     * number of available processors by default.
+     *
+     * @param threads
+     *            The number of games to play at the same time.
+     * @return The simulator.
+     */
+    public BatchSimulator withParallelism(int threads) {
+        assert threads > 0;
+        this.parallelism = threads;
+        return this;
+    }
+
+    /**
+     * Plays one game for each seed in a range.
+     *
+     * @param firstSeed
+     *            The first seed to play.
+     * @param endSeed
+     *            The seed after the last one to play.
+     * @return The aggregated results of the games.
+     */
+    public SimulationReport run(long firstSeed, long endSeed) {
+        assert firstSeed <= endSeed;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return new SimulationReport(pool.invoke(new Games(firstSeed, endSeed)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays a single game.
+     *
+     * @param seed
+     *            The seed for the randomness of the ghosts.
+     * @return The outcome of the game.
+     */
+    public GameResult play(long seed) {
+        ManualTickEngine engine = new ManualTickEngine();
+        LevelFactory levelFactory = new LevelFactory(sprites, new GhostFactory(sprites),
+            engine, new Random(seed));
+        Level level = new MapParser(levelFactory, new BoardFactory(sprites)).parseMap(map);
+        Player player = new PlayerFactory(sprites).createPacMan();
+        level.registerPlayer(player);
+        level.start();
+
+        long begin = System.nanoTime();
+        long ticks = play(level, player, policies.get(), engine.getTickMillis());
+        long nanos = System.nanoTime() - begin;
+        level.dispose();
+
+        boolean won = player.isAlive() && level.remainingPellets() == 0;
+        return new GameResult(seed, won, player.getScore(), ticks, nanos);
+    }
+
+    /**
+     * Steps a level until the game ends, letting the policy move the player
+     * at its interval.
+     *
+     * @param level
+     *            The level to play, which has been started.
+     * @param player
+     *            The player on the level.
+     * @param policy
+     *            The policy moving the player.
+     * @param tickMillis
+     *            The length of a tick in milliseconds.
+     * @return The number of ticks the game lasted.
+     */
+    private long play(Level level, Player player, PlayerPolicy policy, long tickMillis) {
+        long ticks = 0;
+        long budget = 0;
+        while (ticks < maxTicks && player.isAlive() && level.remainingPellets() > 0) {
+            if (budget <= 0) {
+                Direction direction = policy.nextMove(level, player);
+                if (direction != null) {
+                    level.move(player, direction);
+                }
+                budget += playerInterval;
+            }
+            level.step();
+            budget -= tickMillis;
+            ticks++;
+        }
+        return ticks;
+    }
+
+    /**
+     * Plays the games for a range of seeds, splitting the range over
+     * subtasks while it is large.
+     */
+    private final class Games extends RecursiveTask<List<GameResult>> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The first seed to play.
+         */
+        private final long first;
+
+        /**
+         * The seed after the last one to play.
+         */
+        private final long end;
+
+        /**
+         * Creates a new task.
+         *
+         * @param first
+         *            The first seed to play.
+         * @param end
+         *            The seed after the last one to play.
+         */
+        Games(long first, long end) {
+            this.first = first;
+            this.end = end;
+        }
+
+        @Override
+        protected List<GameResult> compute() {
+            if (end - first <= GAMES_PER_TASK) {
+                List<GameResult> results = new ArrayList<>();
+                for (long seed = first; seed < end; seed++) {
+                    results.add(play(seed));
+                }
+                return results;
+            }
+            long middle = first + (end - first) / 2;
+            Games left = new Games(first, middle);
+            left.fork();
+            List<GameResult> results = new Games(middle, end).compute();
+            results.addAll(left.join());
+            return results;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package nl.tudelft.jpacman.simulation;
+
+/**
+ * The outcome of a single simulated game.
+ */
+public final class GameResult {
+
+    /**
+     * The seed the game was played with.
+     */
+    private final long seed;
+
+    /**
+     * Whether the player ate all pellets.
+     */
+    private final boolean won;
+
+    /**
+     * The score of the player.
+     */
+    private final int score;
+
+    /**
+     * The number of ticks the game lasted.
+     */
+    private final long ticks;
+
+    /**
+     * The wall-clock time spent simulating the game in nanoseconds.
+     */
+    private final long nanos;
+
+    /**
+     * Creates a new result.
+     *
+     * @param seed
+     *            The seed the game was played with.
+     * @param won
+     *            Whether the player ate all pellets.
+     * @param score
+     *            The score of the player.
+     * @param ticks
+     *            The number of ticks the game lasted.
+     * @param nanos
+     *            The wall-clock time spent simulating the game in nanoseconds.
+     */
+    public GameResult(long seed, boolean won, int score, long ticks, long nanos) {
+        this.seed = seed;
+        this.won = won;
+        this.score = score;
+        this.ticks = ticks;
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return The seed the game was played with.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return <code>true</code> iff the player ate all pellets.
+     */
+    public boolean isWon() {
+        return won;
+    }
+
+    /**
+     * @return The score of the player.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return The number of ticks the game lasted.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * @return The wall-clock time spent simulating the game in nanoseconds.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,771 @@
+package nl.tudelft.jpacman.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Throwables;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.level.FixedRateTickEngine;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.LevelSnapshot;
+import nl.tudelft.jpacman.level.LevelTemplate;
+import nl.tudelft.jpacman.level.ManualTickEngine;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+/**
+ * A policy that plans its moves by Monte Carlo tree search, for soak-testing
+ * maps with a player that is hard to catch.
+ *
+ * <p>
+ * Before each move the policy takes a {@link LevelSnapshot snapshot} of the
+ * level and searches for the best move until its time budget runs out. Every
+ * playout restores the snapshot into a copy of the level, walks down the tree
+ * of player moves picking moves by the UCT rule, tries one new move and then
+ * plays a few random moves, stepping the copy between the moves of the player
+ * so the ghosts chase it with their own AIs. Since the snapshot includes the
+ * randomness of the ghosts, they behave in the copies exactly as they would
+ * in the level for the same moves of the player. A playout is worth nothing
+ * if the player dies, everything if it eats the last pellet, and in between
+ * more the more points it scores.
+ * </p>
+ *
+ * <p>
+ * The search runs on a pool of threads, each growing a tree of its own on a
+ * copy of its own, after which the visits of the first moves are added up
+ * and the most visited move is made. The copies are created from the
+ * template of the map, so the policy can only play levels of that map, which
+ * must be stepped by the caller, as by the {@link BatchSimulator}. The pool
+ * is made of daemon threads, which are stopped by {@link #close()}. If the
+ * caller is interrupted while waiting for a move, the searches are cancelled
+ * and no move is made; the next move starts over with new threads and copies,
+ * while the old copies are disposed of once their searches have stopped.
+ * </p>
+ *
+ * <p>
+ * The random moves of the playouts are seeded for every move and thread from
+ * the seed, tick and hash of the level, so they do not depend on anything
+ * but the level. By default the search is bounded by time, though, so how far
+ * it gets, and thus the move made, still depends on the speed of the machine.
+ * Policies bounded by a number of playouts per move instead, through
+ * {@link #withPlayouts(int)}, make the same moves in the same levels on every
+ * run, so games played by a {@link BatchSimulator} with them are as
+ * reproducible as its seeds.
+ * </p>
+ */
+public class MctsPolicy implements PlayerPolicy, AutoCloseable {
+
+    /**
+     * The default time to search for each move in milliseconds.
+     */
+    public static final long DEFAULT_MOVE_BUDGET = 40L;
+
+    /**
+     * The default number of random moves at the end of each playout.
+     */
+    public static final int DEFAULT_ROLLOUT_MOVES = 8;
+
+    /**
+     * The default weight of exploring moves rather than exploiting them.
+     */
+    public static final double DEFAULT_EXPLORATION = 1.4;
+
+    /**
+     * The directions, in the order of the children of nodes.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The value of a playout in which the player survives without scoring.
+     */
+    private static final double SURVIVAL = 0.5;
+
+    /**
+     * The odd constant mixed into the seeds of the random moves, 2^64 over
+     * the golden ratio.
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The points to score in a playout to get halfway from surviving to
+     * winning.
+     */
+    private static final double HALF_POINTS = 50.0;
+
+    /**
+     * The template of the map to play.
+     */
+    private final LevelTemplate template;
+
+    /**
+     * The sprites of the units of the copies.
+     */
+    private final PacManSprites sprites;
+
+    /**
+     * The number of threads to search on.
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The time to search for each move in milliseconds.
+     */
+    private long moveBudget = DEFAULT_MOVE_BUDGET;
+
+    /**
+     * The number of playouts for each move, or 0 to search until the move
+     * budget runs out.
+     */
+    private int playouts;
+
+    /**
+     * The number of random moves at the end of each playout.
+     */
+    private int rolloutMoves = DEFAULT_ROLLOUT_MOVES;
+
+    /**
+     * The time between two moves of the player in milliseconds.
+     */
+    private long playerInterval = BatchSimulator.DEFAULT_PLAYER_INTERVAL;
+
+    /**
+     * The weight of exploring moves rather than exploiting them.
+     */
+    private double exploration = DEFAULT_EXPLORATION;
+
+    /**
+     * The threads searching, or <code>null</code> before the first move.
+     */
+    private ExecutorService pool;
+
+    /**
+     * The copy of the level for each thread.
+     */
+    private Level[] copies;
+
+    /**
+     * The state of the level the current move is searched for.
+     */
+    private LevelSnapshot snapshot;
+
+    /**
+     * The number of playouts so far.
+     */
+    private final AtomicLong rollouts = new AtomicLong();
+
+    /**
+     * The time spent searching so far, in nanoseconds.
+     */
+    private final AtomicLong searchNanos = new AtomicLong();
+
+    /**
+     * Creates a new policy.
+     *
+     * @param template
+     *            The template of the map to play.
+     * @param sprites
+     *            The sprites of the units.
+     */
+    public MctsPolicy(LevelTemplate template, PacManSprites sprites) {
+        assert template != null;
+        assert sprites != null;
+        this.template = template;
+        this.sprites = sprites;
+    }
+
+    /**
+     * Sets the number of threads to search on, which is the number of
+     * available processors by default.
+     *
+     * @param count
+     *            The number of threads.
+     * @return The policy.
+     */
+    public MctsPolicy withThreads(int count) {
+        assert count > 0;
+        assert pool == null;
+        this.threads = count;
+        return this;
+    }
+
+    /**
+     * Sets the time to search for each move, which is
+     * {@value #DEFAULT_MOVE_BUDGET} milliseconds by default.
+     *
+     * @param millis
+     *            The time to search in milliseconds.
+     * @return The policy.
+     */
+    public MctsPolicy withMoveBudget(long millis) {
+        assert millis > 0;
+        this.moveBudget = millis;
+        return this;
+    }
+
+    /**
+     * Searches a fixed number of playouts for each move, spread over the
+     * threads, instead of searching for a fixed time. Moves then only depend
+     * on the level and the number of threads, see the class documentation.
+     *
+     * @param count
+     *            The number of playouts per move, of which every thread
+     *            plays at least one.
+     * @return The policy.
+     */
+    public MctsPolicy withPlayouts(int count) {
+        assert count > 0;
+        this.playouts = count;
+        return this;
+    }
+
+    /**
+     * Sets the number of random moves at the end of each playout, which is
+     * {@value #DEFAULT_ROLLOUT_MOVES} by default.
+     *
+     * @param moves
+     *            The number of random moves.
+     * @return The policy.
+     */
+    public MctsPolicy withRolloutMoves(int moves) {
+        assert moves >= 0;
+        this.rolloutMoves = moves;
+        return this;
+    }
+
+    /**
+     * Sets the time between two moves of the player, which should be the
+     * time the level is stepped between moves. This is
+     * {@value BatchSimulator#DEFAULT_PLAYER_INTERVAL} milliseconds by default,
+     * like for the {@link BatchSimulator}.
+     *
+     * @param millis
+     *            The time between two moves in milliseconds.
+     * @return The policy.
+     */
+    public MctsPolicy withPlayerInterval(long millis) {
+        assert millis > 0;
+        this.playerInterval = millis;
+        return this;
+    }
+
+    /**
+     * Sets the weight of exploring moves that have been tried less rather
+     * than exploiting moves that did well, which is
+     * {@value #DEFAULT_EXPLORATION} by default.
+     *
+     * @param weight
+     *            The weight of exploration.
+     * @return The policy.
+     */
+    public MctsPolicy withExploration(double weight) {
+        assert weight >= 0;
+        this.exploration = weight;
+        return this;
+    }
+
+    @Override
+    public Direction nextMove(Level level, Player player) {
+        long begin = System.nanoTime();
+        prepare(level);
+        LevelSnapshot start = snapshot;
+        int unit = level.getUnitId(player);
+        long deadline = begin + TimeUnit.MILLISECONDS.toNanos(moveBudget);
+        long moveSeed = level.getSeed() ^ level.getHash() ^ level.getTick() * GOLDEN_GAMMA;
+        List<Future<Node>> searches = new ArrayList<>();
+        for (int i = 0; i < copies.length; i++) {
+            Level copy = copies[i];
+            Random random = new Random(moveSeed + i * GOLDEN_GAMMA);
+            long count = playoutsOf(i);
+            searches.add(pool.submit(() -> search(start, copy, unit, random, count, deadline)));
+        }
+        int[] visits = new int[DIRECTIONS.length];
+        double[] rewards = new double[DIRECTIONS.length];
+        try {
+            for (Future<Node> search : searches) {
+                join(search).addTo(visits, rewards);
+            }
+        } catch (InterruptedException e) {
+            abandon(searches);
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            searchNanos.addAndGet(System.nanoTime() - begin);
+        }
+        return best(visits, rewards);
+    }
+
+    /**
+     * @param thread
+     *            The number of a thread.
+     * @return The number of playouts the thread plays for a move, or 0 if it
+     *         searches until the move budget runs out.
+     */
+    private long playoutsOf(int thread) {
+        if (playouts == 0) {
+            return 0;
+        }
+        long count = playouts / threads;
+        if (thread < playouts % threads) {
+            count++;
+        }
+        return Math.max(1L, count);
+    }
+
+    /**
+     * Cancels searches that are no longer waited for, and lets go of their
+     * threads and copies. The copies are disposed of once the searches,
+     * which may still be using them until they notice, have stopped.
+     *
+     * @param searches
+     *            The searches.
+     */
+    private void abandon(List<Future<Node>> searches) {
+        for (Future<Node> search : searches) {
+            search.cancel(true);
+        }
+        ExecutorService stopping = pool;
+        Level[] stale = copies;
+        stopping.shutdownNow();
+        Thread cleaner = new Thread(() -> disposeWhenStopped(stopping, stale), "mcts-cleanup");
+        cleaner.setDaemon(true);
+        cleaner.start();
+        pool = null;
+        copies = null;
+        snapshot = null;
+    }
+
+    /**
+     * Waits for the threads of a pool to stop, and then disposes of the
+     * copies they searched on.
+     *
+     * @param stopping
+     *            The pool, which has been shut down.
+     * @param stale
+     *            The copies.
+     */
+    private static void disposeWhenStopped(ExecutorService stopping, Level[] stale) {
+        try {
+            while (!stopping.awaitTermination(1L, TimeUnit.SECONDS)) {
+                continue;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        for (Level copy : stale) {
+            copy.dispose();
+        }
+    }
+
+    /**
+     * Captures the level to search and creates the threads and copies if
+     * this is the first move.
+     *
+     * @param level
+     *            The level to search.
+     */
+    private void prepare(Level level) {
+        if (pool == null) {
+            pool = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "mcts");
+                thread.setDaemon(true);
+                return thread;
+            });
+            copies = new Level[threads];
+            for (int i = 0; i < threads; i++) {
+                copies[i] = createCopy(level);
+            }
+            snapshot = new LevelSnapshot(level);
+        } else {
+            snapshot.capture(level);
+        }
+    }
+
+    /**
+     * @param level
+     *            A level of the map.
+     * @return A new level of the map with as many players as the level.
+     */
+    private Level createCopy(Level level) {
+        Level copy = template.createLevel(new LevelFactory(sprites, new GhostFactory(sprites),
+            new ManualTickEngine(), new Random()));
+        PlayerFactory playerFactory = new PlayerFactory(sprites);
+        for (int id = 0; level.getUnit(id) != null; id++) {
+            if (level.getUnit(id) instanceof Player) {
+                copy.registerPlayer(playerFactory.createPacMan());
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Waits for a search to finish.
+     *
+     * @param search
+     *            The search.
+     * @return The root of its tree.
+     * @throws InterruptedException
+     *             If the wait was interrupted.
+     */
+    private static Node join(Future<Node> search) throws InterruptedException {
+        try {
+            return search.get();
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * @param visits
+     *            The number of visits of each first move.
+     * @param rewards
+     *            The total reward of each first move.
+     * @return The most visited first move, the one with the best mean reward
+     *         among those visited as often, or <code>null</code> if none was
+     *         visited.
+     */
+    private static Direction best(int[] visits, double[] rewards) {
+        int best = -1;
+        for (int i = 0; i < visits.length; i++) {
+            if (visits[i] > 0 && (best < 0 || visits[i] > visits[best]
+                || visits[i] == visits[best] && rewards[i] > rewards[best])) {
+                best = i;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        return DIRECTIONS[best];
+    }
+
+    /**
+     * Grows a tree of playouts on a copy of the level until it played the
+     * given number of playouts, or else until the deadline, or until the
+     * search is cancelled, playing at least once.
+     *
+     * @param start
+     *            The state of the level to play out from.
+     * @param copy
+     *            The copy to play out on.
+     * @param unit
+     *            The number of the player, see {@link Level#getUnitId}.
+     * @param random
+     *            The randomness of the random moves.
+     * @param limit
+     *            The number of playouts, or 0 to play until the deadline.
+     * @param deadline
+     *            The value of {@link System#nanoTime()} to stop at.
+     * @return The root of the tree.
+     */
+    private Node search(LevelSnapshot start, Level copy, int unit, Random random,
+                        long limit, long deadline) {
+        Player player = (Player) copy.getUnit(unit);
+        Direction[] moves = new Direction[DIRECTIONS.length];
+        Node root = new Node();
+        long count = 0;
+        do {
+            start.restore(copy);
+            playOut(root, copy, player, random, moves);
+            count++;
+        } while (hasBudget(count, limit, deadline) && !Thread.currentThread().isInterrupted());
+        rollouts.addAndGet(count);
+        return root;
+    }
+
+    /**
+     * @param count
+     *            The number of playouts played.
+     * @param limit
+     *            The number of playouts to play, or 0 to play until the
+     *            deadline.
+     * @param deadline
+     *            The value of {@link System#nanoTime()} to stop at.
+     * @return <code>true</code> iff another playout should be played.
+     */
+    private static boolean hasBudget(long count, long limit, long deadline) {
+        if (limit > 0) {
+            return count < limit;
+        }
+        return System.nanoTime() < deadline;
+    }
+
+    /**
+     * Plays out once from the state of the snapshot: down the tree, one new
+     * move and then random moves, after which the value of the playout is
+     * added to every node on the way.
+     *
+     * @param root
+     *            The root of the tree.
+     * @param copy
+     *            The copy, in the state of the snapshot.
+     * @param player
+     *            The player on the copy.
+     * @param random
+     *            The randomness of the random moves.
+     * @param moves
+     *            Scratch space for the random moves, one entry per direction.
+     */
+    private void playOut(Node root, Level copy, Player player, Random random,
+                         Direction[] moves) {
+        int startScore = player.getScore();
+        Node node = root;
+        boolean expanded = false;
+        while (!expanded && !isOver(copy, player)) {
+            Node child = node.select(player, exploration);
+            if (child == null) {
+                break;
+            }
+            expanded = child.visits == 0;
+            advance(copy, player, child.direction);
+            node = child;
+        }
+        for (int move = 0; move < rolloutMoves && !isOver(copy, player); move++) {
+            advance(copy, player, randomMove(player, random, moves));
+        }
+        double reward = reward(copy, player, player.getScore() - startScore);
+        for (Node visited = node; visited != null; visited = visited.parent) {
+            visited.visits++;
+            visited.reward += reward;
+        }
+    }
+
+    /**
+     * Moves the player and steps the copy until its next move.
+     *
+     * @param copy
+     *            The copy.
+     * @param player
+     *            The player on the copy.
+     * @param direction
+     *            The direction to move in, or <code>null</code> to stay put.
+     */
+    private void advance(Level copy, Player player, Direction direction) {
+        if (direction != null) {
+            copy.move(player, direction);
+        }
+        long ticks = Math.max(1L, playerInterval / FixedRateTickEngine.DEFAULT_TICK);
+        for (long tick = 0; tick < ticks; tick++) {
+            copy.step();
+        }
+    }
+
+    /**
+     * Picks a random move for the player, preferring not to turn back.
+     *
+     * @param player
+     *            The player.
+     * @param random
+     *            The randomness to pick with.
+     * @param moves
+     *            Scratch space for the moves, one entry per direction.
+     * @return A move into an accessible square, or <code>null</code> if
+     *         there is none.
+     */
+    private static Direction randomMove(Player player, Random random, Direction[] moves) {
+        Square square = player.getSquare();
+        Direction back = player.getDirection().opposite();
+        int count = 0;
+        for (Direction direction : DIRECTIONS) {
+            if (direction != back && square.getSquareAt(direction).isAccessibleTo(player)) {
+                moves[count] = direction;
+                count++;
+            }
+        }
+        if (count == 0) {
+            return back;
+        }
+        return moves[random.nextInt(count)];
+    }
+
+    /**
+     * @param copy
+     *            The copy.
+     * @param player
+     *            The player on the copy.
+     * @return <code>true</code> iff the copy can not be played any further.
+     */
+    private static boolean isOver(Level copy, Player player) {
+        return !player.isAlive() || copy.remainingPellets() == 0
+            || !copy.isInProgress() || copy.isFrozen();
+    }
+
+    /**
+     * @param copy
+     *            The copy at the end of a playout.
+     * @param player
+     *            The player on the copy.
+     * @param points
+     *            The points the player scored in the playout.
+     * @return The value of the playout, from 0 if the player died to 1 if it
+     *         won.
+     */
+    private static double reward(Level copy, Player player, int points) {
+        if (!player.isAlive()) {
+            return 0;
+        }
+        if (copy.remainingPellets() == 0) {
+            return 1;
+        }
+        return SURVIVAL + (1 - SURVIVAL) * points / (points + HALF_POINTS);
+    }
+
+    /**
+     * @return The number of playouts so far.
+     */
+    public long getRollouts() {
+        return rollouts.get();
+    }
+
+    /**
+     * @return The number of playouts per second spent searching so far, or 0
+     *         if no move has been searched yet.
+     */
+    public double getRolloutsPerSecond() {
+        long nanos = searchNanos.get();
+        if (nanos == 0) {
+            return 0;
+        }
+        return rollouts.get() * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    /**
+     * Stops the threads searching and disposes of the copies. A next move
+     * starts over with new threads and copies.
+     */
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+            for (Level copy : copies) {
+                copy.dispose();
+            }
+            pool = null;
+            copies = null;
+            snapshot = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rollouts on %d threads, %.0f rollouts per second",
+            getRollouts(), threads, getRolloutsPerSecond());
+    }
+
+    /**
+     * A node in the tree of moves of the player, holding the playouts
+     * through it.
+     */
+    private static final class Node {
+
+        /**
+         * The node of the previous move, or <code>null</code> for the root.
+         */
+        private final Node parent;
+
+        /**
+         * The move leading to this node, or <code>null</code> for the root.
+         */
+        private final Direction direction;
+
+        /**
+         * The nodes of the next moves tried so far, by direction.
+         */
+        private final Node[] children = new Node[DIRECTIONS.length];
+
+        /**
+         * The number of playouts through this node.
+         */
+        private int visits;
+
+        /**
+         * The total value of the playouts through this node.
+         */
+        private double reward;
+
+        /**
+         * Creates a new root node.
+         */
+        Node() {
+            this(null, null);
+        }
+
+        /**
+         * Creates a new node.
+         *
+         * @param parent
+         *            The node of the previous move.
+         * @param direction
+         *            The move leading to the new node.
+         */
+        private Node(Node parent, Direction direction) {
+            this.parent = parent;
+            this.direction = direction;
+        }
+
+        /**
+         * Selects the next move: the first accessible move not tried yet, or
+         * else the move with the highest upper confidence bound.
+         *
+         * @param player
+         *            The player, on the square of this node.
+         * @param exploration
+         *            The weight of exploration.
+         * @return The node of the move, or <code>null</code> if no move is
+         *         accessible.
+         */
+        Node select(Player player, double exploration) {
+            Square square = player.getSquare();
+            Node best = null;
+            double bestBound = Double.NEGATIVE_INFINITY;
+            double logVisits = Math.log(visits);
+            for (int i = 0; i < children.length; i++) {
+                if (!square.getSquareAt(DIRECTIONS[i]).isAccessibleTo(player)) {
+                    continue;
+                }
+                if (children[i] == null) {
+                    children[i] = new Node(this, DIRECTIONS[i]);
+                    return children[i];
+                }
+                Node child = children[i];
+                double bound = child.reward / child.visits
+                    + exploration * Math.sqrt(logVisits / child.visits);
+                if (bound > bestBound) {
+                    best = child;
+                    bestBound = bound;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Adds the visits and rewards of the children of this node to those
+         * of other trees.
+         *
+         * @param visits
+         *            The visits by direction.
+         * @param rewards
+         *            The total rewards by direction.
+         */
+        void addTo(int[] visits, double[] rewards) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] != null) {
+                    visits[i] += children[i].visits;
+                    rewards[i] += children[i].reward;
+                }
+            }
+        }
+    }
+}
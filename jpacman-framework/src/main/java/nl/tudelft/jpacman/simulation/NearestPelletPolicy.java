@@ -0,0 +1,32 @@
+package nl.tudelft.jpacman.simulation;
+
+import java.util.List;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.Pellet;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.npc.ghost.Navigation;
+
+/**
+ * A simple policy that heads for the nearest pellet, paying no attention to
+ * the ghosts at all. Serves as a baseline to compare other policies against.
+ */
+public class NearestPelletPolicy implements PlayerPolicy {
+
+    @Override
+    public Direction nextMove(Level level, Player player) {
+        Square square = player.getSquare();
+        Unit pellet = Navigation.findNearest(Pellet.class, square);
+        if (pellet == null) {
+            return null;
+        }
+        List<Direction> path = Navigation.shortestPath(square, pellet.getSquare(), player);
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+        return path.get(0);
+    }
+}
@@ -0,0 +1,23 @@
+package nl.tudelft.jpacman.simulation;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.Player;
+
+/**
+ * Decides the moves of a player in a simulated game.
+ */
+@FunctionalInterface
+public interface PlayerPolicy {
+
+    /**
+     * Decides the next move of a player.
+     *
+     * @param level
+     *            The level being played.
+     * @param player
+     *            The player to move, which occupies a square of the level.
+     * @return The direction to move in, or <code>null</code> to stay put.
+     */
+    Direction nextMove(Level level, Player player);
+}
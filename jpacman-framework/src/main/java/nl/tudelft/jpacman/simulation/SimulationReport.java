@@ -0,0 +1,183 @@
+package nl.tudelft.jpacman.simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The aggregated outcome of a batch of simulated games.
+ */
+public final class SimulationReport {
+
+    /**
+     * The fraction of games for the low score in {@link #toString()}.
+     */
+    private static final double LOW = 0.1;
+
+    /**
+     * The fraction of games for the median score in {@link #toString()}.
+     */
+    private static final double MEDIAN = 0.5;
+
+    /**
+     * The fraction of games for the high score in {@link #toString()}.
+     */
+    private static final double HIGH = 0.9;
+
+    /**
+     * The results of the individual games, in order of seed.
+     */
+    private final List<GameResult> results;
+
+    /**
+     * The scores of all games, sorted from low to high.
+     */
+    private final int[] scores;
+
+    /**
+     * The number of games won.
+     */
+    private final int wins;
+
+    /**
+     * The number of ticks of all games together.
+     */
+    private final long totalTicks;
+
+    /**
+     * The wall-clock time spent simulating all games together, in
+     * nanoseconds.
+     */
+    private final long totalNanos;
+
+    /**
+     * Creates a new report.
+     *
+     * @param games
+     *            The results of the individual games.
+     */
+    public SimulationReport(List<GameResult> games) {
+        List<GameResult> sorted = new ArrayList<>(games);
+        sorted.sort((a, b) -> Long.compare(a.getSeed(), b.getSeed()));
+        this.results = Collections.unmodifiableList(sorted);
+        this.scores = new int[sorted.size()];
+        int won = 0;
+        long ticks = 0;
+        long nanos = 0;
+        for (int i = 0; i < scores.length; i++) {
+            GameResult result = sorted.get(i);
+            scores[i] = result.getScore();
+            if (result.isWon()) {
+                won++;
+            }
+            ticks += result.getTicks();
+            nanos += result.getNanos();
+        }
+        Arrays.sort(scores);
+        this.wins = won;
+        this.totalTicks = ticks;
+        this.totalNanos = nanos;
+    }
+
+    /**
+     * @return The results of the individual games, in order of seed.
+     */
+    public List<GameResult> getResults() {
+        return results;
+    }
+
+    /**
+     * @return The number of games played.
+     */
+    public int getGames() {
+        return scores.length;
+    }
+
+    /**
+     * @return The number of games won.
+     */
+    public int getWins() {
+        return wins;
+    }
+
+    /**
+     * @return The fraction of games won, or 0 if no games were played.
+     */
+    public double getWinRate() {
+        if (scores.length == 0) {
+            return 0;
+        }
+        return (double) wins / scores.length;
+    }
+
+    /**
+     * @return The mean score, or 0 if no games were played.
+     */
+    public double getMeanScore() {
+        if (scores.length == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int score : scores) {
+            sum += score;
+        }
+        return (double) sum / scores.length;
+    }
+
+    /**
+     * Returns the score that the given fraction of games stayed at or below,
+     * using the nearest rank.
+     *
+     * @param fraction
+     *            The fraction of games, from 0 (the lowest score) up to and
+     *            including 1 (the highest score).
+     * @return The score at the given fraction, or 0 if no games were played.
+     */
+    public int getScorePercentile(double fraction) {
+        assert fraction >= 0 && fraction <= 1;
+        if (scores.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * scores.length) - 1;
+        return scores[Math.max(0, rank)];
+    }
+
+    /**
+     * @return A copy of the scores of all games, sorted from low to high.
+     */
+    public int[] getScores() {
+        return scores.clone();
+    }
+
+    /**
+     * @return The mean number of ticks a game lasted, or 0 if no games were
+     *         played.
+     */
+    public double getMeanTicks() {
+        if (scores.length == 0) {
+            return 0;
+        }
+        return (double) totalTicks / scores.length;
+    }
+
+    /**
+     * @return The mean wall-clock time spent simulating a tick, in
+     *         nanoseconds, or 0 if no ticks were simulated.
+     */
+    public double getNanosPerTick() {
+        if (totalTicks == 0) {
+            return 0;
+        }
+        return (double) totalNanos / totalTicks;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d games, win rate %.3f, score mean %.1f "
+                + "[p10 %d, p50 %d, p90 %d], %.1f ticks per game, %.0f ns per tick",
+            getGames(), getWinRate(), getMeanScore(),
+            getScorePercentile(LOW), getScorePercentile(MEDIAN), getScorePercentile(HIGH),
+            getMeanTicks(), getNanosPerTick());
+    }
+}
@@ -1,6 +1,7 @@
 package nl.tudelft.jpacman.sprite;
 
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
 import java.awt.GraphicsEnvironment;
 import java.awt.Image;
@@ -19,6 +20,13 @@ public class ImageSprite implements Sprite {
      */
     private final Image image;
 
+    /**
+     * The image scaled to the size it was last drawn at, or <code>null</code>
+     * if it has not been drawn scaled yet. Replaced whenever the sprite is
+     * drawn at another size, such as after the window was resized.
+     */
+    private volatile Scaled scaled;
+
     /**
      * Creates a new sprite from an image.
      *
@@ -31,6 +39,43 @@ public class ImageSprite implements Sprite {
 
     @Override
     public void draw(Graphics graphics, int x, int y, int width, int height) {
+        if (width == image.getWidth(null) && height == image.getHeight(null)) {
+            graphics.drawImage(image, x, y, null);
+            return;
+        }
+        if (!(graphics instanceof Graphics2D)) {
+            drawScaled(graphics, x, y, width, height);
+            return;
+        }
+        GraphicsConfiguration config = ((Graphics2D) graphics).getDeviceConfiguration();
+        Scaled current = scaled;
+        if (current == null || !current.fits(width, height, config)) {
+            BufferedImage copy = config.createCompatibleImage(width, height,
+                Transparency.BITMASK);
+            Graphics copyGraphics = copy.createGraphics();
+            drawScaled(copyGraphics, 0, 0, width, height);
+            copyGraphics.dispose();
+            current = new Scaled(copy, config);
+            scaled = current;
+        }
+        graphics.drawImage(current.image, x, y, null);
+    }
+
+    /**
+     * Draws the image scaled to the given rectangle.
+     *
+     * @param graphics
+     *            The graphics context to draw on.
+     * @param x
+     *            The x position to start drawing.
+     * @param y
+     *            The y position to start drawing.
+     * @param width
+     *            The width to scale the image to.
+     * @param height
+     *            The height to scale the image to.
+     */
+    private void drawScaled(Graphics graphics, int x, int y, int width, int height) {
         graphics.drawImage(image, x, y, x + width, y + height, 0, 0,
             image.getWidth(null), image.getHeight(null), null);
     }
@@ -53,7 +98,8 @@ public class ImageSprite implements Sprite {
 
     /**
      * Creates a new, empty image of the given width and height. Its
-     * transparency will be a bitmask, so no try ARGB image.
+     * transparency will be a bitmask, so no try ARGB image. Without a screen,
+     * such as when simulating games headless, a plain ARGB image is made.
      *
      * @param width
      *            The width of the new image.
@@ -62,6 +108,9 @@ public class ImageSprite implements Sprite {
      * @return The new, empty image.
      */
     private BufferedImage newImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
         GraphicsConfiguration gc = GraphicsEnvironment
             .getLocalGraphicsEnvironment().getDefaultScreenDevice()
             .getDefaultConfiguration();
@@ -78,4 +127,46 @@ public class ImageSprite implements Sprite {
         return image.getHeight(null);
     }
 
+    /**
+     * A copy of the image scaled for a particular device.
+     */
+    private static final class Scaled {
+
+        /**
+         * The scaled copy.
+         */
+        private final BufferedImage image;
+
+        /**
+         * The device configuration the copy is compatible with.
+         */
+        private final GraphicsConfiguration config;
+
+        /**
+         * Creates a new scaled copy.
+         *
+         * @param image
+         *            The scaled copy.
+         * @param config
+         *            The device configuration the copy is compatible with.
+         */
+        Scaled(BufferedImage image, GraphicsConfiguration config) {
+            this.image = image;
+            this.config = config;
+        }
+
+        /**
+         * @param width
+         *            The width to draw at.
+         * @param height
+         *            The height to draw at.
+         * @param target
+         *            The device configuration to draw on.
+         * @return <code>true</code> iff this copy can be drawn as is.
+         */
+        boolean fits(int width, int height, GraphicsConfiguration target) {
+            return image.getWidth() == width && image.getHeight() == height
+                && config == target;
+        }
+    }
 }
@@ -31,7 +31,8 @@ public class SpriteStore {
     /**
      * Loads a sprite from a resource on the class path.
      * Sprites are loaded once, and then stored in the store
-     * so that they can be efficiently retrieved.
+     * so that they can be efficiently retrieved. The store can
+     * be shared between threads.
      *
      * @param resource
      *            The resource path.
@@ -39,7 +40,7 @@ public class SpriteStore {
      * @throws IOException
      *             When the resource could not be loaded.
      */
-    public Sprite loadSprite(String resource) throws IOException {
+    public synchronized Sprite loadSprite(String resource) throws IOException {
         Sprite result = spriteMap.get(resource);
         if (result == null) {
             result = loadSpriteFromResource(resource);
@@ -0,0 +1,79 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Canvas;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.image.BufferStrategy;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.game.Game;
+
+/**
+ * Canvas displaying a game by active rendering: frames are drawn whenever
+ * {@link #render()} is called, into a back buffer that is then flipped to the
+ * screen, rather than when Swing decides to repaint.
+ */
+class BoardCanvas extends Canvas {
+
+    /**
+     * Default serialisation ID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The number of buffers to flip between.
+     */
+    private static final int BUFFERS = 2;
+
+    /**
+     * The renderer drawing the game.
+     */
+    private final BoardRenderer renderer;
+
+    /**
+     * The buffers to draw on, or <code>null</code> until the first frame.
+     */
+    private BufferStrategy strategy;
+
+    /**
+     * Creates a new board canvas that will display the provided game.
+     *
+     * @param game
+     *            The game to display.
+     */
+    BoardCanvas(Game game) {
+        super();
+        assert game != null;
+        this.renderer = new BoardRenderer(game, this);
+
+        Board board = game.getLevel().getBoard();
+        Dimension size = new Dimension(board.getWidth() * BoardPanel.SQUARE_SIZE,
+            board.getHeight() * BoardPanel.SQUARE_SIZE);
+        setMinimumSize(size);
+        setPreferredSize(size);
+        setIgnoreRepaint(true);
+        setFocusable(false);
+    }
+
+    /**
+     * Draws the next frame and shows it. Does nothing while this canvas is
+     * not displayable. Must always be called from the same thread.
+     */
+    void render() {
+        if (!isDisplayable()) {
+            return;
+        }
+        if (strategy == null) {
+            createBufferStrategy(BUFFERS);
+            strategy = getBufferStrategy();
+        }
+        do {
+            do {
+                Graphics graphics = strategy.getDrawGraphics();
+                renderer.render(graphics, getSize());
+                graphics.dispose();
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+    }
+}
@@ -1,14 +1,11 @@
 package nl.tudelft.jpacman.ui;
 
-import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 
 import javax.swing.JPanel;
 
 import nl.tudelft.jpacman.board.Board;
-import nl.tudelft.jpacman.board.Square;
-import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.game.Game;
 
 /**
@@ -24,21 +21,16 @@ class BoardPanel extends JPanel {
      */
     private static final long serialVersionUID = 1L;
 
-    /**
-     * The background colour of the board.
-     */
-    private static final Color BACKGROUND_COLOR = Color.BLACK;
-
     /**
      * The size (in pixels) of a square on the board. The initial size of this
      * panel will scale to fit a board with square of this size.
      */
-    private static final int SQUARE_SIZE = 16;
+    static final int SQUARE_SIZE = 16;
 
     /**
-     * The game to display.
+     * The renderer drawing the game.
      */
-    private final Game game;
+    private final BoardRenderer renderer;
 
     /**
      * Creates a new board panel that will display the provided game.
@@ -49,7 +41,7 @@ class BoardPanel extends JPanel {
     BoardPanel(Game game) {
         super();
         assert game != null;
-        this.game = game;
+        this.renderer = new BoardRenderer(game, this);
 
         Board board = game.getLevel().getBoard();
 
@@ -64,57 +56,6 @@ class BoardPanel extends JPanel {
     @Override
     public void paint(Graphics g) {
         assert g != null;
-        render(game.getLevel().getBoard(), g, getSize());
-    }
-
-    /**
-     * Renders the board on the given graphics context to the given dimensions.
-     *
-     * @param board
-     *            The board to render.
-     * @param graphics
-     *            The graphics context to draw on.
-     * @param window
-     *            The dimensions to scale the rendered board to.
-     */
-    private void render(Board board, Graphics graphics, Dimension window) {
-        int cellW = window.width / board.getWidth();
-        int cellH = window.height / board.getHeight();
-
-        graphics.setColor(BACKGROUND_COLOR);
-        graphics.fillRect(0, 0, window.width, window.height);
-
-        for (int y = 0; y < board.getHeight(); y++) {
-            for (int x = 0; x < board.getWidth(); x++) {
-                int cellX = x * cellW;
-                int cellY = y * cellH;
-                Square square = board.squareAt(x, y);
-                render(square, graphics, cellX, cellY, cellW, cellH);
-            }
-        }
-    }
-
-    /**
-     * Renders a single square on the given graphics context on the specified
-     * rectangle.
-     *
-     * @param square
-     *            The square to render.
-     * @param graphics
-     *            The graphics context to draw on.
-     * @param x
-     *            The x position to start drawing.
-     * @param y
-     *            The y position to start drawing.
-     * @param width
-     *            The width of this square (in pixels.)
-     * @param height
-     *            The height of this square (in pixels.)
-     */
-    private void render(Square square, Graphics graphics, int x, int y, int width, int height) {
-        square.getSprite().draw(graphics, x, y, width, height);
-        for (Unit unit : square.getOccupants()) {
-            unit.getSprite().draw(graphics, x, y, width, height);
-        }
+        renderer.render(g, getSize());
     }
 }
@@ -0,0 +1,285 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.image.BufferedImage;
+import java.util.BitSet;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.sprite.AnimatedSprite;
+import nl.tudelft.jpacman.sprite.Sprite;
+
+/**
+ * Draws the board of a game.
+ *
+ * <p>
+ * The squares themselves never change, so they are drawn once into a
+ * background image, which is redone only when the size to draw at changes.
+ * Each frame then only redraws the squares that units entered or left since
+ * the previous frame, plus the squares holding animated units, on top of that
+ * background.
+ * </p>
+ *
+ * <p>
+ * A renderer must always be used from the same thread.
+ * </p>
+ */
+class BoardRenderer {
+
+    /**
+     * The background colour of the board.
+     */
+    private static final Color BACKGROUND_COLOR = Color.BLACK;
+
+    /**
+     * The game to display.
+     */
+    private final Game game;
+
+    /**
+     * The component the board is shown on.
+     */
+    private final Component component;
+
+    /**
+     * The indices of the squares to redraw in the next frame. Also serves as
+     * the lock guarding itself, as units move outside the event thread.
+     */
+    private final BitSet dirty = new BitSet();
+
+    /**
+     * The squares being redrawn in the current frame.
+     */
+    private final BitSet redrawing = new BitSet();
+
+    /**
+     * Marks the squares units enter and leave as dirty.
+     */
+    private final Board.OccupantObserver tracker = new DirtyTracker();
+
+    /**
+     * The board currently displayed and tracked, or <code>null</code> before
+     * the first frame.
+     */
+    private Board board;
+
+    /**
+     * The squares without their occupants, scaled to the panel.
+     */
+    private BufferedImage background;
+
+    /**
+     * The last frame drawn, which is updated square by square.
+     */
+    private BufferedImage frame;
+
+    /**
+     * Creates a new renderer.
+     *
+     * @param game
+     *            The game to display.
+     * @param component
+     *            The component the board is shown on.
+     */
+    BoardRenderer(Game game, Component component) {
+        assert game != null;
+        assert component != null;
+        this.game = game;
+        this.component = component;
+    }
+
+    /**
+     * Draws the current frame of the game.
+     *
+     * @param graphics
+     *            The graphics context to draw on.
+     * @param window
+     *            The dimensions to scale the rendered board to.
+     */
+    void render(Graphics graphics, Dimension window) {
+        if (window.width <= 0 || window.height <= 0) {
+            return;
+        }
+        Board current = game.getLevel().getBoard();
+        if (current != board || background == null
+            || background.getWidth() != window.width
+            || background.getHeight() != window.height) {
+            prepare(current, window);
+        }
+        render(current, frame, window);
+        graphics.drawImage(frame, 0, 0, null);
+    }
+
+    /**
+     * Starts tracking a board and renders its background for the given
+     * size. Every square will be redrawn in the next frame.
+     *
+     * @param current
+     *            The board to display.
+     * @param window
+     *            The dimensions to scale the rendered board to.
+     */
+    private void prepare(Board current, Dimension window) {
+        if (current != board) {
+            if (board != null) {
+                board.removeOccupantObserver(tracker);
+            }
+            current.addOccupantObserver(tracker);
+            board = current;
+        }
+        background = createImage(window);
+        frame = createImage(window);
+        renderBackground(current, background.getGraphics(), window);
+        Graphics graphics = frame.getGraphics();
+        graphics.drawImage(background, 0, 0, null);
+        graphics.dispose();
+        synchronized (dirty) {
+            dirty.set(0, current.getWidth() * current.getHeight());
+        }
+    }
+
+    /**
+     * Creates an opaque image matching the screen the board is shown on.
+     *
+     * @param window
+     *            The dimensions of the image.
+     * @return A new image.
+     */
+    private BufferedImage createImage(Dimension window) {
+        GraphicsConfiguration config = component.getGraphicsConfiguration();
+        if (config == null) {
+            return new BufferedImage(window.width, window.height, BufferedImage.TYPE_INT_RGB);
+        }
+        return config.createCompatibleImage(window.width, window.height);
+    }
+
+    /**
+     * Renders the squares of the board without their occupants.
+     *
+     * @param board
+     *            The board to render.
+     * @param graphics
+     *            The graphics context to draw on.
+     * @param window
+     *            The dimensions to scale the rendered board to.
+     */
+    private void renderBackground(Board board, Graphics graphics, Dimension window) {
+        int cellW = window.width / board.getWidth();
+        int cellH = window.height / board.getHeight();
+
+        graphics.setColor(BACKGROUND_COLOR);
+        graphics.fillRect(0, 0, window.width, window.height);
+
+        int width = board.getWidth();
+        for (int index = 0; index < width * board.getHeight(); index++) {
+            board.getSpriteAt(index).draw(graphics, (index % width) * cellW,
+                (index / width) * cellH, cellW, cellH);
+        }
+        graphics.dispose();
+    }
+
+    /**
+     * Redraws the dirty squares of the board on the frame.
+     *
+     * @param board
+     *            The board to render.
+     * @param image
+     *            The frame to draw on.
+     * @param window
+     *            The dimensions to scale the rendered board to.
+     */
+    private void render(Board board, BufferedImage image, Dimension window) {
+        int width = board.getWidth();
+        int cellW = window.width / width;
+        int cellH = window.height / board.getHeight();
+
+        synchronized (dirty) {
+            redrawing.clear();
+            redrawing.or(dirty);
+            dirty.clear();
+        }
+
+        Graphics graphics = image.getGraphics();
+        for (int i = redrawing.nextSetBit(0); i >= 0; i = redrawing.nextSetBit(i + 1)) {
+            int cellX = (i % width) * cellW;
+            int cellY = (i / width) * cellH;
+            graphics.drawImage(background, cellX, cellY, cellX + cellW, cellY + cellH,
+                cellX, cellY, cellX + cellW, cellY + cellH, null);
+            Square square = board.findSquare(i);
+            if (square != null && render(square, graphics, cellX, cellY, cellW, cellH)) {
+                synchronized (dirty) {
+                    dirty.set(i);
+                }
+            }
+        }
+        graphics.dispose();
+    }
+
+    /**
+     * Renders the occupants of a single square on the given graphics context
+     * on the specified rectangle.
+     *
+     * @param square
+     *            The square to render.
+     * @param graphics
+     *            The graphics context to draw on.
+     * @param x
+     *            The x position to start drawing.
+     * @param y
+     *            The y position to start drawing.
+     * @param width
+     *            The width of this square (in pixels.)
+     * @param height
+     *            The height of this square (in pixels.)
+     * @return <code>true</code> iff any of the occupants is animated, which
+     *         means the square has to be redrawn in the next frame as well.
+     */
+    private boolean render(Square square, Graphics graphics, int x, int y, int width,
+                           int height) {
+        boolean animated = false;
+        for (int i = 0; i < square.getOccupantCount(); i++) {
+            // units move while we draw, so an entry may just have been vacated
+            Unit unit = square.getOccupant(i);
+            if (unit != null) {
+                Sprite sprite = unit.getSprite();
+                sprite.draw(graphics, x, y, width, height);
+                animated |= sprite instanceof AnimatedSprite;
+            }
+        }
+        return animated;
+    }
+
+    /**
+     * Marks the squares units enter and leave as dirty.
+     */
+    private final class DirtyTracker implements Board.OccupantObserver {
+
+        @Override
+        public void occupantAdded(Square square, Unit unit) {
+            markDirty(square);
+        }
+
+        @Override
+        public void occupantRemoved(Square square, Unit unit) {
+            markDirty(square);
+        }
+
+        /**
+         * Schedules a square to be redrawn in the next frame.
+         *
+         * @param square
+         *            The square to redraw.
+         */
+        private void markDirty(Square square) {
+            synchronized (dirty) {
+                dirty.set(square.getIndex());
+            }
+        }
+    }
+}
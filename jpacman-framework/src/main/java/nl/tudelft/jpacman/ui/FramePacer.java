@@ -0,0 +1,232 @@
+package nl.tudelft.jpacman.ui;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Draws frames on a thread of its own at a steady rate. When a frame takes
+ * longer than the time available for it, the frames that should have been
+ * drawn in the meantime are skipped instead of being drawn back to back, so
+ * a slow frame never makes work pile up.
+ *
+ * <p>
+ * The pacer measures how long drawing a frame takes, which can be read from
+ * any thread while it runs.
+ * </p>
+ */
+public class FramePacer {
+
+    /**
+     * The weight of the running average of the frame time, as the number of
+     * frames a new measurement is spread over.
+     */
+    private static final int SMOOTHING = 8;
+
+    /**
+     * The clock of the system.
+     */
+    private static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void sleep(long nanos) throws InterruptedException {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+    };
+
+    /**
+     * Draws a single frame.
+     */
+    private final Runnable frame;
+
+    /**
+     * The time available for a frame in nanoseconds.
+     */
+    private final long interval;
+
+    /**
+     * The clock the frames are timed and paced by.
+     */
+    private final Clock clock;
+
+    /**
+     * The thread drawing the frames, or <code>null</code> if stopped.
+     */
+    private Thread thread;
+
+    /**
+     * The running average of the time spent drawing a frame in nanoseconds.
+     */
+    private volatile long frameTime;
+
+    /**
+     * The number of frames drawn.
+     */
+    private volatile long framesDrawn;
+
+    /**
+     * The number of frames skipped because drawing fell behind.
+     */
+    private volatile long framesSkipped;
+
+    /**
+     * Creates a new, stopped pacer.
+     *
+     * @param frame
+     *            Draws a single frame.
+     * @param framesPerSecond
+     *            The number of frames to aim for per second.
+     */
+    public FramePacer(Runnable frame, int framesPerSecond) {
+        this(frame, framesPerSecond, SYSTEM_CLOCK);
+    }
+
+    /**
+     * Creates a new, stopped pacer timed by the given clock.
+     *
+     * @param frame
+     *            Draws a single frame.
+     * @param framesPerSecond
+     *            The number of frames to aim for per second.
+     * @param clock
+     *            The clock to time and pace the frames by.
+     */
+    FramePacer(Runnable frame, int framesPerSecond, Clock clock) {
+        assert frame != null;
+        assert framesPerSecond > 0;
+        assert clock != null;
+        this.frame = frame;
+        this.interval = TimeUnit.SECONDS.toNanos(1) / framesPerSecond;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts drawing frames, unless already doing so.
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(this::run, "jpacman-frames");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops drawing frames. The frame being drawn, if any, is finished first.
+     */
+    public synchronized void stop() {
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    /**
+     * Draws frames until interrupted.
+     */
+    private void run() {
+        long deadline = clock.nanoTime();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                deadline = drawFrame(deadline);
+            }
+        } catch (InterruptedException e) {
+            // stopped while waiting for the next frame
+        }
+    }
+
+    /**
+     * Draws a frame and waits until the next one is due, skipping the frames
+     * that are overdue already.
+     *
+     * @param deadline
+     *            The time at which the frame was due, by the clock.
+     * @return The time at which the next frame is due.
+     * @throws InterruptedException
+     *             If interrupted while waiting.
+     */
+    long drawFrame(long deadline) throws InterruptedException {
+        long begin = clock.nanoTime();
+        frame.run();
+        long end = clock.nanoTime();
+        record(end - begin);
+
+        long next = deadline + interval;
+        if (end > next) {
+            long behind = (end - next) / interval + 1;
+            framesSkipped += behind;
+            next += behind * interval;
+        }
+        clock.sleep(next - clock.nanoTime());
+        return next;
+    }
+
+    /**
+     * Takes the time spent drawing a frame into account.
+     *
+     * @param nanos
+     *            The time spent in nanoseconds.
+     */
+    private void record(long nanos) {
+        if (framesDrawn == 0) {
+            frameTime = nanos;
+        } else {
+            frameTime += (nanos - frameTime) / SMOOTHING;
+        }
+        framesDrawn++;
+    }
+
+    /**
+     * @return The time available for a frame in nanoseconds.
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return The running average of the time spent drawing a frame, in
+     *         nanoseconds, or 0 if no frame has been drawn yet.
+     */
+    public long getFrameTime() {
+        return frameTime;
+    }
+
+    /**
+     * @return The number of frames drawn so far.
+     */
+    public long getFramesDrawn() {
+        return framesDrawn;
+    }
+
+    /**
+     * @return The number of frames skipped so far because drawing fell
+     *         behind.
+     */
+    public long getFramesSkipped() {
+        return framesSkipped;
+    }
+
+    /**
+     * A source of time that frames are paced by.
+     */
+    interface Clock {
+
+        /**
+         * @return The current time in nanoseconds, from an arbitrary origin.
+         */
+        long nanoTime();
+
+        /**
+         * Waits for a while.
+         *
+         * @param nanos
+         *            The time to wait in nanoseconds, which may be negative.
+         * @throws InterruptedException
+         *             If interrupted while waiting.
+         */
+        void sleep(long nanos) throws InterruptedException;
+    }
+}
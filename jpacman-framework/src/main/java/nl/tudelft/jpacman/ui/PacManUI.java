@@ -1,11 +1,9 @@
 package nl.tudelft.jpacman.ui;
 
 import java.awt.BorderLayout;
+import java.awt.Component;
 import java.awt.Container;
 import java.util.Map;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 import javax.swing.JFrame;
 import javax.swing.JPanel;
@@ -36,10 +34,9 @@ public class PacManUI extends JFrame {
     private static final long serialVersionUID = 1L;
 
     /**
-     * The desired frame rate interval for the graphics in milliseconds, 40
-     * being 25 fps.
+     * The default frame rate of the graphics in frames per second.
      */
-    private static final int FRAME_INTERVAL = 40;
+    public static final int DEFAULT_FRAME_RATE = 25;
 
     /**
      * The panel displaying the player scores.
@@ -47,9 +44,14 @@ public class PacManUI extends JFrame {
     private final ScorePanel scorePanel;
 
     /**
-     * The panel displaying the game.
+     * The component displaying the game.
      */
-    private final BoardPanel boardPanel;
+    private final Component boardPanel;
+
+    /**
+     * The pacer drawing the frames.
+     */
+    private final FramePacer pacer;
 
     /**
      * Creates a new UI for a JPac-Man game.
@@ -68,6 +70,33 @@ public class PacManUI extends JFrame {
     public PacManUI(final Game game, final Map<String, Action> buttons,
                     final Map<Integer, Action> keyMappings,
                     ScoreFormatter scoreFormatter) {
+        this(game, buttons, keyMappings, scoreFormatter, false, DEFAULT_FRAME_RATE);
+    }
+
+    /**
+     * Creates a new UI for a JPac-Man game.
+     *
+     * @param game
+     *            The game to play.
+     * @param buttons
+     *            The map of caption-to-action entries that will appear as
+     *            buttons on the interface.
+     * @param keyMappings
+     *            The map of keyCode-to-action entries that will be added as key
+     *            listeners to the interface.
+     * @param scoreFormatter
+     *            The formatter used to display the current score.
+     * @param activeRendering
+     *            <code>true</code> to draw the game on a page flipped canvas
+     *            from the frame thread; <code>false</code> to have Swing
+     *            repaint it on the event dispatch thread.
+     * @param framesPerSecond
+     *            The number of frames to draw per second.
+     */
+    public PacManUI(final Game game, final Map<String, Action> buttons,
+                    final Map<Integer, Action> keyMappings,
+                    ScoreFormatter scoreFormatter, boolean activeRendering,
+                    int framesPerSecond) {
         super("JPac-Man");
         assert game != null;
         assert buttons != null;
@@ -85,8 +114,23 @@ public class PacManUI extends JFrame {
             scorePanel.setScoreFormatter(scoreFormatter);
         }
 
-        boardPanel = new BoardPanel(game);
+        if (activeRendering) {
+            boardPanel = new BoardCanvas(game);
+        } else {
+            boardPanel = new BoardPanel(game);
+        }
+        pacer = new FramePacer(this::nextFrame, framesPerSecond);
+
+        arrange(buttonPanel);
+    }
 
+    /**
+     * Lays out the panels of this frame.
+     *
+     * @param buttonPanel
+     *            The panel containing the buttons.
+     */
+    private void arrange(JPanel buttonPanel) {
         Container contentPanel = getContentPane();
         contentPanel.setLayout(new BorderLayout());
         contentPanel.add(buttonPanel, BorderLayout.SOUTH);
@@ -102,15 +146,38 @@ public class PacManUI extends JFrame {
      */
     public void start() {
         setVisible(true);
-        ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor();
-        service.scheduleAtFixedRate(this::nextFrame, 0, FRAME_INTERVAL, TimeUnit.MILLISECONDS);
+        pacer.start();
+    }
+
+    /**
+     * Stops redrawing the interface and releases its resources.
+     */
+    @Override
+    public void dispose() {
+        pacer.stop();
+        super.dispose();
+    }
+
+    /**
+     * Returns the pacer drawing the frames, which measures how long drawing
+     * a frame takes. With passive rendering, that only covers requesting the
+     * repaint, not the painting that Swing does later on.
+     *
+     * @return The pacer drawing the frames.
+     */
+    public FramePacer getFramePacer() {
+        return pacer;
     }
 
     /**
      * Draws the next frame, i.e. refreshes the scores and game.
      */
     private void nextFrame() {
-        boardPanel.repaint();
+        if (boardPanel instanceof BoardCanvas) {
+            ((BoardCanvas) boardPanel).render();
+        } else {
+            boardPanel.repaint();
+        }
         scorePanel.refresh();
     }
 }
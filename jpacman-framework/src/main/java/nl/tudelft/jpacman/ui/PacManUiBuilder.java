@@ -49,6 +49,16 @@ public class PacManUiBuilder {
      */
     private ScoreFormatter scoreFormatter = null;
 
+    /**
+     * Whether the board is drawn by active rendering.
+     */
+    private boolean activeRendering;
+
+    /**
+     * The number of frames to draw per second.
+     */
+    private int framesPerSecond = PacManUI.DEFAULT_FRAME_RATE;
+
     /**
      * Creates a new Pac-Man UI builder without any mapped keys or buttons.
      */
@@ -73,7 +83,8 @@ public class PacManUiBuilder {
             addStopButton(game);
             addFreezeButton(game);
         }
-        return new PacManUI(game, buttons, keyMappings, scoreFormatter);
+        return new PacManUI(game, buttons, keyMappings, scoreFormatter, activeRendering,
+            framesPerSecond);
     }
 
     /**
@@ -176,4 +187,30 @@ public class PacManUiBuilder {
         this.scoreFormatter = scoreFormatter;
         return this;
     }
+
+    /**
+     * Draws the board by active rendering: a dedicated thread draws every
+     * frame on a page flipped canvas, instead of asking Swing to repaint.
+     *
+     * @return The builder.
+     */
+    public PacManUiBuilder withActiveRendering() {
+        this.activeRendering = true;
+        return this;
+    }
+
+    /**
+     * Sets the number of frames to draw per second, which is
+     * {@value PacManUI#DEFAULT_FRAME_RATE} by default.
+     *
+     * @param frameRate
+     *         The number of frames per second.
+     *
+     * @return The builder.
+     */
+    public PacManUiBuilder withFrameRate(int frameRate) {
+        assert frameRate > 0;
+        this.framesPerSecond = frameRate;
+        return this;
+    }
 }
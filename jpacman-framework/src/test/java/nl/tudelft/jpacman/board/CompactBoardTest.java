@@ -0,0 +1,204 @@
+package nl.tudelft.jpacman.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.ManualTickEngine;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.npc.ghost.Navigation;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests boards that store their squares in arrays.
+ */
+@SuppressWarnings("magicnumber")
+class CompactBoardTest {
+
+    /**
+     * The sprites for squares and units.
+     */
+    private PacManSprites sprites;
+
+    /**
+     * A board of three by two squares, with a wall in the top left corner.
+     */
+    private Board board;
+
+    /**
+     * Creates the board.
+     */
+    @BeforeEach
+    void setUp() {
+        sprites = new PacManSprites();
+        byte[] kinds = {
+            BoardFactory.WALL, BoardFactory.GROUND, BoardFactory.GROUND,
+            BoardFactory.GROUND, BoardFactory.GROUND, BoardFactory.GROUND
+        };
+        board = new BoardFactory(sprites).createCompactBoard(3, 2, kinds);
+    }
+
+    /**
+     * Asking for a square twice gives the same square.
+     */
+    @Test
+    void singleViewPerSquare() {
+        Square square = board.squareAt(1, 1);
+        assertThat(board.squareAt(1, 1)).isSameAs(square);
+        assertThat(square.getIndex()).isEqualTo(4);
+        assertThat(square.getBoard()).isSameAs(board);
+    }
+
+    /**
+     * Squares are linked to their neighbours, wrapping around the edges.
+     */
+    @Test
+    void neighboursWrapAround() {
+        Square corner = board.squareAt(0, 0);
+        assertThat(corner.getSquareAt(Direction.WEST)).isSameAs(board.squareAt(2, 0));
+        assertThat(corner.getSquareAt(Direction.NORTH)).isSameAs(board.squareAt(0, 1));
+        assertThat(corner.getSquareAt(Direction.EAST)).isSameAs(board.squareAt(1, 0));
+        assertThat(corner.getSquareAt(Direction.SOUTH)).isSameAs(board.squareAt(0, 1));
+    }
+
+    /**
+     * Neighbours and accessibility looked up by index agree with those of a
+     * grid of squares with the same layout.
+     */
+    @Test
+    void indicesMatchGrid() {
+        BoardFactory factory = new BoardFactory(sprites);
+        Square[][] grid = new Square[3][2];
+        for (int x = 0; x < 3; x++) {
+            for (int y = 0; y < 2; y++) {
+                grid[x][y] = factory.createGround();
+            }
+        }
+        grid[0][0] = factory.createWall();
+        Board gridBoard = factory.createBoard(grid);
+        Unit unit = mock(Unit.class);
+        int[] expected = new int[Square.NEIGHBOUR_COUNT];
+        int[] actual = new int[Square.NEIGHBOUR_COUNT];
+        Square[] neighbours = new Square[Square.NEIGHBOUR_COUNT];
+        for (int index = 0; index < 6; index++) {
+            gridBoard.getNeighbourIndices(index, expected);
+            board.getNeighbourIndices(index, actual);
+            assertThat(actual).containsExactly(expected);
+            assertThat(board.isAccessibleAt(index, unit))
+                .isEqualTo(gridBoard.isAccessibleAt(index, unit));
+
+            board.squareAtIndex(index).getNeighbours(neighbours);
+            for (Direction direction : Direction.values()) {
+                assertThat(neighbours[direction.ordinal()].getIndex())
+                    .isEqualTo(expected[direction.ordinal()]);
+            }
+        }
+    }
+
+    /**
+     * Squares behave according to their kind.
+     */
+    @Test
+    void squaresFollowTheirKind() {
+        Unit unit = mock(Unit.class);
+        assertThat(board.squareAt(0, 0).isAccessibleTo(unit)).isFalse();
+        assertThat(board.squareAt(1, 0).isAccessibleTo(unit)).isTrue();
+        assertThat(board.squareAt(0, 0).getSprite()).isSameAs(sprites.getWallSprite());
+    }
+
+    /**
+     * Squares can be occupied like any other.
+     */
+    @Test
+    void squaresHoldOccupants() {
+        Unit unit = new BasicUnit();
+        unit.occupy(board.squareAt(2, 1));
+        assertThat(board.squareAt(2, 1).getOccupants()).containsExactly(unit);
+        assertThat(board.getUnits().count(BasicUnit.class)).isEqualTo(1);
+    }
+
+    /**
+     * Drawing the squares and building the path table go by index, and
+     * create no square objects.
+     */
+    @Test
+    void indexedQueriesCreateNoSquares() {
+        assertThat(board.getPathTable(null)).isNotNull();
+        for (int index = 0; index < 6; index++) {
+            assertThat(board.getSpriteAt(index)).isNotNull();
+            assertThat(board.findSquare(index)).isNull();
+        }
+        Square square = board.squareAt(1, 1);
+        assertThat(board.findSquare(4)).isSameAs(square);
+    }
+
+    /**
+     * A level on a compact board plays out exactly like the same level on a
+     * grid of squares.
+     *
+     * @throws IOException
+     *             If the map could not be read.
+     */
+    @Test
+    void playsLikeGrid() throws IOException {
+        Level grid = createLevel(false);
+        Level compact = createLevel(true);
+        assertThat(compact.remainingPellets()).isEqualTo(grid.remainingPellets());
+        for (int tick = 0; tick < 500; tick++) {
+            grid.step();
+            compact.step();
+        }
+        assertThat(ghostSquares(compact)).isEqualTo(ghostSquares(grid));
+    }
+
+    /**
+     * Creates a started level of the default map with a player on it.
+     *
+     * @param compactBoard
+     *            Whether to parse the map into a compact board.
+     * @return The new level.
+     * @throws IOException
+     *             If the map could not be read.
+     */
+    private Level createLevel(boolean compactBoard) throws IOException {
+        LevelFactory levelFactory = new LevelFactory(sprites, new GhostFactory(sprites),
+            new ManualTickEngine(), new Random(7L));
+        MapParser parser = new MapParser(levelFactory, new BoardFactory(sprites));
+        if (compactBoard) {
+            parser.withCompactBoards();
+        }
+        Level level = parser.parseMap("/board.txt");
+        level.registerPlayer(new PlayerFactory(sprites).createPacMan());
+        level.start();
+        return level;
+    }
+
+    /**
+     * Lists the squares of all ghosts on a level.
+     *
+     * @param level
+     *            The level to list the ghosts of.
+     * @return The indices of the squares holding a ghost, in order.
+     */
+    private List<Integer> ghostSquares(Level level) {
+        List<Integer> squares = new ArrayList<>();
+        for (Square square : level.getBoard().getUnits().squaresOf(Ghost.class)) {
+            assertThat(Navigation.findUnit(Ghost.class, square)).isNotNull();
+            squares.add(square.getIndex());
+        }
+        squares.sort(Integer::compare);
+        return squares;
+    }
+}
@@ -0,0 +1,121 @@
+package nl.tudelft.jpacman.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the flow fields a board hands out.
+ */
+@SuppressWarnings("magicnumber")
+class FlowFieldTest {
+
+    /**
+     * A board with a single wall in the middle of a ring of ground.
+     */
+    private Board board;
+
+    /**
+     * A unit to travel the board.
+     */
+    private Unit traveller;
+
+    /**
+     * Creates the board from the following map.
+     *
+     * <pre>
+     * #####
+     * #   #
+     * # # #
+     * #   #
+     * #####
+     * </pre>
+     */
+    @BeforeEach
+    void setUp() {
+        BoardFactory factory = new BoardFactory(mock(PacManSprites.class));
+        String[] map = {"#####", "#   #", "# # #", "#   #", "#####"};
+        Square[][] grid = new Square[5][5];
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 5; y++) {
+                if (map[y].charAt(x) == '#') {
+                    grid[x][y] = factory.createWall();
+                } else {
+                    grid[x][y] = factory.createGround();
+                }
+            }
+        }
+        board = factory.createBoard(grid);
+        traveller = new BasicUnit();
+    }
+
+    /**
+     * Verifies that the field leads around the wall, preferring the first
+     * direction when both ways are equally long.
+     */
+    @Test
+    void leadsAroundWall() {
+        FlowField field = board.flowFieldTowards(board.squareAt(1, 1), traveller);
+        assertThat(field.distanceFrom(board.squareAt(3, 3))).isEqualTo(4);
+        assertThat(field.directionFrom(board.squareAt(3, 3))).isEqualTo(Direction.NORTH);
+        assertThat(field.directionFrom(board.squareAt(3, 1))).isEqualTo(Direction.WEST);
+        assertThat(field.directionFrom(board.squareAt(1, 1))).isNull();
+        assertThat(field.distanceFrom(board.squareAt(1, 1))).isEqualTo(0);
+    }
+
+    /**
+     * Verifies that a wall cannot be travelled to.
+     */
+    @Test
+    void wallUnreachable() {
+        FlowField field = board.flowFieldTowards(board.squareAt(2, 2), traveller);
+        assertThat(field.directionFrom(board.squareAt(2, 1))).isNull();
+        assertThat(field.distanceFrom(board.squareAt(2, 1))).isEqualTo(FlowField.UNREACHABLE);
+    }
+
+    /**
+     * Verifies that travellers heading for the same square share a field.
+     */
+    @Test
+    void fieldsShared() {
+        Square target = board.squareAt(3, 1);
+        FlowField field = board.flowFieldTowards(target, traveller);
+        assertThat(board.flowFieldTowards(target, new BasicUnit())).isSameAs(field);
+        assertThat(field.getTarget()).isSameAs(target);
+    }
+
+    /**
+     * Verifies that travellers of classes with different access to squares
+     * get fields of their own, whichever asked first.
+     */
+    @Test
+    void fieldsPerTravellerClass() {
+        BoardFactory factory = new BoardFactory(mock(PacManSprites.class));
+        Square gate = new BasicSquare() {
+            @Override
+            public boolean isAccessibleTo(Unit unit) {
+                return unit instanceof Phantom;
+            }
+        };
+        Board corridor = factory.createBoard(new Square[][] {{factory.createWall()},
+            {factory.createGround()}, {gate}, {factory.createGround()}, {factory.createWall()}});
+        Square target = corridor.squareAt(1, 0);
+        Square start = corridor.squareAt(3, 0);
+
+        FlowField blocked = corridor.flowFieldTowards(target, traveller);
+        FlowField passing = corridor.flowFieldTowards(target, new Phantom());
+        assertThat(blocked.distanceFrom(start)).isEqualTo(FlowField.UNREACHABLE);
+        assertThat(passing.distanceFrom(start)).isEqualTo(2);
+        assertThat(corridor.flowFieldTowards(target, new Phantom())).isSameAs(passing);
+    }
+
+    /**
+     * A unit that can pass gates.
+     */
+    private static final class Phantom extends BasicUnit {
+    }
+}
@@ -0,0 +1,168 @@
+package nl.tudelft.jpacman.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the precomputed tables of shortest paths.
+ */
+@SuppressWarnings("magicnumber")
+class PathTableTest {
+
+    /**
+     * A map with a single wall in the middle of a ring of ground.
+     */
+    private static final String[] RING = {"#####", "#   #", "# # #", "#   #", "#####"};
+
+    /**
+     * The factory to make boards with.
+     */
+    private BoardFactory factory;
+
+    /**
+     * A unit to travel the boards.
+     */
+    private Unit traveller;
+
+    /**
+     * Creates the factory and traveller.
+     */
+    @BeforeEach
+    void setUp() {
+        factory = new BoardFactory(mock(PacManSprites.class));
+        traveller = new BasicUnit();
+    }
+
+    /**
+     * Creates a board from a map of walls and ground.
+     *
+     * @param map
+     *            The rows of the map, with '#' for walls.
+     * @return The new board.
+     */
+    private Board createBoard(String... map) {
+        Square[][] grid = new Square[map[0].length()][map.length];
+        for (int x = 0; x < grid.length; x++) {
+            for (int y = 0; y < map.length; y++) {
+                if (map[y].charAt(x) == '#') {
+                    grid[x][y] = factory.createWall();
+                } else {
+                    grid[x][y] = factory.createGround();
+                }
+            }
+        }
+        return factory.createBoard(grid);
+    }
+
+    /**
+     * Verifies that the table holds the same path a breadth first search
+     * would find first.
+     */
+    @Test
+    void pathAroundWall() {
+        Board board = createBoard(RING);
+        PathTable table = board.getPathTable(traveller);
+        assertThat(table).isNotNull();
+        assertThat(table.path(board.squareAt(3, 3), board.squareAt(1, 1))).containsExactly(
+            Direction.NORTH, Direction.NORTH, Direction.WEST, Direction.WEST);
+        assertThat(table.distance(board.squareAt(1, 3), board.squareAt(3, 1))).isEqualTo(4);
+        assertThat(table.path(board.squareAt(2, 1), board.squareAt(2, 1))).isEmpty();
+    }
+
+    /**
+     * Verifies that walls cannot be travelled to or looked up from.
+     */
+    @Test
+    void wallsNotCovered() {
+        Board board = createBoard(RING);
+        PathTable table = board.getPathTable(traveller);
+        assertThat(table.covers(board.squareAt(2, 2))).isFalse();
+        assertThat(table.path(board.squareAt(1, 1), board.squareAt(2, 2))).isNull();
+    }
+
+    /**
+     * Verifies that squares that cannot reach each other have no path.
+     */
+    @Test
+    void separatedSquares() {
+        Board board = createBoard("#####", "# # #", "#####");
+        PathTable table = board.getPathTable(traveller);
+        assertThat(table.path(board.squareAt(1, 1), board.squareAt(3, 1))).isNull();
+        assertThat(table.distance(board.squareAt(1, 1), board.squareAt(3, 1))).isEqualTo(-1);
+    }
+
+    /**
+     * Verifies that boards with the same layout share their table.
+     */
+    @Test
+    void tablesShared() {
+        PathTable table = createBoard(RING).getPathTable(traveller);
+        assertThat(createBoard(RING).getPathTable(traveller)).isSameAs(table);
+        assertThat(createBoard("###", "# #", "###").getPathTable(traveller))
+            .isNotSameAs(table);
+    }
+
+    /**
+     * Verifies that boards of the same layout asking for their table at the
+     * same time still end up sharing one.
+     *
+     * @throws Exception
+     *             If a board could not be created or asked for its table.
+     */
+    @Test
+    void tablesSharedAcrossThreads() throws Exception {
+        String[] map = {"######", "#    #", "# ## #", "#    #", "######"};
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<PathTable>> tables = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tables.add(threads.submit(() -> createBoard(map).getPathTable(traveller)));
+            }
+            PathTable first = tables.get(0).get();
+            for (Future<PathTable> table : tables) {
+                assertThat(table.get()).isSameAs(first);
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    /**
+     * Verifies that no table is made for squares that may treat units
+     * differently.
+     */
+    @Test
+    void noTableForCustomSquares() {
+        Board board = factory.createBoard(new Square[][]{{new BasicSquare()}});
+        assertThat(board.getPathTable(traveller)).isNull();
+    }
+
+    /**
+     * Verifies that no table is made when it would exceed the memory limit.
+     */
+    @Test
+    void noTableOverLimit() {
+        String previous = System.getProperty(PathTable.LIMIT_PROPERTY);
+        System.setProperty(PathTable.LIMIT_PROPERTY, "10");
+        try {
+            assertThat(createBoard(RING).getPathTable(traveller)).isNull();
+        } finally {
+            if (previous == null) {
+                System.clearProperty(PathTable.LIMIT_PROPERTY);
+            } else {
+                System.setProperty(PathTable.LIMIT_PROPERTY, previous);
+            }
+        }
+    }
+}
@@ -62,4 +62,24 @@ class SquareTest {
 
         assertThat(square.getOccupants()).containsSequence(o1, o2);
     }
+
+    /**
+     * Assert that indexed access sees the occupants in order of appearance,
+     * and closes the gap left by an occupant that leaves.
+     */
+    @Test
+    void testIndexedAccess() {
+        Unit o1 = mock(Unit.class);
+        Unit o2 = mock(Unit.class);
+        Unit o3 = mock(Unit.class);
+        square.put(o1);
+        square.put(o2);
+        square.put(o3);
+        square.remove(o2);
+
+        assertThat(square.getOccupantCount()).isEqualTo(2);
+        assertThat(square.getOccupant(0)).isEqualTo(o1);
+        assertThat(square.getOccupant(1)).isEqualTo(o3);
+        assertThat(square.hasOccupant(o2)).isFalse();
+    }
 }
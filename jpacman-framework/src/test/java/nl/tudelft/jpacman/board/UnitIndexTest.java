@@ -0,0 +1,119 @@
+package nl.tudelft.jpacman.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the index a board keeps of the units on it.
+ */
+@SuppressWarnings("magicnumber")
+class UnitIndexTest {
+
+    /**
+     * A board of three by two squares.
+     */
+    private Board board;
+
+    /**
+     * A unit placed on the board before it was created.
+     */
+    private Unit early;
+
+    /**
+     * Another type of unit.
+     */
+    private Unit other;
+
+    /**
+     * Creates the board, with one unit on the square at (2, 0).
+     */
+    @BeforeEach
+    void setUp() {
+        Square[][] grid = new Square[3][2];
+        for (int x = 0; x < grid.length; x++) {
+            for (int y = 0; y < grid[x].length; y++) {
+                grid[x][y] = new BasicSquare();
+            }
+        }
+        early = new BasicUnit();
+        early.occupy(grid[2][0]);
+        board = new BoardFactory(mock(PacManSprites.class)).createBoard(grid);
+        other = new OtherUnit();
+    }
+
+    /**
+     * Units on a square before the board is created are indexed.
+     */
+    @Test
+    void indexesUnitsPlacedBeforehand() {
+        UnitIndex units = board.getUnits();
+        assertThat(units.count(BasicUnit.class)).isEqualTo(1);
+        assertThat(units.squaresOf(BasicUnit.class)).containsExactly(board.squareAt(2, 0));
+    }
+
+    /**
+     * The index follows units moving and leaving the board.
+     */
+    @Test
+    void followsMoves() {
+        UnitIndex units = board.getUnits();
+        early.occupy(board.squareAt(1, 1));
+        assertThat(units.squaresOf(BasicUnit.class)).containsExactly(board.squareAt(1, 1));
+
+        early.leaveSquare();
+        assertThat(units.count(BasicUnit.class)).isZero();
+        assertThat(units.firstSquareOf(BasicUnit.class)).isNull();
+    }
+
+    /**
+     * A square holding several units of a type is listed once for each, and
+     * still holds the type after one of them left.
+     */
+    @Test
+    void stacksUnitsOnSquare() {
+        Unit second = new BasicUnit();
+        second.occupy(board.squareAt(2, 0));
+        UnitIndex units = board.getUnits();
+        assertThat(units.squaresOf(BasicUnit.class))
+            .containsExactly(board.squareAt(2, 0), board.squareAt(2, 0));
+
+        early.leaveSquare();
+        assertThat(units.count(BasicUnit.class)).isEqualTo(1);
+        assertThat(units.firstSquareOf(BasicUnit.class)).isEqualTo(board.squareAt(2, 0));
+    }
+
+    /**
+     * Units are found by their supertype as well as by their own type.
+     */
+    @Test
+    void countsSubtypes() {
+        other.occupy(board.squareAt(0, 1));
+        UnitIndex units = board.getUnits();
+        assertThat(units.count(Unit.class)).isEqualTo(2);
+        assertThat(units.count(BasicUnit.class)).isEqualTo(2);
+        assertThat(units.count(OtherUnit.class)).isEqualTo(1);
+    }
+
+    /**
+     * The first square holding a unit is the first one row by row, rather
+     * than the first one the unit entered.
+     */
+    @Test
+    void firstSquareGoesRowByRow() {
+        other.occupy(board.squareAt(0, 1));
+        Unit second = new BasicUnit();
+        second.occupy(board.squareAt(1, 0));
+        assertThat(board.getUnits().firstSquareOf(Unit.class)).isEqualTo(board.squareAt(1, 0));
+    }
+
+    /**
+     * A subtype of the basic unit.
+     */
+    private static final class OtherUnit extends BasicUnit {
+    }
+}
@@ -0,0 +1,105 @@
+package nl.tudelft.jpacman.level;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.CollisionInteractionMap.CollisionHandler;
+import nl.tudelft.jpacman.sprite.Sprite;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the dispatching of collisions to their handlers.
+ */
+@SuppressWarnings({"unchecked", "PMD.JUnitTestsShouldIncludeAssert"})
+class CollisionInteractionMapTest {
+
+    /**
+     * The map under test.
+     */
+    private CollisionInteractionMap map;
+
+    /**
+     * A unit to collide.
+     */
+    private TestUnit unit;
+
+    /**
+     * A more specific unit to collide.
+     */
+    private SpecificUnit specific;
+
+    /**
+     * Creates an empty map and some units.
+     */
+    @BeforeEach
+    void setUp() {
+        map = new CollisionInteractionMap();
+        unit = new TestUnit();
+        specific = new SpecificUnit();
+    }
+
+    /**
+     * Verifies that the handler of the most specific classes is used, also
+     * when the same classes collide again.
+     */
+    @Test
+    void mostSpecificHandler() {
+        CollisionHandler<TestUnit, TestUnit> general = mock(CollisionHandler.class);
+        CollisionHandler<SpecificUnit, TestUnit> particular = mock(CollisionHandler.class);
+        map.onCollision(TestUnit.class, TestUnit.class, false, general);
+        map.onCollision(SpecificUnit.class, TestUnit.class, false, particular);
+
+        map.collide(specific, unit);
+        map.collide(specific, unit);
+
+        verify(particular, times(2)).handleCollision(specific, unit);
+        verify(general, never()).handleCollision(any(), any());
+    }
+
+    /**
+     * Verifies that a handler added after a collision was resolved is used
+     * for the next collision.
+     */
+    @Test
+    void laterHandlerUsed() {
+        CollisionHandler<TestUnit, TestUnit> handler = mock(CollisionHandler.class);
+        map.collide(unit, specific);
+        map.onCollision(TestUnit.class, TestUnit.class, false, handler);
+        map.collide(unit, specific);
+        verify(handler).handleCollision(unit, specific);
+    }
+
+    /**
+     * Verifies that symmetric handlers are used in both directions.
+     */
+    @Test
+    void symmetricHandler() {
+        CollisionHandler<SpecificUnit, TestUnit> handler = mock(CollisionHandler.class);
+        map.onCollision(SpecificUnit.class, TestUnit.class, handler);
+        map.collide(unit, specific);
+        verify(handler).handleCollision(specific, unit);
+    }
+
+    /**
+     * A unit to collide.
+     */
+    private static class TestUnit extends Unit {
+
+        @Override
+        public Sprite getSprite() {
+            return null;
+        }
+    }
+
+    /**
+     * A more specific unit to collide.
+     */
+    private static class SpecificUnit extends TestUnit {
+    }
+}
@@ -0,0 +1,53 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the engine ticking levels from a background thread.
+ */
+@SuppressWarnings("magicnumber")
+class FixedRateTickEngineTest {
+
+    /**
+     * Ticking that restarts while the last tick of a participant is still
+     * running waits for that tick, rather than running next to it.
+     *
+     * @throws InterruptedException
+     *             If the test is interrupted.
+     */
+    @Test
+    void restartDoesNotOverlap() throws InterruptedException {
+        FixedRateTickEngine engine = new FixedRateTickEngine(1L);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostRunning = new AtomicInteger();
+        CountDownLatch ticked = new CountDownLatch(20);
+        TickEngine.Tickable participant = millis -> {
+            mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(2L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            ticked.countDown();
+        };
+        try {
+            for (int i = 0; i < 10; i++) {
+                engine.register(participant);
+                Thread.sleep(3L);
+                engine.unregister(participant);
+            }
+            engine.register(participant);
+            assertThat(ticked.await(10L, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            engine.unregister(participant);
+        }
+        assertThat(mostRunning.get()).isEqualTo(1);
+    }
+}
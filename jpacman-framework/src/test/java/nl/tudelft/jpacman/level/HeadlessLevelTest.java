@@ -0,0 +1,113 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.npc.ghost.Navigation;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests levels that are stepped on a virtual clock instead of running in
+ * real time.
+ */
+@SuppressWarnings("magicnumber")
+class HeadlessLevelTest {
+
+    /**
+     * The sprites for the units.
+     */
+    private PacManSprites sprites;
+
+    /**
+     * Creates the sprites.
+     */
+    @BeforeEach
+    void setUp() {
+        sprites = new PacManSprites();
+    }
+
+    /**
+     * Creates a started level of the default map with a player on it.
+     *
+     * @param seed
+     *            The seed for the randomness of the ghosts.
+     * @return The new level.
+     * @throws IOException
+     *             If the map could not be read.
+     */
+    private Level createLevel(long seed) throws IOException {
+        LevelFactory levelFactory = new LevelFactory(sprites, new GhostFactory(sprites),
+            new ManualTickEngine(), new Random(seed));
+        Level level = new MapParser(levelFactory, new BoardFactory(sprites))
+            .parseMap("/board.txt");
+        level.registerPlayer(new PlayerFactory(sprites).createPacMan());
+        level.start();
+        return level;
+    }
+
+    /**
+     * Lists the squares of all ghosts on a level, ordered by position.
+     *
+     * @param level
+     *            The level to list the ghosts of.
+     * @return The indices of the squares holding a ghost.
+     */
+    private List<Integer> ghostSquares(Level level) {
+        Board board = level.getBoard();
+        List<Integer> squares = new ArrayList<>();
+        for (int y = 0; y < board.getHeight(); y++) {
+            for (int x = 0; x < board.getWidth(); x++) {
+                Square square = board.squareAt(x, y);
+                if (Navigation.findUnit(Ghost.class, square) != null) {
+                    squares.add(square.getIndex());
+                }
+            }
+        }
+        return squares;
+    }
+
+    /**
+     * Verifies that levels with the same seed play out the same way.
+     *
+     * @throws IOException
+     *             If the map could not be read.
+     */
+    @Test
+    void sameSeedSameGame() throws IOException {
+        Level first = createLevel(42L);
+        Level second = createLevel(42L);
+        for (int i = 0; i < 300; i++) {
+            first.step();
+            second.step();
+            assertThat(ghostSquares(second)).isEqualTo(ghostSquares(first));
+        }
+        assertThat(first.getTime()).isEqualTo(300 * FixedRateTickEngine.DEFAULT_TICK);
+    }
+
+    /**
+     * Verifies that a level runs until the idle player is caught.
+     *
+     * @throws IOException
+     *             If the map could not be read.
+     */
+    @Test
+    void runsUntilEnd() throws IOException {
+        Level level = createLevel(7L);
+        long ticks = level.runUntilEnd(1_000_000L);
+        assertThat(level.isAnyPlayerAlive()).isFalse();
+        assertThat(ticks).isLessThan(1_000_000L);
+        assertThat(level.getTime()).isEqualTo(ticks * FixedRateTickEngine.DEFAULT_TICK);
+    }
+}
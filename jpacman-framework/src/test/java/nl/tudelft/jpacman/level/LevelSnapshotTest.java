@@ -0,0 +1,189 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.simulation.NearestPelletPolicy;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests capturing and restoring the state of levels.
+ */
+@SuppressWarnings("magicnumber")
+class LevelSnapshotTest {
+
+    /**
+     * The sprites for squares and units.
+     */
+    private PacManSprites sprites;
+
+    /**
+     * The template of the default map.
+     */
+    private LevelTemplate template;
+
+    /**
+     * A started level of the default map with a player.
+     */
+    private Level level;
+
+    /**
+     * Creates the level.
+     *
+     * @throws IOException
+     *             If the map could not be read.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        sprites = new PacManSprites();
+        template = new MapParser(levelFactory(), new BoardFactory(sprites))
+            .parseTemplate("/board.txt");
+        level = createLevel();
+        level.setSeed(17L);
+    }
+
+    /**
+     * Restoring a level brings back its units, pellets and clock, after which
+     * it plays out as it did after the snapshot was taken.
+     */
+    @Test
+    void restoresInPlace() {
+        play(level, 50);
+        LevelSnapshot snapshot = new LevelSnapshot(level);
+        List<Object> before = state(level);
+        play(level, 300);
+        List<Object> after = state(level);
+        assertThat(after).isNotEqualTo(before);
+
+        snapshot.restore(level);
+        assertThat(state(level)).isEqualTo(before);
+        play(level, 300);
+        assertThat(state(level)).isEqualTo(after);
+    }
+
+    /**
+     * A snapshot can be restored into another level of the same map.
+     */
+    @Test
+    void restoresIntoCopy() {
+        play(level, 200);
+        LevelSnapshot snapshot = new LevelSnapshot(level);
+        Level copy = createLevel();
+        snapshot.restore(copy);
+        assertThat(state(copy)).isEqualTo(state(level));
+        play(level, 100);
+        play(copy, 100);
+        assertThat(state(copy)).isEqualTo(state(level));
+        assertThat(copy.getSeed()).isNotEqualTo(level.getSeed());
+    }
+
+    /**
+     * A snapshot can be captured again, replacing its state.
+     */
+    @Test
+    void recaptures() {
+        LevelSnapshot snapshot = new LevelSnapshot(level);
+        play(level, 100);
+        snapshot.capture(level);
+        List<Object> captured = state(level);
+        play(level, 100);
+        snapshot.restore(level);
+        assertThat(state(level)).isEqualTo(captured);
+        assertThat(snapshot.getTime()).isEqualTo(level.getTime());
+    }
+
+    /**
+     * The randomness of the NPCs gives the same numbers as {@link Random}.
+     */
+    @Test
+    void randomLikeJava() {
+        LevelRandom random = new LevelRandom();
+        random.setSeed(99L);
+        Random expected = new Random(99L);
+        for (int i = 0; i < 100; i++) {
+            assertThat(random.nextInt(1000)).isEqualTo(expected.nextInt(1000));
+        }
+        long state = random.getState();
+        long next = random.nextLong();
+        random.setState(state);
+        assertThat(random.nextLong()).isEqualTo(next);
+    }
+
+    /**
+     * Steps a level, with its player going for the nearest pellet.
+     *
+     * @param played
+     *            The level.
+     * @param ticks
+     *            The number of ticks to play.
+     */
+    private static void play(Level played, int ticks) {
+        Player player = (Player) played.getUnit(played.getNpcCount());
+        NearestPelletPolicy policy = new NearestPelletPolicy();
+        for (int tick = 0; tick < ticks && player.isAlive(); tick++) {
+            if (played.getTick() % 4 == 0) {
+                Direction direction = policy.nextMove(played, player);
+                if (direction != null) {
+                    played.move(player, direction);
+                }
+            }
+            played.step();
+        }
+    }
+
+    /**
+     * @param described
+     *            A level.
+     * @return The squares and directions of its units, the score and life of
+     *         its player, its pellets and its clock.
+     */
+    private static List<Object> state(Level described) {
+        List<Object> state = new ArrayList<>();
+        for (int id = 0; id <= described.getNpcCount(); id++) {
+            Unit unit = described.getUnit(id);
+            state.add(unit.getSquare().getIndex());
+            state.add(unit.getDirection());
+        }
+        Player player = (Player) described.getUnit(described.getNpcCount());
+        state.add(player.getScore());
+        state.add(player.isAlive());
+        state.add(described.remainingPellets());
+        state.add(described.getTime());
+        int squares = described.getBoard().getWidth() * described.getBoard().getHeight();
+        for (int index = 0; index < squares; index++) {
+            if (described.hasPellet(index)) {
+                state.add(index);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * @return A new started level of the default map with a player.
+     */
+    private Level createLevel() {
+        Level created = template.createLevel(levelFactory());
+        created.registerPlayer(new PlayerFactory(sprites).createPacMan());
+        created.start();
+        return created;
+    }
+
+    /**
+     * @return A new level factory for stepped levels.
+     */
+    private LevelFactory levelFactory() {
+        return new LevelFactory(sprites, new GhostFactory(sprites), new ManualTickEngine(),
+            new Random(5L));
+    }
+}
@@ -0,0 +1,210 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import nl.tudelft.jpacman.Launcher;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests creating levels from templates.
+ */
+@SuppressWarnings("magicnumber")
+class LevelTemplateTest {
+
+    /**
+     * The sprites for squares and units.
+     */
+    private PacManSprites sprites;
+
+    /**
+     * The template of the default map.
+     */
+    private LevelTemplate template;
+
+    /**
+     * Parses the default map into a template.
+     *
+     * @throws IOException
+     *             If the map could not be read.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        sprites = new PacManSprites();
+        template = parser().parseTemplate("/board.txt");
+    }
+
+    /**
+     * A level from a template has the same squares and units as the level
+     * parsed from the map.
+     *
+     * @throws IOException
+     *             If the map could not be read.
+     */
+    @Test
+    void sameAsParsed() throws IOException {
+        Level parsed = parser().parseMap("/board.txt");
+        Level created = template.createLevel(levelFactory());
+        Board board = created.getBoard();
+        assertThat(board.getWidth()).isEqualTo(template.getWidth());
+        assertThat(board.getHeight()).isEqualTo(template.getHeight());
+        assertThat(created.remainingPellets()).isEqualTo(parsed.remainingPellets());
+        assertThat(squaresOf(created, Ghost.class)).isEqualTo(squaresOf(parsed, Ghost.class));
+        assertThat(squaresOf(created, Pellet.class)).isEqualTo(squaresOf(parsed, Pellet.class));
+    }
+
+    /**
+     * A template only holds maps of the characters the default parser reads.
+     */
+    @Test
+    void holdsParsedCharacters() {
+        assertThat(LevelTemplate.canHold(new char[][] {{'#', 'P'}, {'.', 'G'}, {' ', '#'}}))
+            .isTrue();
+        assertThat(LevelTemplate.canHold(new char[][] {{'#', 'P'}, {'F', '#'}})).isFalse();
+    }
+
+    /**
+     * The launcher builds its levels through its map parser, reading the map
+     * once, unless it opted in to compact levels.
+     */
+    @Test
+    void launcherUsesParser() {
+        AtomicInteger parsers = new AtomicInteger();
+        Launcher launcher = new Launcher() {
+            @Override
+            protected MapParser getMapParser() {
+                parsers.incrementAndGet();
+                return parser();
+            }
+        };
+        Board board = launcher.makeLevel().getBoard();
+        assertThat(launcher.makeLevel().getBoard()).isNotSameAs(board);
+        assertThat(parsers.get()).isEqualTo(2);
+        assertThat(board.getClass()).isEqualTo(Board.class);
+        assertThat(launcher.withCompactLevels().makeLevel().getBoard().getClass())
+            .isNotEqualTo(Board.class);
+    }
+
+    /**
+     * Maps with characters only the launcher's parser reads are parsed by it,
+     * even when the launcher opted in to compact levels.
+     */
+    @Test
+    void launcherParsesCustomCharacters() {
+        Launcher launcher = new Launcher() {
+            @Override
+            protected MapParser getMapParser() {
+                return new MapParser(levelFactory(), new BoardFactory(sprites)) {
+                    @Override
+                    protected void addSquare(Square[][] grid, List<Ghost> ghosts,
+                                             List<Square> startPositions, int x, int y, char c) {
+                        if (c == 'F') {
+                            grid[x][y] = getBoardCreator().createGround();
+                            return;
+                        }
+                        super.addSquare(grid, ghosts, startPositions, x, y, c);
+                    }
+                };
+            }
+        }.withMapFile("/fruit.txt");
+        Level level = launcher.makeLevel();
+        assertThat(level.getBoard().squareAt(2, 1).isAccessibleTo(null)).isTrue();
+        assertThat(level.remainingPellets()).isEqualTo(1);
+        assertThat(launcher.withCompactLevels().makeLevel().getBoard().getWidth()).isEqualTo(5);
+    }
+
+    /**
+     * Changing the units of one level leaves those of other levels from the
+     * same template alone.
+     */
+    @Test
+    void levelsAreIndependent() {
+        Level first = template.createLevel(levelFactory());
+        Level second = template.createLevel(levelFactory());
+        assertThat(second.getBoard()).isNotSameAs(first.getBoard());
+
+        int pellets = second.remainingPellets();
+        Square square = first.getBoard().getUnits().squaresOf(Pellet.class).iterator().next();
+        Unit pellet = square.getOccupants().get(0);
+        pellet.leaveSquare();
+        Square other = second.getBoard().squareAtIndex(square.getIndex());
+
+        assertThat(first.remainingPellets()).isEqualTo(pellets - 1);
+        assertThat(second.remainingPellets()).isEqualTo(pellets);
+        assertThat(other).isNotSameAs(square);
+        assertThat(other.getOccupants()).hasSize(1);
+        assertThat(template.createLevel(levelFactory()).remainingPellets()).isEqualTo(pellets);
+    }
+
+    /**
+     * The shortest paths compiled with a map are shared by all levels of its
+     * template.
+     *
+     * @throws IOException
+     *             If the map could not be compiled.
+     * @throws URISyntaxException
+     *             If the map is not a file.
+     */
+    @Test
+    void sharesCompiledPaths() throws IOException, URISyntaxException {
+        char[][] map = MapParser.readText(Paths.get(getClass().getResource("/board.txt").toURI()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new MapCompiler(parser()).withPaths().compile(map, out);
+        LevelTemplate compiled =
+            parser().parseTemplate(new ByteArrayInputStream(out.toByteArray()));
+        Board first = compiled.createLevel(levelFactory()).getBoard();
+        Board second = compiled.createLevel(levelFactory()).getBoard();
+        assertThat(first.getPathTable(null)).isNotNull();
+        assertThat(second.getPathTable(null)).isSameAs(first.getPathTable(null));
+    }
+
+    /**
+     * @param level
+     *            A level.
+     * @param type
+     *            A type of unit.
+     * @return The indices of the squares holding a unit of the type, in
+     *         order.
+     */
+    private static List<Integer> squaresOf(Level level, Class<? extends Unit> type) {
+        List<Integer> squares = new ArrayList<>();
+        for (Square square : level.getBoard().getUnits().squaresOf(type)) {
+            squares.add(square.getIndex());
+        }
+        squares.sort(Integer::compare);
+        return squares;
+    }
+
+    /**
+     * @return A new level factory.
+     */
+    private LevelFactory levelFactory() {
+        return new LevelFactory(sprites, new GhostFactory(sprites),
+            new ManualTickEngine(), new Random(1L));
+    }
+
+    /**
+     * @return A new parser creating grid boards.
+     */
+    private MapParser parser() {
+        return new MapParser(levelFactory(), new BoardFactory(sprites));
+    }
+}
@@ -2,7 +2,9 @@ package nl.tudelft.jpacman.level;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -13,9 +15,11 @@ import java.util.Random;
 
 import nl.tudelft.jpacman.Launcher;
 import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.board.UnitIndex;
 import nl.tudelft.jpacman.game.Game;
 import nl.tudelft.jpacman.level.Level.LevelObserver;
 import nl.tudelft.jpacman.npc.Ghost;
@@ -26,6 +30,7 @@ import nl.tudelft.jpacman.sprite.PacManSprites;
 import com.google.common.collect.Lists;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 /**
  * Tests various aspects of level.
@@ -66,6 +71,11 @@ class LevelTest {
      */
     private final CollisionMap collisions = mock(CollisionMap.class);
 
+    /**
+     * The engine driving the NPCs of the level.
+     */
+    private final TickEngine engine = mock(TickEngine.class);
+
     /**
      * The default player interaction map.
      */
@@ -91,8 +101,9 @@ class LevelTest {
     @BeforeEach
     void setUp() {
         final long defaultInterval = 100L;
+        when(board.getUnits()).thenReturn(new UnitIndex(board));
         level = new Level(board, Lists.newArrayList(ghost), Lists.newArrayList(
-            square1, square2), collisions);
+            square1, square2), collisions, engine);
         when(ghost.getInterval()).thenReturn(defaultInterval);
     }
 
@@ -132,6 +143,104 @@ class LevelTest {
         assertThat(level.isInProgress()).isFalse();
     }
 
+    /**
+     * Verifies that a started level hands its NPCs to the tick engine, and
+     * takes them back when stopped.
+     */
+    @Test
+    @SuppressWarnings("PMD.JUnitTestsShouldIncludeAssert")
+    void startStopTicking() {
+        level.start();
+        level.stop();
+        verify(engine).register(any(TickEngine.Tickable.class));
+        verify(engine).unregister(any(TickEngine.Tickable.class));
+    }
+
+    /**
+     * Verifies that an NPC makes its first move after half of its interval,
+     * and not before.
+     */
+    @Test
+    @SuppressWarnings({"magicnumber", "PMD.JUnitTestsShouldIncludeAssert"})
+    void npcMovesAfterHalfInterval() {
+        ArgumentCaptor<TickEngine.Tickable> driver =
+            ArgumentCaptor.forClass(TickEngine.Tickable.class);
+        level.start();
+        verify(engine).register(driver.capture());
+
+        driver.getValue().tick(40L);
+        verify(ghost, never()).nextMove();
+        driver.getValue().tick(10L);
+        verify(ghost).nextMove();
+    }
+
+    /**
+     * Verifies that a frozen level no longer moves its NPCs.
+     */
+    @Test
+    @SuppressWarnings({"magicnumber", "PMD.JUnitTestsShouldIncludeAssert"})
+    void frozenNpcsDoNotMove() {
+        ArgumentCaptor<TickEngine.Tickable> driver =
+            ArgumentCaptor.forClass(TickEngine.Tickable.class);
+        level.start();
+        verify(engine).register(driver.capture());
+        level.freeze();
+
+        driver.getValue().tick(100L);
+        verify(ghost, never()).nextMove();
+    }
+
+    /**
+     * Verifies that the pellet count follows pellets leaving and entering the
+     * board after the level was created.
+     */
+    @Test
+    void pelletsCountedIncrementally() {
+        BoardFactory boardFactory = new BoardFactory(mock(PacManSprites.class));
+        Square left = boardFactory.createGround();
+        Square right = boardFactory.createGround();
+        Pellet pellet = new Pellet(1, null);
+        pellet.occupy(left);
+        Board realBoard = boardFactory.createBoard(new Square[][]{{left}, {right}});
+        Level pelletLevel = new Level(realBoard, Lists.newArrayList(),
+            Lists.newArrayList(left), collisions, engine);
+        assertThat(pelletLevel.remainingPellets()).isEqualTo(1);
+        assertThat(pelletLevel.hasPellet(left.getIndex())).isTrue();
+
+        pellet.occupy(right);
+        assertThat(pelletLevel.hasPellet(left.getIndex())).isFalse();
+        assertThat(pelletLevel.hasPellet(right.getIndex())).isTrue();
+
+        pellet.leaveSquare();
+        assertThat(pelletLevel.remainingPellets()).isZero();
+    }
+
+    /**
+     * Verifies that a square keeps its pellet while one of the pellets
+     * stacked on it is eaten, and that a disposed level no longer follows
+     * its board.
+     */
+    @Test
+    void stackedPelletsAndDispose() {
+        BoardFactory boardFactory = new BoardFactory(mock(PacManSprites.class));
+        Square square = boardFactory.createGround();
+        Pellet first = new Pellet(1, null);
+        Pellet second = new Pellet(1, null);
+        first.occupy(square);
+        second.occupy(square);
+        Board realBoard = boardFactory.createBoard(new Square[][]{{square}});
+        Level pelletLevel = new Level(realBoard, Lists.newArrayList(),
+            Lists.newArrayList(square), collisions, engine);
+
+        first.leaveSquare();
+        assertThat(pelletLevel.remainingPellets()).isEqualTo(1);
+        assertThat(pelletLevel.hasPellet(square.getIndex())).isTrue();
+
+        pelletLevel.dispose();
+        second.leaveSquare();
+        assertThat(pelletLevel.remainingPellets()).isEqualTo(1);
+    }
+
     /**
      * Verifies registering a player puts the player on the correct starting
      * square.
@@ -186,6 +295,26 @@ class LevelTest {
         verify(p3).occupy(square1);
     }
 
+    /**
+     * Verifies that the NPCs are numbered before the players, in the order
+     * they joined the level, and that the numbers give back the units.
+     */
+    @Test
+    @SuppressWarnings("magicnumber")
+    void unitIds() {
+        Player p1 = mock(Player.class);
+        Player p2 = mock(Player.class);
+        level.registerPlayer(p1);
+        level.registerPlayer(p2);
+        level.registerPlayer(p1);
+        assertThat(level.getUnitId(ghost)).isZero();
+        assertThat(level.getUnitId(p1)).isEqualTo(1);
+        assertThat(level.getUnitId(p2)).isEqualTo(2);
+        assertThat(level.getUnitId(mock(Player.class))).isEqualTo(-1);
+        assertThat(level.getUnit(2)).isSameAs(p2);
+        assertThat(level.getUnit(3)).isNull();
+    }
+
     /**
      * Verifies that unit collision produces the correct outcome of the status of the game.
      * Only Player-Ghost interactions should end and anything else should not affect it.
@@ -0,0 +1,245 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.PathTable;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.npc.ghost.Navigation;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests compiling maps and loading them again.
+ */
+@SuppressWarnings("magicnumber")
+class MapCompilerTest {
+
+    /**
+     * The sprites for squares and units.
+     */
+    private PacManSprites sprites;
+
+    /**
+     * The default map.
+     */
+    private char[][] map;
+
+    /**
+     * Reads the default map.
+     *
+     * @throws IOException
+     *             If the map could not be read.
+     * @throws URISyntaxException
+     *             If the map is not a file.
+     */
+    @BeforeEach
+    void setUp() throws IOException, URISyntaxException {
+        sprites = new PacManSprites();
+        map = MapParser.readText(Paths.get(MapParser.class.getResource("/board.txt").toURI()));
+    }
+
+    /**
+     * A compiled map gives the same level as its text, on either kind of
+     * board.
+     *
+     * @throws IOException
+     *             If the map could not be compiled.
+     */
+    @Test
+    void sameLevel() throws IOException {
+        byte[] compiled = compile(new MapCompiler(parser()));
+        Level text = parser().parseMap(map);
+        assertSameLevel(parser().parseMap(new ByteArrayInputStream(compiled)), text);
+        assertSameLevel(parser().withCompactBoards()
+            .parseMap(new ByteArrayInputStream(compiled)), text);
+    }
+
+    /**
+     * Compiled map files are recognised by their header.
+     *
+     * @throws IOException
+     *             If the map could not be compiled or loaded.
+     */
+    @Test
+    void files() throws IOException {
+        Path file = Files.createTempFile("board", ".jpm");
+        file.toFile().deleteOnExit();
+        Files.write(file, compile(new MapCompiler(parser())));
+        assertSameLevel(parser().parseMap(file), parser().parseMap(map));
+    }
+
+    /**
+     * The shortest paths of a map compiled with its paths are those found by
+     * searching the board.
+     *
+     * @throws IOException
+     *             If the map could not be compiled.
+     */
+    @Test
+    void paths() throws IOException {
+        byte[] compiled = compile(new MapCompiler(parser()).withPaths());
+        assertThat(compiled.length).isGreaterThan(compile(new MapCompiler(parser())).length);
+        Board board = parser().parseMap(new ByteArrayInputStream(compiled)).getBoard();
+        PathTable table = board.getPathTable(null);
+        assertThat(table).isNotNull();
+
+        Pellet traveller = new LevelFactory(sprites, new GhostFactory(sprites)).createPellet();
+        System.setProperty(PathTable.LIMIT_PROPERTY, "0");
+        try {
+            Board searched = parser().parseMap(map).getBoard();
+            int x = board.getWidth() - 2;
+            int y = board.getHeight() - 2;
+            List<Direction> path = Navigation.shortestPath(searched.squareAt(1, 1),
+                searched.squareAt(x, y), traveller);
+            assertThat(table.path(board.squareAt(1, 1), board.squareAt(x, y)))
+                .isEqualTo(path);
+        } finally {
+            System.clearProperty(PathTable.LIMIT_PROPERTY);
+        }
+    }
+
+    /**
+     * Truncated compiled maps are refused.
+     *
+     * @throws IOException
+     *             If the map could not be compiled.
+     */
+    @Test
+    void truncated() throws IOException {
+        byte[] compiled = compile(new MapCompiler(parser()).withPaths());
+        for (int length : new int[] {6, 20, compiled.length - 1}) {
+            byte[] part = Arrays.copyOf(compiled, length);
+            assertThatThrownBy(() -> parser().parseMap(new ByteArrayInputStream(part)))
+                .isInstanceOf(PacmanConfigurationException.class);
+        }
+    }
+
+    /**
+     * Compiled maps with numbers out of range, units out of order or units
+     * on walls are refused.
+     */
+    @Test
+    void corrupt() {
+        int ground = 2 << 1 | BoardFactory.GROUND;
+        int[][] maps = {
+            {ground, 1, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F, 0, 0},
+            {ground, 2, 1, 0, 0, 0},
+            {1 << 1 | BoardFactory.WALL, 1 << 1 | BoardFactory.GROUND, 1, 0, 0, 0},
+        };
+        for (int[] bytes : maps) {
+            assertThatThrownBy(() -> parser().parseMap(compiled(bytes)))
+                .isInstanceOf(PacmanConfigurationException.class);
+        }
+    }
+
+    /**
+     * Paths too large for the size limit are skipped when a compiled map is
+     * loaded, leaving the board without a table.
+     *
+     * @throws IOException
+     *             If the map could not be compiled.
+     */
+    @Test
+    void pathsOverLimit() throws IOException {
+        byte[] compiled = compile(new MapCompiler(parser()).withPaths());
+        System.setProperty(PathTable.LIMIT_PROPERTY, "0");
+        try {
+            Board board = parser().parseMap(new ByteArrayInputStream(compiled)).getBoard();
+            assertThat(board.getPathTable(null)).isNull();
+        } finally {
+            System.clearProperty(PathTable.LIMIT_PROPERTY);
+        }
+    }
+
+    /**
+     * @param bytes
+     *            The squares and spawn lists of a compiled map one square
+     *            high and two squares wide, byte by byte.
+     * @return A stream of the compiled map.
+     */
+    private static ByteArrayInputStream compiled(int... bytes) {
+        ByteBuffer buffer = ByteBuffer.allocate(3 * Integer.BYTES + 1 + bytes.length);
+        buffer.putInt(CompiledMap.MAGIC).put(CompiledMap.VERSION).putInt(2).putInt(1);
+        for (int b : bytes) {
+            buffer.put((byte) b);
+        }
+        return new ByteArrayInputStream(buffer.array());
+    }
+
+    /**
+     * @param compiler
+     *            The compiler to use.
+     * @return The default map, compiled.
+     * @throws IOException
+     *             If the map could not be compiled.
+     */
+    private byte[] compile(MapCompiler compiler) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        compiler.compile(map, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * @return A new parser creating grid boards.
+     */
+    private MapParser parser() {
+        return new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            new ManualTickEngine(), new Random(1L)), new BoardFactory(sprites));
+    }
+
+    /**
+     * Checks that two levels have the same squares with the same units.
+     *
+     * @param actual
+     *            The level to check.
+     * @param expected
+     *            The level it should equal.
+     */
+    private static void assertSameLevel(Level actual, Level expected) {
+        Board board = actual.getBoard();
+        Board other = expected.getBoard();
+        assertThat(board.getWidth()).isEqualTo(other.getWidth());
+        assertThat(board.getHeight()).isEqualTo(other.getHeight());
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                Square square = board.squareAt(x, y);
+                Square same = other.squareAt(x, y);
+                assertThat(square.isAccessibleTo(null)).isEqualTo(same.isAccessibleTo(null));
+                assertThat(types(square)).isEqualTo(types(same));
+            }
+        }
+        assertThat(actual.remainingPellets()).isEqualTo(expected.remainingPellets());
+    }
+
+    /**
+     * @param square
+     *            A square.
+     * @return The names of the types of the units on it.
+     */
+    private static List<String> types(Square square) {
+        return square.getOccupants().stream()
+            .map(unit -> unit.getClass().getSimpleName())
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,171 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Tests the generation of random maps.
+ */
+@SuppressWarnings("magicnumber")
+class MapGeneratorTest {
+
+    /**
+     * The same seed gives the same map, another seed another map.
+     */
+    @Test
+    void deterministic() {
+        char[][] map = new MapGenerator(40, 30).withSeed(7L).generate();
+        assertThat(new MapGenerator(40, 30).withSeed(7L).generate()).isEqualTo(map);
+        assertThat(new MapGenerator(40, 30).withSeed(8L).generate()).isNotEqualTo(map);
+    }
+
+    /**
+     * Maps of any shape and density hold the requested units, and every open
+     * square can be reached from the start of the player.
+     *
+     * @param width
+     *            The width of the map.
+     * @param height
+     *            The height of the map.
+     * @param density
+     *            The wall density.
+     */
+    @ParameterizedTest
+    @CsvSource({"5, 5, 0.4", "41, 31, 0.45", "60, 50, 0.3", "100, 100, 0.1", "64, 48, 0"})
+    void connected(int width, int height, double density) {
+        char[][] map = new MapGenerator(width, height).withSeed(width)
+            .withWallDensity(density).withGhosts(2).generate();
+        assertThat(count(map, 'P')).isEqualTo(1);
+        assertThat(count(map, 'G')).isEqualTo(2);
+        assertThat(reachable(map)).isEqualTo(width * height - count(map, '#'));
+    }
+
+    /**
+     * The share of walls stays close to the requested density.
+     */
+    @Test
+    void density() {
+        char[][] map = new MapGenerator(200, 200).withWallDensity(0.35).generate();
+        assertThat(count(map, '#') / 40_000.0).isBetween(0.34, 0.36);
+    }
+
+    /**
+     * Tunnels open the border at both ends.
+     */
+    @Test
+    void tunnels() {
+        char[][] map = new MapGenerator(30, 20).withTunnels(1).generate();
+        int openings = 0;
+        for (int y = 0; y < 20; y++) {
+            if (map[0][y] != '#') {
+                assertThat(map[29][y]).isNotEqualTo('#');
+                openings++;
+            }
+        }
+        assertThat(openings).isEqualTo(1);
+    }
+
+    /**
+     * Without pellets, only the units are placed.
+     */
+    @Test
+    void noPellets() {
+        char[][] map = new MapGenerator(20, 20).withPelletRatio(0).generate();
+        assertThat(count(map, '.')).isZero();
+    }
+
+    /**
+     * Generated maps can be parsed into levels.
+     */
+    @Test
+    void parses() {
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            new ManualTickEngine(), new Random(1L)), new BoardFactory(sprites));
+        char[][] map = new MapGenerator(50, 40).generate();
+        Level level = parser.parseMap(MapGenerator.toText(map));
+        assertThat(level.getBoard().getWidth()).isEqualTo(50);
+        assertThat(level.remainingPellets()).isEqualTo(count(map, '.'));
+    }
+
+    /**
+     * Maps too small for a maze, or for the units, are refused.
+     */
+    @Test
+    void tooSmall() {
+        assertThatThrownBy(() -> new MapGenerator(4, 10))
+            .isInstanceOf(PacmanConfigurationException.class);
+        assertThatThrownBy(() -> new MapGenerator(5, 5).withWallDensity(1).withGhosts(20)
+            .generate()).isInstanceOf(PacmanConfigurationException.class);
+    }
+
+    /**
+     * @param map
+     *            The map.
+     * @param c
+     *            The character to count.
+     * @return The number of squares of the map with the character.
+     */
+    private static int count(char[][] map, char c) {
+        int count = 0;
+        for (char[] column : map) {
+            for (char square : column) {
+                if (square == c) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the open squares reachable from the player, wrapping around
+     * the edges like the board does.
+     *
+     * @param map
+     *            The map.
+     * @return The number of reachable squares.
+     */
+    private static int reachable(char[][] map) {
+        int width = map.length;
+        int height = map[0].length;
+        boolean[][] seen = new boolean[width][height];
+        Deque<int[]> queue = new ArrayDeque<>();
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (map[x][y] == 'P') {
+                    seen[x][y] = true;
+                    queue.add(new int[] {x, y});
+                }
+            }
+        }
+        int count = 0;
+        int[][] steps = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        while (!queue.isEmpty()) {
+            int[] square = queue.remove();
+            count++;
+            for (int[] step : steps) {
+                int x = (square[0] + step[0] + width) % width;
+                int y = (square[1] + step[1] + height) % height;
+                if (!seen[x][y] && map[x][y] != '#') {
+                    seen[x][y] = true;
+                    queue.add(new int[] {x, y});
+                }
+            }
+        }
+        return count;
+    }
+}
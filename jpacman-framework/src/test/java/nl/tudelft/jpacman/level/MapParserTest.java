@@ -0,0 +1,175 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests reading maps from streams and files.
+ */
+@SuppressWarnings("magicnumber")
+class MapParserTest {
+
+    /**
+     * The map used in most tests.
+     */
+    private static final String MAP = "#####\n#P.G#\n# ..#\n#####\n";
+
+    /**
+     * The parser under test.
+     */
+    private MapParser parser;
+
+    /**
+     * Creates the parser.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = new PacManSprites();
+        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            new ManualTickEngine(), new Random(1L)), new BoardFactory(sprites));
+    }
+
+    /**
+     * A stream that hands out a byte at a time, with nothing ready in
+     * between, is still read to the end.
+     *
+     * @throws IOException
+     *             If the stream could not be read.
+     */
+    @Test
+    void slowStream() throws IOException {
+        InputStream slow = new FilterInputStream(stream(MAP)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1));
+            }
+
+            @Override
+            public int available() {
+                return 0;
+            }
+        };
+        assertLevel(parser.parseMap(slow));
+    }
+
+    /**
+     * Files on disk give the same level, with either line ending and with or
+     * without a line ending after the last row.
+     *
+     * @throws IOException
+     *             If the file could not be written or read.
+     */
+    @Test
+    void files() throws IOException {
+        assertLevel(parser.parseMap(file(MAP)));
+        assertLevel(parser.parseMap(file(MAP.replace("\n", "\r\n"))));
+        assertLevel(parser.parseMap(file(MAP.substring(0, MAP.length() - 1))));
+    }
+
+    /**
+     * Maps read from files are refused for the same formatting errors as
+     * maps read from streams.
+     *
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    @Test
+    void malformedFiles() throws IOException {
+        for (String text : new String[] {"", "\n", "###\n##\n", "##\n###\n", "##\n##\n#"}) {
+            Path file = file(text);
+            assertThatThrownBy(() -> parser.parseMap(file))
+                .isInstanceOf(PacmanConfigurationException.class);
+            assertThatThrownBy(() -> parser.parseMap(stream(text)))
+                .isInstanceOf(PacmanConfigurationException.class);
+        }
+    }
+
+    /**
+     * Files and streams both decode text as UTF-8, so characters beyond
+     * ASCII reach the parser whole, whether or not the file is all ASCII.
+     *
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    @Test
+    void utf8() throws IOException {
+        String text = "#\u00e9#\n#\u00e9#\n";
+        Path file = file(text);
+        assertThatThrownBy(() -> parser.parseMap(file))
+            .isInstanceOf(PacmanConfigurationException.class).hasMessageEndingWith(": \u00e9");
+        assertThatThrownBy(() -> parser.parseMap(stream(text)))
+            .isInstanceOf(PacmanConfigurationException.class).hasMessageEndingWith(": \u00e9");
+    }
+
+    /**
+     * Streams of more rows than room is first made for give the whole map.
+     *
+     * @throws IOException
+     *             Never, as the stream is in memory.
+     */
+    @Test
+    void tallStream() throws IOException {
+        StringBuilder text = new StringBuilder("#P#\n");
+        for (int row = 1; row < 40; row++) {
+            text.append("#.#\n");
+        }
+        Level level = parser.parseMap(stream(text.toString()));
+        assertThat(level.getBoard().getHeight()).isEqualTo(40);
+        assertThat(level.remainingPellets()).isEqualTo(39);
+    }
+
+    /**
+     * Checks the level parsed from {@link #MAP}.
+     *
+     * @param level
+     *            The level.
+     */
+    private static void assertLevel(Level level) {
+        Board board = level.getBoard();
+        assertThat(board.getWidth()).isEqualTo(5);
+        assertThat(board.getHeight()).isEqualTo(4);
+        assertThat(board.squareAt(0, 3).isAccessibleTo(null)).isFalse();
+        assertThat(level.remainingPellets()).isEqualTo(3);
+        assertThat(board.squareAt(3, 1).getOccupants()).hasSize(1);
+    }
+
+    /**
+     * @param text
+     *            The contents of the stream.
+     * @return A stream of the text.
+     */
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param text
+     *            The contents of the file.
+     * @return A temporary file holding the text, deleted when the tests end.
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    private static Path file(String text) throws IOException {
+        Path file = Files.createTempFile("map", ".txt");
+        file.toFile().deleteOnExit();
+        return Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+}
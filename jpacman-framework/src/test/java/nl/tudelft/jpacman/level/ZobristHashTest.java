@@ -0,0 +1,210 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.simulation.NearestPelletPolicy;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the hash of the state of levels.
+ */
+@SuppressWarnings("magicnumber")
+class ZobristHashTest {
+
+    /**
+     * The sprites for squares and units.
+     */
+    private PacManSprites sprites;
+
+    /**
+     * The template of the default map.
+     */
+    private LevelTemplate template;
+
+    /**
+     * A started level of the default map with a player.
+     */
+    private Level level;
+
+    /**
+     * The player of the level.
+     */
+    private Player player;
+
+    /**
+     * Creates the level.
+     *
+     * @throws IOException
+     *             If the map could not be read.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        sprites = new PacManSprites();
+        template = new MapParser(levelFactory(), new BoardFactory(sprites))
+            .parseTemplate("/board.txt");
+        level = createLevel(7L);
+        player = (Player) level.getUnit(level.getNpcCount());
+    }
+
+    /**
+     * The hash kept up to date while playing is the hash of the state
+     * computed from scratch.
+     */
+    @Test
+    void matchesRecomputed() {
+        long start = level.getHash();
+        assertThat(start).isEqualTo(recomputed(level));
+        play(level, 200);
+        assertThat(level.getHash()).isNotEqualTo(start).isEqualTo(recomputed(level));
+    }
+
+    /**
+     * Levels in the same state have the same hash, which tells them apart
+     * once they differ.
+     */
+    @Test
+    void sameForSameState() {
+        Level twin = createLevel(7L);
+        assertThat(twin.getHash()).isEqualTo(level.getHash());
+        play(level, 150);
+        play(twin, 150);
+        assertThat(twin.getHash()).isEqualTo(level.getHash());
+
+        Player other = (Player) twin.getUnit(twin.getNpcCount());
+        Direction direction = Direction.WEST;
+        if (!other.getSquare().getSquareAt(direction).isAccessibleTo(other)) {
+            direction = Direction.EAST;
+        }
+        twin.move(other, direction);
+        assertThat(twin.getHash()).isNotEqualTo(level.getHash());
+    }
+
+    /**
+     * The hash covers whether the players are alive.
+     */
+    @Test
+    void coversLife() {
+        long alive = level.getHash();
+        player.setAlive(false);
+        assertThat(level.getHash()).isNotEqualTo(alive).isEqualTo(recomputed(level));
+        player.setAlive(false);
+        assertThat(level.getHash()).isNotEqualTo(alive);
+        player.setAlive(true);
+        assertThat(level.getHash()).isEqualTo(alive);
+    }
+
+    /**
+     * Restoring a snapshot restores the hash.
+     */
+    @Test
+    void restoredBySnapshot() {
+        play(level, 50);
+        LevelSnapshot snapshot = new LevelSnapshot(level);
+        long captured = level.getHash();
+        play(level, 300);
+        assertThat(level.getHash()).isNotEqualTo(captured);
+        snapshot.restore(level);
+        assertThat(level.getHash()).isEqualTo(captured);
+    }
+
+    /**
+     * Ghosts of the same type have keys of their own, so swapping them
+     * changes the hash and stacking them on one square does not cancel them
+     * out.
+     */
+    @Test
+    void tellsGhostsOfATypeApart() {
+        MapParser parser = new MapParser(levelFactory(), new BoardFactory(sprites));
+        Level ghosts = parser.parseMap(Arrays.asList(
+            "#######",
+            "#GGGGG#",
+            "#P....#",
+            "#######"));
+        Unit first = ghosts.getUnit(0);
+        Unit fifth = ghosts.getUnit(4);
+        assertThat(fifth.getClass()).isEqualTo(first.getClass());
+        Square left = first.getSquare();
+        Square right = fifth.getSquare();
+        long before = ghosts.getHash();
+
+        first.occupy(right);
+        fifth.occupy(left);
+        assertThat(ghosts.getHash()).isNotEqualTo(before).isEqualTo(recomputed(ghosts));
+
+        fifth.occupy(right);
+        long stacked = ghosts.getHash();
+        first.leaveSquare();
+        fifth.leaveSquare();
+        assertThat(ghosts.getHash()).isNotEqualTo(stacked).isEqualTo(recomputed(ghosts));
+    }
+
+    /**
+     * @param hashed
+     *            A level.
+     * @return The hash of its state, computed from scratch.
+     */
+    private static long recomputed(Level hashed) {
+        long hash = ZobristHash.placements(hashed.getBoard(), hashed::getUnitId);
+        for (int i = 0; i < hashed.getPlayerCount(); i++) {
+            if (((Player) hashed.getUnit(hashed.getNpcCount() + i)).isAlive()) {
+                hash ^= ZobristHash.aliveKey(i);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Steps a level, with its player going for the nearest pellet.
+     *
+     * @param played
+     *            The level.
+     * @param ticks
+     *            The number of ticks to play.
+     */
+    private static void play(Level played, int ticks) {
+        Player moved = (Player) played.getUnit(played.getNpcCount());
+        NearestPelletPolicy policy = new NearestPelletPolicy();
+        for (int tick = 0; tick < ticks && moved.isAlive(); tick++) {
+            if (played.getTick() % 4 == 0) {
+                Direction direction = policy.nextMove(played, moved);
+                if (direction != null) {
+                    played.move(moved, direction);
+                }
+            }
+            played.step();
+        }
+    }
+
+    /**
+     * @param seed
+     *            The seed of the NPCs.
+     * @return A new started level of the default map with a player.
+     */
+    private Level createLevel(long seed) {
+        Level created = template.createLevel(levelFactory());
+        created.setSeed(seed);
+        created.registerPlayer(new PlayerFactory(sprites).createPacMan());
+        created.start();
+        return created;
+    }
+
+    /**
+     * @return A new level factory for stepped levels.
+     */
+    private LevelFactory levelFactory() {
+        return new LevelFactory(sprites, new GhostFactory(sprites), new ManualTickEngine(),
+            new Random(5L));
+    }
+}
@@ -6,6 +6,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 import nl.tudelft.jpacman.board.Board;
@@ -19,6 +20,7 @@ import nl.tudelft.jpacman.level.Pellet;
 import nl.tudelft.jpacman.npc.Ghost;
 import nl.tudelft.jpacman.sprite.PacManSprites;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -117,6 +119,50 @@ class NavigationTest {
         assertThat(path).containsExactly(Direction.EAST, Direction.SOUTH);
     }
 
+    /**
+     * Verifies that consecutive searches on boards of different sizes do not
+     * see each other's visited squares.
+     */
+    @Test
+    void testRepeatedSearches() {
+        Board large = parser.parseMap(
+            Lists.newArrayList("#######", "#     #", "# ### #", "#     #", "#######"))
+            .getBoard();
+        Board small = parser.parseMap(
+            Lists.newArrayList("####", "#  #", "## #", "####")).getBoard();
+        Unit traveller = mock(Unit.class);
+        for (int i = 0; i < 3; i++) {
+            assertThat(Navigation.shortestPath(large.squareAt(1, 1),
+                large.squareAt(5, 3), traveller)).hasSize(6);
+            assertThat(Navigation.shortestPath(small.squareAt(1, 1),
+                small.squareAt(2, 2), traveller))
+                .containsExactly(Direction.EAST, Direction.SOUTH);
+        }
+    }
+
+    /**
+     * Verifies that searches still work after the search space was shrunk
+     * from a board larger than it keeps room for.
+     */
+    @Test
+    void testSearchAfterLargeBoard() {
+        List<String> rows = new ArrayList<>();
+        for (int y = 0; y < 100; y++) {
+            rows.add(Strings.repeat(" ", 100));
+        }
+        Board large = parser.parseMap(rows).getBoard();
+        Board small = parser.parseMap(
+            Lists.newArrayList("####", "#  #", "## #", "####")).getBoard();
+        Unit traveller = mock(Unit.class);
+        for (int i = 0; i < 2; i++) {
+            assertThat(Navigation.shortestPath(large.squareAt(0, 0),
+                large.squareAt(10, 10), traveller)).hasSize(20);
+            assertThat(Navigation.shortestPath(small.squareAt(1, 1),
+                small.squareAt(2, 2), traveller))
+                .containsExactly(Direction.EAST, Direction.SOUTH);
+        }
+    }
+
     /**
      * Verifies that the nearest object is detected.
      */
@@ -131,6 +177,40 @@ class NavigationTest {
         assertThat(result).isEqualTo(s2);
     }
 
+    /**
+     * Verifies that of two nearest units, the one earliest row by row is
+     * found, whether there are few units to compare or many to search.
+     */
+    @Test
+    void testNearestUnitTie() {
+        Board few = parser
+            .parseMap(Lists.newArrayList("#############", "#      .    #",
+                "#     .     #", "#############"))
+            .getBoard();
+        assertThat(Navigation.findNearest(Pellet.class, few.squareAt(6, 1)).getSquare())
+            .isEqualTo(few.squareAt(7, 1));
+
+        Board many = parser
+            .parseMap(Lists.newArrayList("#############", "#....  .....#",
+                "#...........#", "#############"))
+            .getBoard();
+        assertThat(Navigation.findNearest(Pellet.class, many.squareAt(6, 1)).getSquare())
+            .isEqualTo(many.squareAt(7, 1));
+    }
+
+    /**
+     * Verifies that the first unit of a type on a board is found.
+     */
+    @Test
+    void testFindUnitInBoard() {
+        Board b = parser
+            .parseMap(Lists.newArrayList("#  #", "#. #", "# .#"))
+            .getBoard();
+        assertThat(Navigation.findUnitInBoard(Pellet.class, b).getSquare())
+            .isEqualTo(b.squareAt(1, 1));
+        assertThat(Navigation.findUnitInBoard(Ghost.class, b)).isNull();
+    }
+
     /**
      * Verifies that there is no such location if there is no nearest object.
      */
@@ -0,0 +1,164 @@
+package nl.tudelft.jpacman.replay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.LevelTemplate;
+import nl.tudelft.jpacman.level.ManualTickEngine;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.simulation.NearestPelletPolicy;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests playing back a recorded game.
+ */
+@SuppressWarnings("magicnumber")
+class ReplayPlayerTest {
+
+    /**
+     * The sprites for units.
+     */
+    private PacManSprites sprites;
+
+    /**
+     * The template of the default map.
+     */
+    private LevelTemplate template;
+
+    /**
+     * The recorded level, at the end of the game.
+     */
+    private Level level;
+
+    /**
+     * The player of the recorded level.
+     */
+    private Player player;
+
+    /**
+     * The recorded events.
+     */
+    private List<ReplayEvent> events;
+
+    /**
+     * Records a game on the default map, with the player going for the
+     * nearest pellet every few ticks.
+     *
+     * @throws IOException
+     *             If the recording could not be written or read.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        sprites = new PacManSprites();
+        LevelFactory levelFactory = new LevelFactory(sprites, new GhostFactory(sprites),
+            new ManualTickEngine(), new Random(3L));
+        template = new MapParser(levelFactory, new BoardFactory(sprites))
+            .parseTemplate("/board.txt");
+        level = template.createLevel(new LevelFactory(sprites, new GhostFactory(sprites),
+            new ManualTickEngine(), new Random(11L)));
+        player = new PlayerFactory(sprites).createPacMan();
+        level.registerPlayer(player);
+
+        Path file = Files.createTempFile("game", ".replay");
+        file.toFile().deleteOnExit();
+        try (ReplayRecorder recorder = new ReplayRecorder(file)) {
+            level.setRecorder(recorder);
+            play();
+        }
+        events = ReplayReader.readAll(file);
+    }
+
+    /**
+     * Plays the recorded game, pausing once.
+     */
+    private void play() {
+        NearestPelletPolicy policy = new NearestPelletPolicy();
+        level.start();
+        for (int tick = 0; tick < 2000 && player.isAlive()
+            && level.remainingPellets() > 0; tick++) {
+            if (tick % 4 == 0) {
+                Direction direction = policy.nextMove(level, player);
+                if (direction != null) {
+                    level.move(player, direction);
+                }
+            }
+            if (tick == 20) {
+                level.stop();
+                level.start();
+            }
+            level.step();
+        }
+        level.stop();
+    }
+
+    /**
+     * Playing back ends in the state the game ended in.
+     */
+    @Test
+    void playsBack() {
+        assertThat(events.size()).isGreaterThan(50);
+        ReplayResult result = new ReplayPlayer(template, sprites, events).playToEnd();
+        assertThat(result.getRemainingPellets()).isEqualTo(level.remainingPellets());
+        assertThat(result.getScore(0)).isEqualTo(player.getScore()).isPositive();
+        assertThat(result.isAlive(0)).isEqualTo(player.isAlive());
+        assertThat(result.getSquare(0)).isEqualTo(player.getSquare().getIndex());
+    }
+
+    /**
+     * Simulating the game with the recorded seed reproduces it.
+     */
+    @Test
+    void verifies() {
+        ReplayPlayer replay = new ReplayPlayer(template, sprites, events);
+        assertThat(replay.simulate().getDivergence()).isEqualTo(-1);
+        assertThat(replay.verify()).isTrue();
+    }
+
+    /**
+     * Simulating the game with another seed does not reproduce it.
+     */
+    @Test
+    void detectsDivergence() {
+        List<ReplayEvent> tampered = new ArrayList<>(events);
+        tampered.set(0, ReplayEvent.seeded(0L, events.get(0).getSeed() + 1L));
+        ReplayPlayer replay = new ReplayPlayer(template, sprites, tampered);
+        assertThat(replay.simulate().getDivergence()).isPositive();
+        assertThat(replay.verify()).isFalse();
+    }
+
+    /**
+     * Seeking back and forth gives the same states as playing from the start.
+     */
+    @Test
+    void seeks() {
+        ReplayPlayer replay = new ReplayPlayer(template, sprites, events)
+            .withKeyframeInterval(50L);
+        replay.playToEnd();
+        long end = events.get(events.size() - 1).getTick();
+        for (long tick : new long[] {end / 2, 10L, end - 7L, 0L, 123L, end / 2 + 1L}) {
+            replay.seek(tick);
+            ReplayPlayer fresh = new ReplayPlayer(template, sprites, events)
+                .withKeyframeInterval(Long.MAX_VALUE);
+            fresh.seek(tick);
+            assertThat(replay.getResult().hasSameOutcome(fresh.getResult()))
+                .as("tick %d", tick).isTrue();
+            assertThat(replay.getResult().getTick()).isEqualTo(tick);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package nl.tudelft.jpacman.replay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.ManualTickEngine;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests recording levels and reading the recordings back.
+ */
+@SuppressWarnings("magicnumber")
+class ReplayRecorderTest {
+
+    /**
+     * The file recorded into.
+     */
+    private Path file;
+
+    /**
+     * Creates the file to record into.
+     *
+     * @throws IOException
+     *             If the file could not be created.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("level", ".replay");
+        file.toFile().deleteOnExit();
+    }
+
+    /**
+     * Events are read back as they were recorded.
+     *
+     * @throws IOException
+     *             If the file could not be written or read.
+     */
+    @Test
+    void roundTrip() throws IOException {
+        List<ReplayEvent> events = Arrays.asList(
+            ReplayEvent.seeded(0L, -42L),
+            ReplayEvent.of(ReplayEvent.Type.START, 0L),
+            ReplayEvent.moved(0L, 4, Direction.WEST),
+            ReplayEvent.moved(3L, 0, Direction.EAST),
+            ReplayEvent.of(ReplayEvent.Type.FREEZE, 3L),
+            ReplayEvent.moved(1_000_000L, 300, Direction.NORTH),
+            ReplayEvent.of(ReplayEvent.Type.STOP, 1_000_001L));
+        try (ReplayRecorder recorder = new ReplayRecorder(file)) {
+            events.forEach(event -> replay(event, recorder));
+        }
+        assertThat(ReplayReader.readAll(file)).isEqualTo(events);
+    }
+
+    /**
+     * Recordings hold the seed, the state changes and the moves of a level,
+     * which takes about two bytes per move.
+     *
+     * @throws IOException
+     *             If the file could not be written or read.
+     */
+    @Test
+    void recordsLevel() throws IOException {
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            new ManualTickEngine(), new Random(5L)), new BoardFactory(sprites));
+        Level level = parser.parseMap("/board.txt");
+        Player player = new PlayerFactory(sprites).createPacMan();
+        level.registerPlayer(player);
+        try (ReplayRecorder recorder = new ReplayRecorder(file)) {
+            level.setRecorder(recorder);
+            level.start();
+            level.move(player, Direction.WEST);
+            level.runUntilEnd(200L);
+            level.stop();
+        }
+
+        List<ReplayEvent> events = ReplayReader.readAll(file);
+        assertThat(events.get(0)).isEqualTo(ReplayEvent.seeded(0L, level.getSeed()));
+        assertThat(events.get(1)).isEqualTo(ReplayEvent.of(ReplayEvent.Type.START, 0L));
+        assertThat(events.get(2)).isEqualTo(ReplayEvent.moved(0L, 4, Direction.WEST));
+        assertThat(events.get(events.size() - 1))
+            .isEqualTo(ReplayEvent.of(ReplayEvent.Type.STOP, level.getTick()));
+        assertThat(events.subList(3, events.size() - 1))
+            .isNotEmpty()
+            .allMatch(event -> event.getType() == ReplayEvent.Type.MOVE && event.getUnit() < 4);
+        assertThat(Files.size(file)).isLessThan(5L + 10L + 3L * events.size());
+    }
+
+    /**
+     * Recordings larger than the buffers of the recorder are written whole.
+     *
+     * @throws IOException
+     *             If the file could not be written or read.
+     */
+    @Test
+    void manyEvents() throws IOException {
+        int moves = 100_000;
+        try (ReplayRecorder recorder = new ReplayRecorder(file)) {
+            for (int i = 0; i < moves; i++) {
+                recorder.moved(i / 3, i % 5, Direction.values()[i % 4]);
+            }
+        }
+        List<ReplayEvent> events = ReplayReader.readAll(file);
+        assertThat(events).hasSize(moves);
+        assertThat(events.get(moves - 1))
+            .isEqualTo(ReplayEvent.moved((moves - 1) / 3, (moves - 1) % 5, Direction.EAST));
+    }
+
+    /**
+     * A recording that was cut off is read up to its last complete event.
+     *
+     * @throws IOException
+     *             If the file could not be written or read.
+     */
+    @Test
+    void truncated() throws IOException {
+        try (ReplayRecorder recorder = new ReplayRecorder(file)) {
+            recorder.started(1L);
+            recorder.seeded(2L, Long.MAX_VALUE);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        ReplayReader reader = new ReplayReader(ByteBuffer.wrap(bytes, 0, bytes.length - 1));
+        List<ReplayEvent> events = new ArrayList<>();
+        reader.forEachRemaining(events::add);
+        assertThat(events).containsExactly(ReplayEvent.of(ReplayEvent.Type.START, 1L));
+    }
+
+    /**
+     * Data that is not a recording is refused.
+     */
+    @Test
+    void notAReplay() {
+        assertThatThrownBy(() -> new ReplayReader(ByteBuffer.wrap("JPMC\u0001".getBytes("UTF-8"))))
+            .isInstanceOf(PacmanConfigurationException.class);
+    }
+
+    /**
+     * Reports an event to a recorder.
+     *
+     * @param event
+     *            The event.
+     * @param recorder
+     *            The recorder.
+     */
+    private static void replay(ReplayEvent event, Level.Recorder recorder) {
+        switch (event.getType()) {
+            case SEED:
+                recorder.seeded(event.getTick(), event.getSeed());
+                break;
+            case MOVE:
+                recorder.moved(event.getTick(), event.getUnit(), event.getDirection());
+                break;
+            case START:
+                recorder.started(event.getTick());
+                break;
+            case STOP:
+                recorder.stopped(event.getTick());
+                break;
+            default:
+                recorder.frozen(event.getTick());
+                break;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package nl.tudelft.jpacman.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests playing batches of headless games.
+ */
+@SuppressWarnings("magicnumber")
+class BatchSimulatorTest {
+
+    /**
+     * A small map with a single ghost.
+     */
+    private static final List<String> MAP = Arrays.asList(
+        "#########",
+        "#P......#",
+        "#.##.##.#",
+        "#...G...#",
+        "#########");
+
+    /**
+     * Every seed in the range is played exactly once, whatever the
+     * parallelism.
+     */
+    @Test
+    void playsEverySeed() {
+        SimulationReport report = new BatchSimulator(MAP, NearestPelletPolicy::new)
+            .withParallelism(3)
+            .withMaxTicks(2_000L)
+            .run(10L, 30L);
+
+        assertThat(report.getGames()).isEqualTo(20);
+        List<Long> seeds = new ArrayList<>();
+        for (GameResult result : report.getResults()) {
+            seeds.add(result.getSeed());
+            assertThat(result.getTicks()).isBetween(1L, 2_000L);
+        }
+        assertThat(seeds).first().isEqualTo(10L);
+        assertThat(seeds).last().isEqualTo(29L);
+        assertThat(seeds).doesNotHaveDuplicates();
+    }
+
+    /**
+     * Playing a seed in a batch gives the same game as playing it alone.
+     */
+    @Test
+    void seedsAreReproducible() {
+        BatchSimulator simulator = new BatchSimulator(MAP, NearestPelletPolicy::new)
+            .withMaxTicks(2_000L);
+        SimulationReport report = simulator.run(0L, 8L);
+
+        for (GameResult result : report.getResults()) {
+            GameResult again = simulator.play(result.getSeed());
+            assertThat(again.getScore()).isEqualTo(result.getScore());
+            assertThat(again.getTicks()).isEqualTo(result.getTicks());
+            assertThat(again.isWon()).isEqualTo(result.isWon());
+        }
+    }
+
+    /**
+     * Percentiles use the nearest rank of the sorted scores.
+     */
+    @Test
+    void scorePercentiles() {
+        List<GameResult> games = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            games.add(new GameResult(i, i % 2 == 0, (10 - i) * 10, 100L, 1_000L));
+        }
+        SimulationReport report = new SimulationReport(games);
+
+        assertThat(report.getWins()).isEqualTo(5);
+        assertThat(report.getMeanScore()).isEqualTo(55.0);
+        assertThat(report.getScorePercentile(0)).isEqualTo(10);
+        assertThat(report.getScorePercentile(0.5)).isEqualTo(50);
+        assertThat(report.getScorePercentile(0.9)).isEqualTo(90);
+        assertThat(report.getScorePercentile(1)).isEqualTo(100);
+        assertThat(report.getNanosPerTick()).isEqualTo(10.0);
+    }
+}
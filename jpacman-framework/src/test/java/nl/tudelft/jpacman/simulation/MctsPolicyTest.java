@@ -0,0 +1,230 @@
+package nl.tudelft.jpacman.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.LevelTemplate;
+import nl.tudelft.jpacman.level.ManualTickEngine;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests planning moves by Monte Carlo tree search.
+ */
+@SuppressWarnings("magicnumber")
+class MctsPolicyTest {
+
+    /**
+     * A small map with a single ghost.
+     */
+    private static final List<String> MAP = Arrays.asList(
+        "#########",
+        "#P......#",
+        "#.##.##.#",
+        "#...G...#",
+        "#########");
+
+    /**
+     * The sprites for squares and units.
+     */
+    private PacManSprites sprites;
+
+    /**
+     * The template of the map.
+     */
+    private LevelTemplate template;
+
+    /**
+     * The policy under test.
+     */
+    private MctsPolicy policy;
+
+    /**
+     * Creates the policy.
+     *
+     * @throws IOException
+     *             If the map could not be read.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        sprites = new PacManSprites();
+        byte[] text = String.join("\n", MAP).getBytes(StandardCharsets.UTF_8);
+        template = new MapParser(levelFactory(0L), new BoardFactory(sprites))
+            .parseTemplate(new ByteArrayInputStream(text));
+        policy = new MctsPolicy(template, sprites).withThreads(2).withPlayouts(200);
+    }
+
+    /**
+     * Stops the threads of the policy.
+     */
+    @AfterEach
+    void tearDown() {
+        policy.close();
+    }
+
+    /**
+     * Searching plays out on copies, leaving the level itself alone, and
+     * picks a move the player can make.
+     */
+    @Test
+    void leavesLevelAlone() {
+        Level level = createLevel(3L);
+        Player player = (Player) level.getUnit(1);
+        level.step();
+        long hash = level.getHash();
+        long time = level.getTime();
+
+        Direction move = policy.nextMove(level, player);
+        assertThat(move).isIn(Direction.EAST, Direction.SOUTH);
+        assertThat(level.getHash()).isEqualTo(hash);
+        assertThat(level.getTime()).isEqualTo(time);
+        assertThat(policy.getRollouts()).isPositive();
+        assertThat(policy.getRolloutsPerSecond()).isPositive();
+        assertThat(policy.toString()).contains("rollouts per second");
+    }
+
+    /**
+     * The policy plays games to the end, scoring along the way.
+     */
+    @Test
+    void playsGames() {
+        for (long seed = 0L; seed < 3L; seed++) {
+            Level level = createLevel(seed);
+            play(level, policy);
+            assertThat(((Player) level.getUnit(1)).getScore()).isPositive();
+        }
+    }
+
+    /**
+     * Searching ahead wins more games against the ghost than going for the
+     * nearest pellet, which walks into the ghost on this map.
+     */
+    @Test
+    void beatsNearestPellet() {
+        int searched = 0;
+        int greedy = 0;
+        for (long seed = 0L; seed < 10L; seed++) {
+            searched += play(createLevel(seed), policy);
+            greedy += play(createLevel(seed), new NearestPelletPolicy());
+        }
+        assertThat(searched).isGreaterThan(greedy).isGreaterThanOrEqualTo(3);
+    }
+
+    /**
+     * With a fixed number of playouts per move, the policy plays the same
+     * game of a level every time, even after it was closed in between.
+     */
+    @Test
+    void reproducible() {
+        Level first = createLevel(4L);
+        play(first, policy);
+        policy.close();
+        Level second = createLevel(4L);
+        play(second, policy);
+        assertThat(second.getTick()).isEqualTo(first.getTick());
+        assertThat(second.getHash()).isEqualTo(first.getHash());
+    }
+
+    /**
+     * A search bounded by time plays at least once per thread.
+     */
+    @Test
+    void timedSearch() {
+        MctsPolicy timed = new MctsPolicy(template, sprites).withThreads(2).withMoveBudget(1L);
+        try {
+            Level level = createLevel(3L);
+            level.step();
+            assertThat(timed.nextMove(level, (Player) level.getUnit(1)))
+                .isIn(Direction.EAST, Direction.SOUTH);
+            assertThat(timed.getRollouts()).isGreaterThanOrEqualTo(2L);
+        } finally {
+            timed.close();
+        }
+    }
+
+    /**
+     * A search interrupted while waited for makes no move, and the next move
+     * is searched as usual.
+     */
+    @Test
+    void interruptedSearch() {
+        Level level = createLevel(3L);
+        Player player = (Player) level.getUnit(1);
+        level.step();
+        policy.nextMove(level, player);
+
+        Thread.currentThread().interrupt();
+        Direction move = policy.nextMove(level, player);
+        assertThat(Thread.interrupted()).isTrue();
+        assertThat(move).isNull();
+        assertThat(policy.nextMove(level, player)).isIn(Direction.EAST, Direction.SOUTH);
+    }
+
+    /**
+     * Plays a level to the end, moving the player every fourth tick.
+     *
+     * @param level
+     *            The started level.
+     * @param moves
+     *            The policy moving the player.
+     * @return 1 if the player ate all pellets, 0 otherwise.
+     */
+    private static int play(Level level, PlayerPolicy moves) {
+        Player player = (Player) level.getUnit(1);
+        for (int tick = 0; tick < 1_000 && player.isAlive()
+            && level.remainingPellets() > 0; tick++) {
+            if (tick % 4 == 0) {
+                Direction direction = moves.nextMove(level, player);
+                if (direction != null) {
+                    level.move(player, direction);
+                }
+            }
+            level.step();
+        }
+        level.dispose();
+        if (player.isAlive() && level.remainingPellets() == 0) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * @param seed
+     *            The seed of the ghost.
+     * @return A new started level of the map with a player.
+     */
+    private Level createLevel(long seed) {
+        Level level = template.createLevel(levelFactory(seed));
+        level.setSeed(seed);
+        level.registerPlayer(new PlayerFactory(sprites).createPacMan());
+        level.start();
+        return level;
+    }
+
+    /**
+     * @param seed
+     *            The seed of the levels.
+     * @return A new level factory for stepped levels.
+     */
+    private LevelFactory levelFactory(long seed) {
+        return new LevelFactory(sprites, new GhostFactory(sprites), new ManualTickEngine(),
+            new Random(seed));
+    }
+}
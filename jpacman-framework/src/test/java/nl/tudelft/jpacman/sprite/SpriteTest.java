@@ -3,6 +3,9 @@ package nl.tudelft.jpacman.sprite;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -109,4 +112,20 @@ public class SpriteTest {
         Sprite split = sprite.split(10, 10, 64, 10);
         assertThat(split).isInstanceOf(EmptySprite.class);
     }
+
+    /**
+     * Verifies that a sprite drawn scaled covers exactly the scaled area, also
+     * when drawn from its cached copy.
+     */
+    @Test
+    public void drawScaled() {
+        BufferedImage canvas = new BufferedImage(40, 40, BufferedImage.TYPE_INT_RGB);
+        Graphics graphics = canvas.createGraphics();
+        sprite.draw(graphics, 0, 0, 20, 20);
+        sprite.draw(graphics, 20, 20, 20, 20);
+        graphics.dispose();
+        assertThat(canvas.getRGB(19, 19)).isEqualTo(Color.WHITE.getRGB());
+        assertThat(canvas.getRGB(39, 39)).isEqualTo(Color.WHITE.getRGB());
+        assertThat(canvas.getRGB(20, 19)).isEqualTo(Color.BLACK.getRGB());
+    }
 }
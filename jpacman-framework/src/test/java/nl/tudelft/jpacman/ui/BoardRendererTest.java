@@ -0,0 +1,211 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.sprite.AnimatedSprite;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import nl.tudelft.jpacman.sprite.Sprite;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests redrawing only the squares of the board that changed.
+ */
+@SuppressWarnings("magicnumber")
+class BoardRendererTest {
+
+    /**
+     * The size of a square in pixels.
+     */
+    private static final int CELL = 16;
+
+    /**
+     * The size of the frame: a row of four squares.
+     */
+    private static final Dimension WINDOW = new Dimension(4 * CELL, CELL);
+
+    /**
+     * The colour the moving unit is drawn in.
+     */
+    private static final Color UNIT_COLOR = Color.MAGENTA;
+
+    /**
+     * The row of squares of the board.
+     */
+    private final Square[] squares = new Square[4];
+
+    /**
+     * The sprite of the moving unit, which fills its square.
+     */
+    private final Sprite movingSprite = mock(Sprite.class);
+
+    /**
+     * The sprite of the unit that stays put.
+     */
+    private final Sprite stillSprite = mock(Sprite.class);
+
+    /**
+     * The sprite of the animated unit.
+     */
+    private final AnimatedSprite animatedSprite = mock(AnimatedSprite.class);
+
+    /**
+     * The unit that moves.
+     */
+    private Unit moving;
+
+    /**
+     * The image the frames are drawn on.
+     */
+    private BufferedImage screen;
+
+    /**
+     * The renderer under test.
+     */
+    private BoardRenderer renderer;
+
+    /**
+     * Creates a board with a moving unit on the first square, a unit that
+     * stays put on the third and an animated unit on the fourth, and renders
+     * the first frame.
+     */
+    @BeforeEach
+    void setUp() {
+        BoardFactory factory = new BoardFactory(new PacManSprites());
+        Square[][] grid = new Square[squares.length][1];
+        for (int x = 0; x < squares.length; x++) {
+            squares[x] = factory.createGround();
+            grid[x][0] = squares[x];
+        }
+        Board board = factory.createBoard(grid);
+        doAnswer(invocation -> {
+            Graphics graphics = invocation.getArgument(0);
+            graphics.setColor(UNIT_COLOR);
+            graphics.fillRect(invocation.getArgument(1), invocation.getArgument(2),
+                invocation.getArgument(3), invocation.getArgument(4));
+            return null;
+        }).when(movingSprite).draw(any(), anyInt(), anyInt(), anyInt(), anyInt());
+        moving = new TestUnit(movingSprite);
+        moving.occupy(squares[0]);
+        new TestUnit(stillSprite).occupy(squares[2]);
+        new TestUnit(animatedSprite).occupy(squares[3]);
+
+        Level level = mock(Level.class);
+        when(level.getBoard()).thenReturn(board);
+        Game game = mock(Game.class);
+        when(game.getLevel()).thenReturn(level);
+        renderer = new BoardRenderer(game, mock(Component.class));
+        screen = new BufferedImage(WINDOW.width, WINDOW.height, BufferedImage.TYPE_INT_RGB);
+        render();
+    }
+
+    /**
+     * The first frame draws every unit.
+     */
+    @Test
+    void firstFrameDrawsAll() {
+        verify(movingSprite).draw(any(), eq(0), eq(0), eq(CELL), eq(CELL));
+        verify(stillSprite).draw(any(), eq(2 * CELL), eq(0), eq(CELL), eq(CELL));
+        verify(animatedSprite).draw(any(), eq(3 * CELL), eq(0), eq(CELL), eq(CELL));
+        assertThat(pixel(0)).isEqualTo(UNIT_COLOR.getRGB());
+    }
+
+    /**
+     * A moved unit has the square it left repainted and is drawn on the
+     * square it entered, while squares that did not change are not redrawn.
+     */
+    @Test
+    void redrawsMovedUnit() {
+        clearInvocations(movingSprite, stillSprite, animatedSprite);
+        moving.occupy(squares[1]);
+        render();
+
+        verify(movingSprite).draw(any(), eq(CELL), eq(0), eq(CELL), eq(CELL));
+        assertThat(pixel(0)).isNotEqualTo(UNIT_COLOR.getRGB());
+        assertThat(pixel(1)).isEqualTo(UNIT_COLOR.getRGB());
+        verify(stillSprite, never()).draw(any(), anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    /**
+     * Squares holding an animated unit are redrawn every frame, and squares
+     * that did not change are not.
+     */
+    @Test
+    void animatedSquaresStayDirty() {
+        clearInvocations(movingSprite, stillSprite, animatedSprite);
+        render();
+        render();
+
+        verify(animatedSprite, times(2)).draw(any(), eq(3 * CELL), eq(0), eq(CELL), eq(CELL));
+        verify(movingSprite, never()).draw(any(), anyInt(), anyInt(), anyInt(), anyInt());
+        verify(stillSprite, never()).draw(any(), anyInt(), anyInt(), anyInt(), anyInt());
+        assertThat(pixel(0)).isEqualTo(UNIT_COLOR.getRGB());
+    }
+
+    /**
+     * Renders a frame onto the screen.
+     */
+    private void render() {
+        Graphics graphics = screen.getGraphics();
+        renderer.render(graphics, WINDOW);
+        graphics.dispose();
+    }
+
+    /**
+     * @param x
+     *            The index of a square.
+     * @return The colour at the centre of the square on the screen.
+     */
+    private int pixel(int x) {
+        return screen.getRGB(x * CELL + CELL / 2, CELL / 2);
+    }
+
+    /**
+     * A unit drawn with a given sprite.
+     */
+    private static final class TestUnit extends Unit {
+
+        /**
+         * The sprite of this unit.
+         */
+        private final Sprite sprite;
+
+        /**
+         * Creates a new unit.
+         *
+         * @param sprite
+         *            The sprite of the unit.
+         */
+        TestUnit(Sprite sprite) {
+            this.sprite = sprite;
+        }
+
+        @Override
+        public Sprite getSprite() {
+            return sprite;
+        }
+    }
+}
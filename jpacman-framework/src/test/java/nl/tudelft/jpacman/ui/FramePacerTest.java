@@ -0,0 +1,123 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the pacing of frames.
+ */
+@SuppressWarnings("magicnumber")
+class FramePacerTest {
+
+    /**
+     * The clock the frames are paced by, which only moves when frames are
+     * drawn or waited for.
+     */
+    private final FakeClock clock = new FakeClock();
+
+    /**
+     * Verifies that frames faster than the interval are drawn one interval
+     * apart, without skipping any.
+     *
+     * @throws InterruptedException
+     *             Never, as the clock does not wait.
+     */
+    @Test
+    void pacesFastFrames() throws InterruptedException {
+        FramePacer pacer = new FramePacer(() -> clock.advance(2), 100, clock);
+        long deadline = clock.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            deadline = pacer.drawFrame(deadline);
+        }
+        assertThat(pacer.getInterval()).isEqualTo(millis(10));
+        assertThat(pacer.getFramesDrawn()).isEqualTo(5);
+        assertThat(pacer.getFramesSkipped()).isZero();
+        assertThat(pacer.getFrameTime()).isEqualTo(millis(2));
+        assertThat(clock.nanoTime()).isEqualTo(millis(50)).isEqualTo(deadline);
+    }
+
+    /**
+     * Verifies that frames are skipped rather than drawn back to back when
+     * drawing takes longer than the time available.
+     *
+     * @throws InterruptedException
+     *             Never, as the clock does not wait.
+     */
+    @Test
+    void skipsFramesUnderLoad() throws InterruptedException {
+        FramePacer pacer = new FramePacer(() -> clock.advance(25), 100, clock);
+        long deadline = clock.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            deadline = pacer.drawFrame(deadline);
+        }
+        assertThat(pacer.getFramesDrawn()).isEqualTo(3);
+        assertThat(pacer.getFramesSkipped()).isEqualTo(6);
+        assertThat(pacer.getFrameTime()).isEqualTo(millis(25));
+        assertThat(clock.nanoTime()).isEqualTo(millis(90)).isEqualTo(deadline);
+    }
+
+    /**
+     * Verifies that a started pacer draws frames on its own thread until it
+     * is stopped.
+     *
+     * @throws InterruptedException
+     *             If the test is interrupted while waiting for frames.
+     */
+    @Test
+    void drawsUntilStopped() throws InterruptedException {
+        CountDownLatch frames = new CountDownLatch(3);
+        FramePacer pacer = new FramePacer(frames::countDown, 1000);
+        pacer.start();
+        try {
+            assertThat(frames.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            pacer.stop();
+        }
+        assertThat(pacer.getFramesDrawn()).isPositive();
+    }
+
+    /**
+     * @param millis
+     *            A time in milliseconds.
+     * @return The time in nanoseconds.
+     */
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * A clock that moves only when told to, and skips ahead instead of
+     * waiting.
+     */
+    private static final class FakeClock implements FramePacer.Clock {
+
+        /**
+         * The current time in nanoseconds.
+         */
+        private long now;
+
+        /**
+         * Moves the clock forward.
+         *
+         * @param millis
+         *            The time to move in milliseconds.
+         */
+        void advance(long millis) {
+            now += millis(millis);
+        }
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+
+        @Override
+        public void sleep(long nanos) {
+            now += Math.max(0, nanos);
+        }
+    }
+}